@@ -1,6 +1,8 @@
 plugins {
     id("java")
     id("application")
+    // Микробенчмарки: исходники в src/jmh/java, запуск ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "pw.ns2030"
@@ -20,6 +22,16 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    jvmArgs.set(listOf("-Dfile.encoding=UTF-8"))
+}
+
 application {
     mainClass = "pw.ns2030.Main"
     // Устанавливаем правильную кодировку для запуска
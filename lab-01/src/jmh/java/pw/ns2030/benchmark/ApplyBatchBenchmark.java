@@ -0,0 +1,47 @@
+package pw.ns2030.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pw.ns2030.model.ResultBatch;
+import pw.ns2030.model.Tournament;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Базовая линия для {@link ConcurrentTournamentBenchmark}: те же порции результатов,
+ * применяемые одним потоком напрямую через {@link Tournament#applyBatch(ResultBatch)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ApplyBatchBenchmark {
+    private static final int POSTS = 1024; // Результатов в порции
+    
+    @Param({"200", "1000"})
+    public int teams;
+    
+    private Tournament tournament;
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tournament = new Tournament(teams);
+        random = new SplittableRandom(0);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public Tournament applyBatch() {
+        ResultBatch batch = new ResultBatch(POSTS);
+        for (int k = 0; k < POSTS; k++) {
+            int home = random.nextInt(teams);
+            int away = (home + 1 + random.nextInt(teams - 1)) % teams;
+            batch.setMatchResult(home, away, random.nextInt(6), random.nextInt(6));
+        }
+        tournament.applyBatch(batch);
+        return tournament;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package pw.ns2030.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pw.ns2030.model.ConcurrentTournament;
+import pw.ns2030.model.StandingsSnapshot;
+import pw.ns2030.model.TournamentEngine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пропускная способность {@link TournamentEngine}: результатов в секунду, отправленных
+ * несколькими потоками и уже примененных (каждый вызов ждет flush() своего турнира).
+ * Потоки распределяются по турнирам по кругу: при tournaments = 1 все пишут в один турнир,
+ * при tournaments = 8 у каждого потока свой. Базовая линия - {@link ApplyBatchBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentTournamentBenchmark {
+    private static final int POSTS = 1024; // Результатов за один вызов
+    
+    @State(Scope.Benchmark)
+    public static class Engine {
+        @Param({"1", "8"})
+        public int tournaments;
+        
+        @Param({"200", "1000"})
+        public int teams;
+        
+        TournamentEngine engine;
+        ConcurrentTournament[] targets;
+        final AtomicInteger threads = new AtomicInteger(); // Для распределения потоков по турнирам
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            engine = new TournamentEngine();
+            targets = new ConcurrentTournament[tournaments];
+            for (int t = 0; t < tournaments; t++) {
+                targets[t] = engine.createTournament("Турнир " + (t + 1), teams);
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            engine.close();
+        }
+    }
+    
+    @State(Scope.Thread)
+    public static class Writer {
+        SplittableRandom random;
+        ConcurrentTournament target;
+        
+        @Setup(Level.Trial)
+        public void setUp(Engine engine) {
+            int thread = engine.threads.getAndIncrement();
+            random = new SplittableRandom(thread);
+            target = engine.targets[thread % engine.tournaments];
+        }
+    }
+    
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(POSTS)
+    public StandingsSnapshot postAndFlush(Engine engine, Writer writer) {
+        for (int k = 0; k < POSTS; k++) {
+            int home = writer.random.nextInt(engine.teams);
+            int away = (home + 1 + writer.random.nextInt(engine.teams - 1)) % engine.teams;
+            writer.target.postResult(home, away, writer.random.nextInt(6), writer.random.nextInt(6));
+        }
+        return writer.target.flush().join();
+    }
+}
\ No newline at end of file
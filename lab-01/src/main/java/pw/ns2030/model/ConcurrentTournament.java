@@ -0,0 +1,230 @@
+package pw.ns2030.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Турнир, в который результаты могут отправлять любые потоки.
+ *
+ * Сам {@link Tournament} не потокобезопасен, поэтому он принадлежит одному потоку записи:
+ * отправленные результаты складываются в неблокирующую очередь, а задача разбора очереди
+ * (не больше одной на турнир одновременно) забирает их порцией и применяет одним
+ * {@link Tournament#applyBatch(ResultBatch)}. После каждой порции публикуется новый
+ * {@link StandingsSnapshot}; читатели получают его через volatile-ссылку без блокировок.
+ *
+ * Слушатели турнира вызываются в потоке записи.
+ */
+public final class ConcurrentTournament {
+    static final int MAX_BATCH = 4096; // Наибольшее число операций за один разбор очереди
+    
+    private final String name; // Имя турнира в движке
+    private final Tournament tournament; // Турнир (изменяется только потоком записи)
+    private final int teamCount; // Количество команд (для проверки в потоках отправителей)
+    private final Executor executor; // Потоки, выполняющие разбор очереди
+    private final Queue<Operation> pending = new ConcurrentLinkedQueue<>(); // Отправленные и ещё не примененные операции
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(); // Разбор очереди уже поставлен в executor
+    private volatile StandingsSnapshot snapshot; // Последний опубликованный снимок
+    private volatile boolean closed; // Движок закрыт, новые операции не принимаются
+    private long version; // Номер следующего снимка (только поток записи)
+    
+    ConcurrentTournament(String name, Tournament tournament, Executor executor) {
+        this.name = name;
+        this.tournament = tournament;
+        this.teamCount = tournament.getTeamCount();
+        this.executor = executor;
+        this.snapshot = new StandingsSnapshot(tournament, version++);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    /**
+     * Отправляет результат матча. Индексы и счёт проверяются сразу в вызывающем потоке,
+     * поэтому ошибка одного отправителя не отменяет порцию с результатами других.
+     *
+     * @throws IllegalStateException если движок закрыт ({@link TournamentEngine#close()}) или пул
+     *         потоков записи больше не принимает задачи; неприменённые операции при этом отбрасываются
+     */
+    public void postResult(int homeTeam, int awayTeam, int homeScore, int awayScore) {
+        checkIndices(homeTeam, awayTeam);
+        if (homeScore < 0 || awayScore < 0) {
+            throw new IllegalArgumentException("Счёт не может быть отрицательным");
+        }
+        PackedResults.checkScore(homeScore, awayScore);
+        checkOpen();
+        post(new Operation(homeTeam, awayTeam, homeScore, awayScore, null));
+    }
+    
+    // Отправляет очистку результата матча.
+    public void postClear(int homeTeam, int awayTeam) {
+        checkIndices(homeTeam, awayTeam);
+        checkOpen();
+        post(new Operation(homeTeam, awayTeam, Operation.CLEAR, Operation.CLEAR, null));
+    }
+    
+    /**
+     * Возвращает снимок, который будет опубликован после применения всех операций,
+     * отправленных этим потоком до вызова.
+     *
+     * @throws IllegalStateException если движок закрыт или пул потоков записи не принимает задачи
+     */
+    public CompletableFuture<StandingsSnapshot> flush() {
+        checkOpen();
+        return postFlush();
+    }
+    
+    // Закрывает турнир для новых операций и возвращает ожидание уже отправленных (вызывает движок).
+    CompletableFuture<StandingsSnapshot> close() {
+        closed = true;
+        return postFlush();
+    }
+    
+    private CompletableFuture<StandingsSnapshot> postFlush() {
+        CompletableFuture<StandingsSnapshot> future = new CompletableFuture<>();
+        post(new Operation(0, 0, Operation.CLEAR, Operation.CLEAR, future));
+        return future;
+    }
+    
+    // Последний опубликованный снимок таблицы. Не блокирует и не ждет записи.
+    public StandingsSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Добавляет слушателя изменений турнира.
+     * Слушатель вызывается в потоке записи, а не в потоке, который отправил результат.
+     */
+    public void addTournamentListener(Tournament.TournamentListener listener) {
+        tournament.addTournamentListener(listener);
+    }
+    
+    public void removeTournamentListener(Tournament.TournamentListener listener) {
+        tournament.removeTournamentListener(listener);
+    }
+    
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Движок турнира '" + name + "' закрыт");
+        }
+    }
+    
+    private void checkIndices(int homeTeam, int awayTeam) {
+        if (homeTeam < 0 || homeTeam >= teamCount || awayTeam < 0 || awayTeam >= teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Индекс команды должен быть от 0 до %d", teamCount - 1));
+        }
+        if (homeTeam == awayTeam) {
+            throw new IllegalArgumentException("Команда не может играть сама с собой");
+        }
+    }
+    
+    private void post(Operation operation) {
+        pending.add(operation);
+        if (drainScheduled.compareAndSet(false, true) && !scheduleDrain()) {
+            throw new IllegalStateException("Турнир '" + name + "' не принимает результаты: пул потоков записи закрыт");
+        }
+    }
+    
+    /**
+     * Ставит разбор очереди в executor. Если executor отказал, очередь отбрасывается
+     * (ожидающие flush() завершаются с ошибкой) и флаг снимается - иначе флаг остался бы
+     * поднятым навсегда, и следующие отправки и flush() ждали бы разбора, который не начнется.
+     */
+    private boolean scheduleDrain() {
+        try {
+            executor.execute(this::drain);
+            return true;
+        } catch (RejectedExecutionException e) {
+            IllegalStateException closed = new IllegalStateException(
+                    "Пул потоков записи турнира '" + name + "' закрыт", e);
+            do {
+                Operation dropped;
+                while ((dropped = pending.poll()) != null) {
+                    if (dropped.flush != null) {
+                        dropped.flush.completeExceptionally(closed);
+                    }
+                }
+                drainScheduled.set(false);
+                // Операция, добавленная пока флаг был поднят, иначе осталась бы в очереди
+            } while (!pending.isEmpty() && drainScheduled.compareAndSet(false, true));
+            return false;
+        }
+    }
+    
+    /**
+     * Применяет накопившиеся операции одной порцией и публикует снимок.
+     * Выполняется не больше чем в одном потоке одновременно (флаг drainScheduled).
+     */
+    private void drain() {
+        ResultBatch batch = new ResultBatch(Math.min(pending.size(), MAX_BATCH));
+        List<CompletableFuture<StandingsSnapshot>> flushes = new ArrayList<>();
+        Operation operation;
+        while (batch.size() < MAX_BATCH && (operation = pending.poll()) != null) {
+            if (operation.flush != null) {
+                flushes.add(operation.flush);
+            } else if (operation.homeScore == Operation.CLEAR) {
+                batch.clearMatchResult(operation.homeTeam, operation.awayTeam);
+            } else {
+                batch.setMatchResult(operation.homeTeam, operation.awayTeam, operation.homeScore, operation.awayScore);
+            }
+        }
+        
+        StandingsSnapshot published = snapshot;
+        try {
+            if (!batch.isEmpty()) {
+                tournament.applyBatch(batch);
+                published = new StandingsSnapshot(tournament, version++);
+                snapshot = published;
+            }
+            for (CompletableFuture<StandingsSnapshot> flush : flushes) {
+                flush.complete(published);
+            }
+        } catch (RuntimeException e) {
+            // Операции проверены при отправке, сюда попадают только ошибки слушателей
+            for (CompletableFuture<StandingsSnapshot> flush : flushes) {
+                flush.completeExceptionally(e);
+            }
+        } finally {
+            // Очередь не пуста - ставим следующий разбор, чтобы не занимать поток другими турнирами
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            } else {
+                drainScheduled.set(false);
+                if (!pending.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+    
+    // Отправленная операция: результат, очистка или ожидание публикации (flush != null).
+    private static final class Operation {
+        static final int CLEAR = -1; // Признак очистки результата вместо счёта
+        
+        final int homeTeam; // Индекс команды хозяев
+        final int awayTeam; // Индекс команды гостей
+        final int homeScore; // Голы хозяев или CLEAR
+        final int awayScore; // Голы гостей или CLEAR
+        final CompletableFuture<StandingsSnapshot> flush; // Ожидающий публикации снимка
+        
+        Operation(int homeTeam, int awayTeam, int homeScore, int awayScore,
+                  CompletableFuture<StandingsSnapshot> flush) {
+            this.homeTeam = homeTeam;
+            this.awayTeam = awayTeam;
+            this.homeScore = homeScore;
+            this.awayScore = awayScore;
+            this.flush = flush;
+        }
+    }
+}
\ No newline at end of file
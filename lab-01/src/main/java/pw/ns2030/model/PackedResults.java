@@ -0,0 +1,108 @@
+package pw.ns2030.model;
+
+import java.util.Arrays;
+
+/**
+ * Компактное хранилище результатов матчей.
+ * Для каждой пары команд (i < j) хранится одно число int в треугольном массиве из n(n-1)/2 элементов:
+ * бит 30 - признак проведенного матча, ниже по 15 бит на счёт команды i и команды j.
+ * Результат в обратную сторону (j против i) не хранится, а получается перестановкой счёта при чтении.
+ */
+class PackedResults {
+    static final int MAX_SCORE = 0x7FFF; // Наибольший счёт, помещающийся в 15 бит
+    
+    private static final int PLAYED_FLAG = 1 << 30; // Признак проведенного матча
+    private static final int SCORE_BITS = 15; // Разрядность счёта одной команды
+    private static final int SCORE_MASK = MAX_SCORE; // Маска счёта одной команды
+    
+    private final int teamCount; // Количество команд
+    private final int[] packed; // Результаты пар (i, j), i < j, построчно
+    
+    PackedResults(int teamCount) {
+        this.teamCount = teamCount;
+        this.packed = new int[teamCount * (teamCount - 1) / 2];
+    }
+    
+    // Индекс пары (i, j), i < j: строки i идут подряд, в строке i всего n - 1 - i элементов.
+    private int pairIndex(int i, int j) {
+        return i * (2 * teamCount - i - 1) / 2 + (j - i - 1);
+    }
+    
+    // Индекс записи пары независимо от того, какая команда домашняя.
+    int indexOf(int homeTeam, int awayTeam) {
+        return homeTeam < awayTeam ? pairIndex(homeTeam, awayTeam) : pairIndex(awayTeam, homeTeam);
+    }
+    
+    int size() {
+        return packed.length;
+    }
+    
+    // Проверяет, что счёт помещается в запись.
+    static void checkScore(int homeScore, int awayScore) {
+        if (homeScore > MAX_SCORE || awayScore > MAX_SCORE) {
+            throw new IllegalArgumentException("Счёт не может быть больше " + MAX_SCORE);
+        }
+    }
+    
+    // Возвращает упакованное значение в ориентации (homeTeam, awayTeam).
+    private int entry(int homeTeam, int awayTeam) {
+        if (homeTeam < awayTeam) {
+            return packed[pairIndex(homeTeam, awayTeam)];
+        }
+        int value = packed[pairIndex(awayTeam, homeTeam)];
+        return value == 0 ? 0 : pack(awayScore(value), homeScore(value));
+    }
+    
+    private static int pack(int homeScore, int awayScore) {
+        return PLAYED_FLAG | (homeScore << SCORE_BITS) | awayScore;
+    }
+    
+    private static int homeScore(int value) {
+        return (value >>> SCORE_BITS) & SCORE_MASK;
+    }
+    
+    private static int awayScore(int value) {
+        return value & SCORE_MASK;
+    }
+    
+    boolean isPlayed(int homeTeam, int awayTeam) {
+        return entry(homeTeam, awayTeam) != 0;
+    }
+    
+    /**
+     * Возвращает результат матча с точки зрения homeTeam.
+     * Объект создается при каждом вызове и не связан с хранилищем.
+     */
+    GameResult get(int homeTeam, int awayTeam) {
+        int value = entry(homeTeam, awayTeam);
+        return value == 0 ? new GameResult() : new GameResult(homeScore(value), awayScore(value));
+    }
+    
+    void set(int homeTeam, int awayTeam, int homeScore, int awayScore) {
+        checkScore(homeScore, awayScore);
+        
+        if (homeTeam < awayTeam) {
+            packed[pairIndex(homeTeam, awayTeam)] = pack(homeScore, awayScore);
+        } else {
+            packed[pairIndex(awayTeam, homeTeam)] = pack(awayScore, homeScore);
+        }
+    }
+    
+    void clear(int homeTeam, int awayTeam) {
+        packed[indexOf(homeTeam, awayTeam)] = 0;
+    }
+    
+    void clearAll() {
+        Arrays.fill(packed, 0);
+    }
+    
+    // Результаты пар i < j построчно: голы i << 16 | голы j, несыгранный матч - число -1.
+    int[] toPairArray() {
+        int[] pairs = new int[packed.length];
+        for (int k = 0; k < packed.length; k++) {
+            int value = packed[k];
+            pairs[k] = value == 0 ? -1 : homeScore(value) << 16 | awayScore(value);
+        }
+        return pairs;
+    }
+}
\ No newline at end of file
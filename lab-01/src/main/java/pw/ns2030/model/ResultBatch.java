@@ -0,0 +1,79 @@
+package pw.ns2030.model;
+
+import java.util.Arrays;
+
+/**
+ * Набор изменений результатов, применяемых к турниру за один раз через {@link Tournament#applyBatch}.
+ * Операции применяются в порядке добавления, повторная операция для той же пары перекрывает предыдущую.
+ */
+public class ResultBatch {
+    private static final int CLEAR = -1; // Признак очистки результата вместо счёта
+    
+    private int[] operations; // Операции по 4 числа: домашняя, гостевая, голы хозяев, голы гостей
+    private int size; // Количество операций
+    
+    public ResultBatch() {
+        this(16);
+    }
+    
+    public ResultBatch(int expectedSize) {
+        this.operations = new int[Math.max(expectedSize, 1) * 4];
+        this.size = 0;
+    }
+    
+    // Добавляет установку результата матча.
+    public ResultBatch setMatchResult(int homeTeam, int awayTeam, int homeScore, int awayScore) {
+        if (homeScore < 0 || awayScore < 0) {
+            throw new IllegalArgumentException("Счёт не может быть отрицательным");
+        }
+        add(homeTeam, awayTeam, homeScore, awayScore);
+        return this;
+    }
+    
+    // Добавляет очистку результата матча.
+    public ResultBatch clearMatchResult(int homeTeam, int awayTeam) {
+        add(homeTeam, awayTeam, CLEAR, CLEAR);
+        return this;
+    }
+    
+    private void add(int homeTeam, int awayTeam, int homeScore, int awayScore) {
+        if ((size + 1) * 4 > operations.length) {
+            operations = Arrays.copyOf(operations, operations.length * 2);
+        }
+        
+        int offset = size * 4;
+        operations[offset] = homeTeam;
+        operations[offset + 1] = awayTeam;
+        operations[offset + 2] = homeScore;
+        operations[offset + 3] = awayScore;
+        size++;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int getHomeTeam(int index) {
+        return operations[index * 4];
+    }
+    
+    int getAwayTeam(int index) {
+        return operations[index * 4 + 1];
+    }
+    
+    int getHomeScore(int index) {
+        return operations[index * 4 + 2];
+    }
+    
+    int getAwayScore(int index) {
+        return operations[index * 4 + 3];
+    }
+    
+    boolean isClear(int index) {
+        return operations[index * 4 + 2] == CLEAR;
+    }
+}
\ No newline at end of file
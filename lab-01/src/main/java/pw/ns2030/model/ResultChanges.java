@@ -0,0 +1,89 @@
+package pw.ns2030.model;
+
+import java.util.Arrays;
+
+/**
+ * Сводное событие об изменении нескольких результатов.
+ * Каждая запись - пара команд, у которой изменились обе ячейки: [home][away] и зеркальная [away][home].
+ * При полной очистке турнира записи не перечисляются, вместо этого установлен признак {@link #isAllCleared()}.
+ */
+public class ResultChanges {
+    private final int teamCount; // Количество команд в турнире
+    private final boolean allCleared; // Очищены все результаты турнира
+    private int[] entries; // Записи по 4 числа: домашняя, гостевая, голы хозяев, голы гостей (-1 - не сыгран)
+    private int size; // Количество записей
+    
+    ResultChanges(int teamCount, boolean allCleared, int expectedSize) {
+        this.teamCount = teamCount;
+        this.allCleared = allCleared;
+        this.entries = new int[Math.max(expectedSize, 1) * 4];
+        this.size = 0;
+    }
+    
+    // Добавляет изменившуюся пару с её итоговым результатом.
+    void add(int homeTeam, int awayTeam, GameResult result) {
+        if ((size + 1) * 4 > entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        
+        int offset = size * 4;
+        entries[offset] = homeTeam;
+        entries[offset + 1] = awayTeam;
+        entries[offset + 2] = result.isPlayed() ? result.getHomeScore() : -1;
+        entries[offset + 3] = result.isPlayed() ? result.getAwayScore() : -1;
+        size++;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public boolean isAllCleared() {
+        return allCleared;
+    }
+    
+    // Количество изменившихся пар (без учёта полной очистки).
+    public int size() {
+        return size;
+    }
+    
+    public int getHomeTeam(int index) {
+        return entries[checkIndex(index) * 4];
+    }
+    
+    public int getAwayTeam(int index) {
+        return entries[checkIndex(index) * 4 + 1];
+    }
+    
+    // Итоговый результат пары с точки зрения домашней команды.
+    public GameResult getResult(int index) {
+        int offset = checkIndex(index) * 4;
+        return entries[offset + 2] < 0
+                ? new GameResult()
+                : new GameResult(entries[offset + 2], entries[offset + 3]);
+    }
+    
+    // Голы хозяев в итоговом результате пары или -1, если матч не сыгран (без создания GameResult).
+    public int getHomeScore(int index) {
+        return entries[checkIndex(index) * 4 + 2];
+    }
+    
+    // Голы гостей в итоговом результате пары или -1, если матч не сыгран.
+    public int getAwayScore(int index) {
+        return entries[checkIndex(index) * 4 + 3];
+    }
+    
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс изменения должен быть от 0 до " + (size - 1));
+        }
+        return index;
+    }
+    
+    @Override
+    public String toString() {
+        return allCleared
+                ? "Очищены все результаты"
+                : String.format("Изменено результатов: %d", size);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package pw.ns2030.model;
+
+import java.util.Arrays;
+
+/**
+ * Расписание однокругового турнира: каждая пара команд встречается ровно один раз,
+ * в каждом туре команда играет не больше одного матча.
+ *
+ * Матчи хранятся в двух массивах по турам (тур * matchesPerRound + номер матча), поэтому
+ * расписание на 1000 команд занимает около 4 МБ. При нечетном числе команд в каждом туре
+ * одна команда отдыхает. Расписание неизменяемо; составляет его
+ * {@link pw.ns2030.utils.FixtureScheduler}.
+ */
+public class Schedule {
+    private final int teamCount; // Количество команд
+    private final int roundCount; // Количество туров
+    private final int matchesPerRound; // Матчей в туре
+    private final int[] homeTeams; // Хозяева матчей по турам
+    private final int[] awayTeams; // Гости матчей по турам
+    private final int breakCount; // Пары соседних туров, в которых команда дважды подряд дома или в гостях
+    
+    /**
+     * Проверяет расписание: все пары по одному разу, команда не больше одного раза за тур.
+     * Массивы не копируются, вызывающий не должен изменять их после передачи.
+     */
+    public Schedule(int teamCount, int[] homeTeams, int[] awayTeams) {
+        this.teamCount = teamCount;
+        this.roundCount = teamCount % 2 == 0 ? teamCount - 1 : teamCount;
+        this.matchesPerRound = teamCount / 2;
+        if (homeTeams.length != roundCount * matchesPerRound || awayTeams.length != homeTeams.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Расписание на %d команд должно содержать %d туров по %d матчей",
+                    teamCount, roundCount, matchesPerRound));
+        }
+        this.homeTeams = homeTeams;
+        this.awayTeams = awayTeams;
+        
+        boolean[] pairs = new boolean[teamCount * teamCount];
+        int[] roundOfTeam = new int[teamCount];
+        Arrays.fill(roundOfTeam, -1);
+        for (int round = 0; round < roundCount; round++) {
+            for (int k = 0; k < matchesPerRound; k++) {
+                int home = homeTeams[round * matchesPerRound + k];
+                int away = awayTeams[round * matchesPerRound + k];
+                if (home < 0 || home >= teamCount || away < 0 || away >= teamCount || home == away) {
+                    throw new IllegalArgumentException("Некорректный матч в туре " + (round + 1));
+                }
+                if (roundOfTeam[home] == round || roundOfTeam[away] == round) {
+                    throw new IllegalArgumentException("Команда играет дважды в туре " + (round + 1));
+                }
+                int pair = Math.min(home, away) * teamCount + Math.max(home, away);
+                if (pairs[pair]) {
+                    throw new IllegalArgumentException(String.format(
+                            "Команды %d и %d встречаются в расписании дважды", home + 1, away + 1));
+                }
+                pairs[pair] = true;
+                roundOfTeam[home] = round;
+                roundOfTeam[away] = round;
+            }
+        }
+        this.breakCount = countBreaks();
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public int getRoundCount() {
+        return roundCount;
+    }
+    
+    public int getMatchesPerRound() {
+        return matchesPerRound;
+    }
+    
+    public int getHomeTeam(int round, int match) {
+        return homeTeams[index(round, match)];
+    }
+    
+    public int getAwayTeam(int round, int match) {
+        return awayTeams[index(round, match)];
+    }
+    
+    // Команда, которая отдыхает в туре, или -1 (при четном числе команд играют все).
+    public int getRestingTeam(int round) {
+        if (teamCount % 2 == 0) return -1;
+        boolean[] playing = new boolean[teamCount];
+        for (int k = 0; k < matchesPerRound; k++) {
+            playing[homeTeams[index(round, k)]] = true;
+            playing[awayTeams[index(round, k)]] = true;
+        }
+        for (int team = 0; team < teamCount; team++) {
+            if (!playing[team]) return team;
+        }
+        return -1;
+    }
+    
+    /**
+     * Количество «брейков» - случаев, когда команда играет дома (или в гостях) два тура подряд.
+     * Тур отдыха прерывает серию. Для четного числа команд наименьшее возможное значение - n - 2.
+     */
+    public int getBreakCount() {
+        return breakCount;
+    }
+    
+    // Количество домашних матчей команды.
+    public int getHomeMatchCount(int team) {
+        int count = 0;
+        for (int home : homeTeams) {
+            if (home == team) count++;
+        }
+        return count;
+    }
+    
+    private int index(int round, int match) {
+        if (round < 0 || round >= roundCount || match < 0 || match >= matchesPerRound) {
+            throw new IndexOutOfBoundsException("Некорректный матч расписания: тур " + round + ", матч " + match);
+        }
+        return round * matchesPerRound + match;
+    }
+    
+    private int countBreaks() {
+        // Место команды в прошлом туре: 1 - дома, -1 - в гостях, 0 - отдыхала
+        int[] previous = new int[teamCount];
+        int[] current = new int[teamCount];
+        int breaks = 0;
+        for (int round = 0; round < roundCount; round++) {
+            Arrays.fill(current, 0);
+            for (int k = 0; k < matchesPerRound; k++) {
+                current[homeTeams[round * matchesPerRound + k]] = 1;
+                current[awayTeams[round * matchesPerRound + k]] = -1;
+            }
+            for (int team = 0; team < teamCount; team++) {
+                if (current[team] != 0 && current[team] == previous[team]) breaks++;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return breaks;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,264 @@
+package pw.ns2030.model;
+
+import java.util.*;
+
+/**
+ * Турнирная таблица, которая постоянно хранится в отсортированном виде.
+ * После изменения статистики одной команды переставляется только эта команда:
+ * новое место ищется двоичным поиском, сдвигаются лишь команды между старым и новым местом.
+ *
+ * При включенном учёте личных встреч команды с равными очками дополнительно упорядочиваются
+ * по мини-турниру между собой (очки, разность и забитые голы в матчах друг с другом), затем
+ * по общим показателям. Таблицы мини-турниров не пересчитываются целиком: при изменении матча
+ * внутри группы меняются показатели двух команд, а команда, перешедшая в другую группу,
+ * вычитается из старой и добавляется в новую за один проход по её участникам.
+ */
+class Standings {
+    // Порядок мест: турнирные показатели, при полном равенстве - индекс команды
+    private static final Comparator<Team> ORDER =
+            Comparator.<Team>naturalOrder().thenComparingInt(Team::getId);
+    
+    private final List<Team> teams; // Команды в порядке индексов турнира
+    private final PackedResults results; // Результаты матчей для мини-турниров
+    private final Team[] ranking; // Команды в порядке ORDER, без учёта личных встреч
+    private final int[] rankOf; // Индекс в ranking для каждой команды по её индексу в турнире
+    private final Team[] table; // Команды в порядке мест, table[0] - лидер
+    private boolean headToHead; // Учитывать личные встречи при равенстве очков
+    
+    // Мини-турниры групп с равными очками (поддерживаются только при учёте личных встреч)
+    private final Map<Integer, List<Integer>> groups = new HashMap<>(); // Индексы команд группы по числу очков
+    private final int[] groupPoints; // Очки, по которым команда сейчас записана в группу
+    private final int[] headToHeadPoints; // Очки в матчах с командами своей группы
+    private final int[] headToHeadGoalDifference; // Разность голов в матчах с командами своей группы
+    private final int[] headToHeadGoalsFor; // Забитые голы в матчах с командами своей группы
+    private final Comparator<Team> headToHeadOrder; // Порядок внутри группы: мини-турнир, затем ORDER
+    
+    Standings(List<Team> teams, PackedResults results) {
+        this.teams = teams;
+        this.results = results;
+        this.ranking = teams.toArray(new Team[0]);
+        this.rankOf = new int[ranking.length];
+        this.table = ranking.clone();
+        this.groupPoints = new int[ranking.length];
+        this.headToHeadPoints = new int[ranking.length];
+        this.headToHeadGoalDifference = new int[ranking.length];
+        this.headToHeadGoalsFor = new int[ranking.length];
+        this.headToHeadOrder = Comparator.<Team>comparingInt(team -> -headToHeadPoints[team.getId() - 1])
+                .thenComparingInt(team -> -headToHeadGoalDifference[team.getId() - 1])
+                .thenComparingInt(team -> -headToHeadGoalsFor[team.getId() - 1])
+                .thenComparing(ORDER);
+        
+        rebuild();
+    }
+    
+    /**
+     * Включает или выключает учёт личных встреч.
+     *
+     * @return true, если порядок команд в таблице изменился
+     */
+    boolean setHeadToHead(boolean enabled) {
+        if (headToHead == enabled) return false;
+        headToHead = enabled;
+        if (enabled) {
+            rebuildGroups();
+        } else {
+            groups.clear();
+        }
+        return arrange(0, ranking.length);
+    }
+    
+    boolean isHeadToHead() {
+        return headToHead;
+    }
+    
+    /**
+     * Учитывает изменение результата матча в мини-турнире, если обе команды в одной группе.
+     * Вызывается после записи нового результата, но до изменения статистики команд.
+     */
+    void resultChanged(int homeTeam, int awayTeam, GameResult oldResult) {
+        if (!headToHead || groupPoints[homeTeam] != groupPoints[awayTeam]) return;
+        
+        if (oldResult.isPlayed()) {
+            addHeadToHead(homeTeam, awayTeam, oldResult, -1);
+        }
+        if (results.isPlayed(homeTeam, awayTeam)) {
+            addHeadToHead(homeTeam, awayTeam, results.get(homeTeam, awayTeam), 1);
+        }
+    }
+    
+    /**
+     * Полностью пересортировывает таблицу, например после пакета результатов или сброса.
+     *
+     * @return true, если порядок команд в таблице изменился
+     */
+    boolean rebuild() {
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = teams.get(i);
+        }
+        Arrays.sort(ranking, ORDER);
+        
+        for (int i = 0; i < ranking.length; i++) {
+            rankOf[ranking[i].getId() - 1] = i; // id команды на единицу больше её индекса в турнире
+        }
+        if (headToHead) {
+            rebuildGroups();
+        }
+        return arrange(0, ranking.length);
+    }
+    
+    /**
+     * Переставляет команду после изменения её показателей или названия.
+     * Остальные команды должны оставаться на своих местах в правильном порядке.
+     *
+     * @return true, если порядок команд в таблице изменился
+     */
+    boolean update(int teamIndex) {
+        Team team = teams.get(teamIndex);
+        if (headToHead && groupPoints[teamIndex] != team.getTotalPoints()) {
+            leaveGroup(teamIndex);
+            joinGroup(teamIndex);
+        }
+        
+        int from = rankOf[teamIndex];
+        int to;
+        
+        if (from > 0 && ORDER.compare(team, ranking[from - 1]) < 0) {
+            // Команда поднимается: команды [to, from) сдвигаются на место вниз
+            to = insertionPoint(team, 0, from);
+            System.arraycopy(ranking, to, ranking, to + 1, from - to);
+        } else if (from < ranking.length - 1 && ORDER.compare(team, ranking[from + 1]) > 0) {
+            // Команда опускается: команды (from, to] сдвигаются на место вверх
+            to = insertionPoint(team, from + 1, ranking.length) - 1;
+            System.arraycopy(ranking, from + 1, ranking, from, to - from);
+        } else if (headToHead) {
+            // Порядок по ORDER не изменился, но мог измениться мини-турнир группы команды
+            return arrange(from, from + 1);
+        } else {
+            return false;
+        }
+        
+        ranking[to] = team;
+        for (int i = Math.min(from, to); i <= Math.max(from, to); i++) {
+            rankOf[ranking[i].getId() - 1] = i;
+        }
+        return arrange(Math.min(from, to), Math.max(from, to) + 1);
+    }
+    
+    // Первое место в диапазоне [low, high), которое команда должна занять перед ranking[i].
+    private int insertionPoint(Team team, int low, int high) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(ranking[mid], team) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    /**
+     * Переносит участок [from, to) порядка ranking в итоговую таблицу и записывает места.
+     * С учётом личных встреч участок расширяется до границ соседних групп с равными очками,
+     * и каждая группа упорядочивается по своему мини-турниру.
+     *
+     * @return true, если порядок команд в таблице изменился
+     */
+    private boolean arrange(int from, int to) {
+        if (headToHead) {
+            // Соседние группы тоже пересобираем: команда могла уйти из одной из них
+            from = Math.max(0, from - 1);
+            to = Math.min(ranking.length, to + 1);
+            while (from > 0 && samePoints(from - 1, from)) from--;
+            while (to < ranking.length && samePoints(to - 1, to)) to++;
+        }
+        
+        boolean changed = false;
+        int start = from;
+        while (start < to) {
+            int end = start + 1;
+            if (headToHead) {
+                while (end < to && samePoints(start, end)) end++;
+            }
+            
+            Team[] group = Arrays.copyOfRange(ranking, start, end);
+            if (group.length > 1) {
+                Arrays.sort(group, headToHeadOrder);
+            }
+            
+            for (int k = start; k < end; k++) {
+                Team team = group[k - start];
+                changed |= table[k] != team;
+                table[k] = team;
+                team.setPosition(k + 1);
+            }
+            start = end;
+        }
+        return changed;
+    }
+    
+    private boolean samePoints(int first, int second) {
+        return ranking[first].getTotalPoints() == ranking[second].getTotalPoints();
+    }
+    
+    Team getLeader() {
+        return table[0];
+    }
+    
+    // Возвращает команду, занимающую указанное место (с 1).
+    Team getTeamAt(int position) {
+        return table[position - 1];
+    }
+    
+    List<Team> toList() {
+        return List.of(table);
+    }
+    
+    // Заново раскладывает команды по группам и считает их мини-турниры.
+    private void rebuildGroups() {
+        groups.clear();
+        Arrays.fill(headToHeadPoints, 0);
+        Arrays.fill(headToHeadGoalDifference, 0);
+        Arrays.fill(headToHeadGoalsFor, 0);
+        for (int i = 0; i < ranking.length; i++) {
+            joinGroup(i);
+        }
+    }
+    
+    // Добавляет команду в группу по её текущим очкам вместе с её матчами против участников группы.
+    private void joinGroup(int teamIndex) {
+        int points = teams.get(teamIndex).getTotalPoints();
+        List<Integer> group = groups.computeIfAbsent(points, key -> new ArrayList<>());
+        for (int member : group) {
+            if (results.isPlayed(teamIndex, member)) {
+                addHeadToHead(teamIndex, member, results.get(teamIndex, member), 1);
+            }
+        }
+        group.add(teamIndex);
+        groupPoints[teamIndex] = points;
+    }
+    
+    // Убирает команду из её группы и вычитает её матчи из мини-турнира остальных участников.
+    private void leaveGroup(int teamIndex) {
+        List<Integer> group = groups.get(groupPoints[teamIndex]);
+        group.remove(Integer.valueOf(teamIndex));
+        for (int member : group) {
+            if (results.isPlayed(teamIndex, member)) {
+                addHeadToHead(teamIndex, member, results.get(teamIndex, member), -1);
+            }
+        }
+        if (group.isEmpty()) {
+            groups.remove(groupPoints[teamIndex]);
+        }
+    }
+    
+    // Добавляет (sign = 1) или вычитает (sign = -1) матч из мини-турнира обеих команд.
+    private void addHeadToHead(int homeTeam, int awayTeam, GameResult result, int sign) {
+        headToHeadPoints[homeTeam] += sign * result.getHomePoints();
+        headToHeadPoints[awayTeam] += sign * result.getAwayPoints();
+        headToHeadGoalDifference[homeTeam] += sign * (result.getHomeScore() - result.getAwayScore());
+        headToHeadGoalDifference[awayTeam] += sign * (result.getAwayScore() - result.getHomeScore());
+        headToHeadGoalsFor[homeTeam] += sign * result.getHomeScore();
+        headToHeadGoalsFor[awayTeam] += sign * result.getAwayScore();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package pw.ns2030.model;
+
+/**
+ * Неизменяемый снимок турнирной таблицы, опубликованный {@link ConcurrentTournament}.
+ * Снимок создается потоком записи после применения очередной порции результатов,
+ * читатели получают его без блокировок и видят согласованное состояние целиком.
+ * Таблицы из истории турнира ({@link Tournament#getStandingsAfter(int)}) - тоже снимки,
+ * их номер - номер тура.
+ * Места нумеруются с 1, команды - индексами турнира с 0.
+ */
+public final class StandingsSnapshot {
+    private final long version; // Номер снимка, растет с каждой публикацией
+    private final int teamCount; // Количество команд
+    private final String[] names; // Названия команд по индексу
+    private final int[] points; // Очки команд по индексу
+    private final int[] matchesPlayed; // Сыгранные матчи команд по индексу
+    private final int[] goalsFor; // Забитые голы команд по индексу
+    private final int[] goalsAgainst; // Пропущенные голы команд по индексу
+    private final int[] order; // Индексы команд в порядке мест
+    private final int totalMatchesPlayed; // Сыгранные матчи турнира
+    private final int totalMatches; // Всего матчей в турнире
+    private final long totalGoals; // Сумма голов турнира
+    
+    // Снимает состояние турнира. Вызывается только потоком, который владеет турниром.
+    StandingsSnapshot(Tournament tournament, long version) {
+        this.version = version;
+        this.teamCount = tournament.getTeamCount();
+        this.names = new String[teamCount];
+        this.points = new int[teamCount];
+        this.matchesPlayed = new int[teamCount];
+        this.goalsFor = new int[teamCount];
+        this.goalsAgainst = new int[teamCount];
+        this.order = new int[teamCount];
+        
+        for (int i = 0; i < teamCount; i++) {
+            Team team = tournament.getTeam(i);
+            names[i] = team.getName();
+            points[i] = team.getTotalPoints();
+            matchesPlayed[i] = team.getMatchesPlayed();
+            goalsFor[i] = team.getGoalsFor();
+            goalsAgainst[i] = team.getGoalsAgainst();
+        }
+        for (int position = 1; position <= teamCount; position++) {
+            order[position - 1] = tournament.getTeamAtPosition(position).getId() - 1;
+        }
+        
+        this.totalMatchesPlayed = tournament.getTotalMatchesPlayed();
+        this.totalMatches = tournament.getTotalMatches();
+        this.totalGoals = tournament.getTotalGoals();
+    }
+    
+    // Снимок таблицы из истории турнира, массивы передаются во владение снимку.
+    StandingsSnapshot(long version, String[] names, int[] points, int[] matchesPlayed,
+                      int[] goalsFor, int[] goalsAgainst, int[] order,
+                      int totalMatchesPlayed, int totalMatches, long totalGoals) {
+        this.version = version;
+        this.teamCount = names.length;
+        this.names = names;
+        this.points = points;
+        this.matchesPlayed = matchesPlayed;
+        this.goalsFor = goalsFor;
+        this.goalsAgainst = goalsAgainst;
+        this.order = order;
+        this.totalMatchesPlayed = totalMatchesPlayed;
+        this.totalMatches = totalMatches;
+        this.totalGoals = totalGoals;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public String getTeamName(int teamIndex) {
+        return names[teamIndex];
+    }
+    
+    public int getPoints(int teamIndex) {
+        return points[teamIndex];
+    }
+    
+    public int getMatchesPlayed(int teamIndex) {
+        return matchesPlayed[teamIndex];
+    }
+    
+    public int getGoalsFor(int teamIndex) {
+        return goalsFor[teamIndex];
+    }
+    
+    public int getGoalsAgainst(int teamIndex) {
+        return goalsAgainst[teamIndex];
+    }
+    
+    // Возвращает индекс команды, занимающей указанное место (с 1).
+    public int getTeamAtPosition(int position) {
+        if (position < 1 || position > teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Место должно быть от 1 до %d", teamCount));
+        }
+        return order[position - 1];
+    }
+    
+    public int getLeader() {
+        return order[0];
+    }
+    
+    public int getTotalMatchesPlayed() {
+        return totalMatchesPlayed;
+    }
+    
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public long getTotalGoals() {
+        return totalGoals;
+    }
+    
+    public boolean isComplete() {
+        return totalMatchesPlayed == totalMatches;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Снимок #%d: %d команд, сыграно %d из %d, лидер: %s (%d очков)",
+                version, teamCount, totalMatchesPlayed, totalMatches, names[order[0]], points[order[0]]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,328 @@
+package pw.ns2030.model;
+
+import java.util.*;
+
+/**
+ * История турнирной таблицы по турам.
+ *
+ * Каждое изменение результата записывается в журнал вместе с прежним результатом пары,
+ * поэтому изменение можно применить к показателям команд без знания остальных матчей.
+ * Тур - {@link #getMatchesPerRound()} записанных подряд изменений (n/2 матчей, как в круговом турнире);
+ * если результаты вносятся по турам, туры истории совпадают с настоящими.
+ *
+ * После каждого тура сохраняется контрольная точка - показатели всех команд (очки, голы,
+ * матчи, победы). Полная копия хранится раз в {@link #KEYFRAME_INTERVAL} туров, остальные точки -
+ * разность с последней полной копией в массиве short. Таблица после любого тура восстанавливается
+ * за один проход по командам, после любого матча - с дозаписью не больше одного тура изменений.
+ * Места команд после завершенного тура вычисляются один раз и запоминаются.
+ *
+ * Места в истории определяются по общим показателям (очки, разность, забитые голы, победы,
+ * название), без учёта личных встреч; для названий берутся текущие названия команд.
+ */
+class StandingsTimeline {
+    static final int KEYFRAME_INTERVAL = 16; // Через сколько туров хранится полная копия показателей
+    
+    // Показатели команды в векторе состояния: stat * teamCount + индекс команды
+    private static final int POINTS = 0; // Очки
+    private static final int GOALS_FOR = 1; // Забитые голы
+    private static final int GOALS_AGAINST = 2; // Пропущенные голы
+    private static final int PLAYED = 3; // Сыгранные матчи
+    private static final int WINS = 4; // Победы
+    private static final int STATS = 5; // Количество показателей
+    
+    private static final int NOT_PLAYED = -1; // Признак отсутствия результата в журнале
+    
+    private final List<Team> teams; // Команды в порядке индексов турнира (для названий)
+    private final int teamCount; // Количество команд
+    private final int matchesPerRound; // Изменений в одном туре
+    
+    private int[] events = new int[3 * 64]; // Журнал по 3 числа: пара (home << 16 | away), прежний и новый счёт
+    private int eventCount; // Записано изменений
+    private final int[] state; // Показатели после последнего изменения
+    
+    private final List<Checkpoint> checkpoints = new ArrayList<>(); // Точка i - после тура i + 1
+    private int[] lastKeyframe; // Показатели последней полной копии (изначально нули)
+    private int lastKeyframeRound; // Тур последней полной копии
+    
+    StandingsTimeline(List<Team> teams) {
+        this.teams = teams;
+        this.teamCount = teams.size();
+        this.matchesPerRound = Math.max(1, teamCount / 2);
+        this.state = new int[STATS * teamCount];
+        this.lastKeyframe = new int[STATS * teamCount];
+    }
+    
+    /**
+     * Записывает изменение результата пары. Результаты - с точки зрения хозяев,
+     * несыгранный результат означает очистку или отсутствие прежнего результата.
+     */
+    void record(int homeTeam, int awayTeam, GameResult oldResult, GameResult newResult) {
+        if (eventCount * 3 == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        int offset = eventCount * 3;
+        events[offset] = homeTeam << 16 | awayTeam;
+        events[offset + 1] = pack(oldResult);
+        events[offset + 2] = pack(newResult);
+        eventCount++;
+        
+        apply(state, offset);
+        
+        if (eventCount % matchesPerRound == 0) {
+            addCheckpoint();
+        }
+    }
+    
+    // Забывает запомненные места: при равенстве всех показателей они зависят от названий.
+    void teamRenamed() {
+        for (Checkpoint checkpoint : checkpoints) {
+            checkpoint.positions = null;
+        }
+    }
+    
+    // Очищает историю (новый сезон после полной очистки результатов).
+    void clear() {
+        eventCount = 0;
+        Arrays.fill(state, 0);
+        checkpoints.clear();
+        lastKeyframe = new int[STATS * teamCount];
+        lastKeyframeRound = 0;
+    }
+    
+    int getMatchesPerRound() {
+        return matchesPerRound;
+    }
+    
+    int getRecordedMatches() {
+        return eventCount;
+    }
+    
+    // Количество туров, включая незавершенный последний.
+    int getRoundCount() {
+        return (eventCount + matchesPerRound - 1) / matchesPerRound;
+    }
+    
+    // Таблица после указанного тура (0 - до первого матча).
+    StandingsSnapshot getStandingsAfter(int round) {
+        checkRound(round);
+        return getStandingsAfterMatch(Math.min(round * matchesPerRound, eventCount), round);
+    }
+    
+    // Таблица после указанного количества записанных изменений.
+    StandingsSnapshot getStandingsAfterMatch(int match) {
+        if (match < 0 || match > eventCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Номер матча должен быть от 0 до %d", eventCount));
+        }
+        return getStandingsAfterMatch(match, (match + matchesPerRound - 1) / matchesPerRound);
+    }
+    
+    private StandingsSnapshot getStandingsAfterMatch(int match, int round) {
+        int[] stats = stateAfter(match);
+        int[] order = rank(stats);
+        
+        String[] names = new String[teamCount];
+        int played = 0;
+        long goals = 0;
+        for (int i = 0; i < teamCount; i++) {
+            names[i] = teams.get(i).getName();
+            played += stats[PLAYED * teamCount + i];
+            goals += stats[GOALS_FOR * teamCount + i];
+        }
+        
+        return new StandingsSnapshot(round, names,
+                Arrays.copyOfRange(stats, POINTS * teamCount, (POINTS + 1) * teamCount),
+                Arrays.copyOfRange(stats, PLAYED * teamCount, (PLAYED + 1) * teamCount),
+                Arrays.copyOfRange(stats, GOALS_FOR * teamCount, (GOALS_FOR + 1) * teamCount),
+                Arrays.copyOfRange(stats, GOALS_AGAINST * teamCount, (GOALS_AGAINST + 1) * teamCount),
+                order, played / 2, teamCount * (teamCount - 1) / 2, goals);
+    }
+    
+    /**
+     * Места команды (с 1) после каждого тура, от первого до последнего (возможно, незавершенного).
+     */
+    int[] getPositionHistory(int teamIndex) {
+        if (teamIndex < 0 || teamIndex >= teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Индекс команды должен быть от 0 до %d", teamCount - 1));
+        }
+        int rounds = getRoundCount();
+        int[] history = new int[rounds];
+        short[] partial = null;
+        for (int round = 1; round <= rounds; round++) {
+            short[] positions;
+            if (round <= checkpoints.size()) {
+                positions = checkpoints.get(round - 1).positions();
+            } else {
+                if (partial == null) partial = positions(stateAfter(eventCount));
+                positions = partial;
+            }
+            history[round - 1] = positions[teamIndex];
+        }
+        return history;
+    }
+    
+    // Места всех команд после каждого тура: [индекс команды][тур - 1].
+    int[][] getPositionHistory() {
+        int rounds = getRoundCount();
+        int[][] history = new int[teamCount][rounds];
+        for (int round = 1; round <= rounds; round++) {
+            short[] positions = round <= checkpoints.size()
+                    ? checkpoints.get(round - 1).positions()
+                    : positions(stateAfter(eventCount));
+            for (int i = 0; i < teamCount; i++) {
+                history[i][round - 1] = positions[i];
+            }
+        }
+        return history;
+    }
+    
+    private void checkRound(int round) {
+        if (round < 0 || round > getRoundCount()) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Номер тура должен быть от 0 до %d", getRoundCount()));
+        }
+    }
+    
+    /**
+     * Сохраняет показатели после завершенного тура: разность с последней полной копией,
+     * а каждый KEYFRAME_INTERVAL тур или при выходе разности за пределы short - полную копию.
+     */
+    private void addCheckpoint() {
+        int round = checkpoints.size() + 1;
+        if (round - lastKeyframeRound < KEYFRAME_INTERVAL) {
+            short[] delta = new short[state.length];
+            boolean fits = true;
+            for (int k = 0; k < state.length && fits; k++) {
+                int difference = state[k] - lastKeyframe[k];
+                fits = difference >= Short.MIN_VALUE && difference <= Short.MAX_VALUE;
+                delta[k] = (short) difference;
+            }
+            if (fits) {
+                checkpoints.add(new Checkpoint(lastKeyframe, delta));
+                return;
+            }
+        }
+        
+        lastKeyframe = state.clone();
+        lastKeyframeRound = round;
+        checkpoints.add(new Checkpoint(lastKeyframe, null));
+    }
+    
+    // Показатели после указанного количества изменений: ближайшая точка и дозапись остатка тура.
+    private int[] stateAfter(int match) {
+        if (match == eventCount) return state.clone();
+        
+        int round = match / matchesPerRound;
+        int[] stats = round == 0 ? new int[state.length] : checkpoints.get(round - 1).restore();
+        for (int event = round * matchesPerRound; event < match; event++) {
+            apply(stats, event * 3);
+        }
+        return stats;
+    }
+    
+    // Применяет изменение журнала: вычитает прежний результат пары и добавляет новый.
+    private void apply(int[] stats, int offset) {
+        int homeTeam = events[offset] >>> 16;
+        int awayTeam = events[offset] & 0xFFFF;
+        addResult(stats, homeTeam, awayTeam, events[offset + 1], -1);
+        addResult(stats, homeTeam, awayTeam, events[offset + 2], 1);
+    }
+    
+    private void addResult(int[] stats, int homeTeam, int awayTeam, int packed, int sign) {
+        if (packed == NOT_PLAYED) return;
+        int homeScore = packed >>> 16;
+        int awayScore = packed & 0xFFFF;
+        
+        stats[GOALS_FOR * teamCount + homeTeam] += sign * homeScore;
+        stats[GOALS_AGAINST * teamCount + homeTeam] += sign * awayScore;
+        stats[GOALS_FOR * teamCount + awayTeam] += sign * awayScore;
+        stats[GOALS_AGAINST * teamCount + awayTeam] += sign * homeScore;
+        stats[PLAYED * teamCount + homeTeam] += sign;
+        stats[PLAYED * teamCount + awayTeam] += sign;
+        
+        if (homeScore > awayScore) {
+            stats[POINTS * teamCount + homeTeam] += sign * 3;
+            stats[WINS * teamCount + homeTeam] += sign;
+        } else if (homeScore < awayScore) {
+            stats[POINTS * teamCount + awayTeam] += sign * 3;
+            stats[WINS * teamCount + awayTeam] += sign;
+        } else {
+            stats[POINTS * teamCount + homeTeam] += sign;
+            stats[POINTS * teamCount + awayTeam] += sign;
+        }
+    }
+    
+    // Индексы команд в порядке мест (тот же порядок, что у Team.compareTo, затем индекс).
+    private int[] rank(int[] stats) {
+        Integer[] order = new Integer[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int comparison = Integer.compare(stats[POINTS * teamCount + b], stats[POINTS * teamCount + a]);
+            if (comparison != 0) return comparison;
+            comparison = Integer.compare(goalDifference(stats, b), goalDifference(stats, a));
+            if (comparison != 0) return comparison;
+            comparison = Integer.compare(stats[GOALS_FOR * teamCount + b], stats[GOALS_FOR * teamCount + a]);
+            if (comparison != 0) return comparison;
+            comparison = Integer.compare(stats[WINS * teamCount + b], stats[WINS * teamCount + a]);
+            if (comparison != 0) return comparison;
+            comparison = teams.get(a).getName().compareToIgnoreCase(teams.get(b).getName());
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        });
+        
+        int[] result = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+    
+    private int goalDifference(int[] stats, int team) {
+        return stats[GOALS_FOR * teamCount + team] - stats[GOALS_AGAINST * teamCount + team];
+    }
+    
+    // Места команд (с 1) по их индексам.
+    private short[] positions(int[] stats) {
+        int[] order = rank(stats);
+        short[] positions = new short[teamCount];
+        for (int place = 0; place < teamCount; place++) {
+            positions[order[place]] = (short) (place + 1);
+        }
+        return positions;
+    }
+    
+    private static int pack(GameResult result) {
+        return result.isPlayed() ? result.getHomeScore() << 16 | result.getAwayScore() : NOT_PLAYED;
+    }
+    
+    // Показатели после завершенного тура: полная копия или разность с ней.
+    private final class Checkpoint {
+        private final int[] keyframe; // Полная копия (своя или последняя перед точкой)
+        private final short[] delta; // Разность с keyframe или null, если точка сама полная копия
+        private short[] positions; // Места команд после тура (вычисляются при первом запросе)
+        
+        Checkpoint(int[] keyframe, short[] delta) {
+            this.keyframe = keyframe;
+            this.delta = delta;
+        }
+        
+        int[] restore() {
+            int[] stats = keyframe.clone();
+            if (delta != null) {
+                for (int k = 0; k < stats.length; k++) {
+                    stats[k] += delta[k];
+                }
+            }
+            return stats;
+        }
+        
+        short[] positions() {
+            if (positions == null) {
+                positions = StandingsTimeline.this.positions(restore());
+            }
+            return positions;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package pw.ns2030.model;
+
+import java.util.*;
+
+/**
+ * Индекс команд по нормализованному названию (без учёта регистра и лишних пробелов).
+ * Поддерживается турниром при каждом переименовании, поэтому поиск команды и проверка
+ * уникальности названия не перебирают все команды. Турнир не запрещает одинаковые названия,
+ * поэтому одному названию может соответствовать несколько команд.
+ */
+class TeamNameIndex {
+    private final Map<String, int[]> indicesByName; // Индексы команд по возрастанию для каждого названия
+    private final Set<String> duplicates = new HashSet<>(); // Названия, которые носят несколько команд
+    
+    TeamNameIndex(List<Team> teams) {
+        this.indicesByName = new HashMap<>(teams.size() * 2);
+        for (int i = 0; i < teams.size(); i++) {
+            add(normalize(teams.get(i).getName()), i);
+        }
+    }
+    
+    /**
+     * Приводит название к виду для сравнения: без пробелов по краям, пробелы внутри схлопнуты,
+     * нижний регистр.
+     */
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean space = false; // Перед следующим символом нужен пробел
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+                continue;
+            }
+            if (space) {
+                normalized.append(' ');
+                space = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+    
+    // Переносит команду со старого названия на новое.
+    void rename(int teamIndex, String oldName, String newName) {
+        String oldKey = normalize(oldName);
+        String newKey = normalize(newName);
+        if (oldKey.equals(newKey)) return;
+        remove(oldKey, teamIndex);
+        add(newKey, teamIndex);
+    }
+    
+    // Индекс команды с таким названием (наименьший, если таких несколько) или -1.
+    int find(String name) {
+        int[] indices = indicesByName.get(normalize(name));
+        return indices != null ? indices[0] : -1;
+    }
+    
+    // Есть ли команда с таким названием, кроме excludeIndex.
+    boolean isTaken(String name, int excludeIndex) {
+        int[] indices = indicesByName.get(normalize(name));
+        return indices != null && (indices.length > 1 || indices[0] != excludeIndex);
+    }
+    
+    // Нормализованные названия, которые носят несколько команд.
+    List<String> getDuplicates() {
+        return new ArrayList<>(duplicates);
+    }
+    
+    // Количество названий, которые носят несколько команд, за O(1).
+    int getDuplicateCount() {
+        return duplicates.size();
+    }
+    
+    private void add(String key, int teamIndex) {
+        int[] indices = indicesByName.get(key);
+        if (indices == null) {
+            indicesByName.put(key, new int[] {teamIndex});
+            return;
+        }
+        
+        int position = Arrays.binarySearch(indices, teamIndex);
+        if (position >= 0) return;
+        position = -position - 1;
+        int[] extended = new int[indices.length + 1];
+        System.arraycopy(indices, 0, extended, 0, position);
+        extended[position] = teamIndex;
+        System.arraycopy(indices, position, extended, position + 1, indices.length - position);
+        indicesByName.put(key, extended);
+        duplicates.add(key);
+    }
+    
+    private void remove(String key, int teamIndex) {
+        int[] indices = indicesByName.get(key);
+        if (indices == null) return;
+        
+        int position = Arrays.binarySearch(indices, teamIndex);
+        if (position < 0) return;
+        if (indices.length == 1) {
+            indicesByName.remove(key);
+            return;
+        }
+        int[] reduced = new int[indices.length - 1];
+        System.arraycopy(indices, 0, reduced, 0, position);
+        System.arraycopy(indices, position + 1, reduced, position, reduced.length - position);
+        indicesByName.put(key, reduced);
+        if (reduced.length == 1) {
+            duplicates.remove(key);
+        }
+    }
+}
\ No newline at end of file
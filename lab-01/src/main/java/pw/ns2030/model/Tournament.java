@@ -1,27 +1,60 @@
 package pw.ns2030.model;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Класс для управления турниром и турнирной таблицей.
  * Поддерживает симметричное заполнение результатов и автоматический пересчёт очков.
+ * Турнир не потокобезопасен: изменять его должен один поток (в GUI - EDT).
+ * Для отправки результатов из многих потоков используется {@link TournamentEngine}.
  */
 public class Tournament {
     public static final int MIN_TEAMS = 3; // Минимальное количество команд в турнире
-    public static final int MAX_TEAMS = 20; // Максимальное количество команд в турнире
+    public static final int MAX_TEAMS = 1000; // Максимальное количество команд в турнире
     
     private final int teamCount; // Количество команд в турнире
     private final List<Team> teams; // Список команд-участников турнира
-    private final GameResult[][] results; // Двумерная матрица результатов матчей [домашняя][гостевая]
-    private final List<TournamentListener> listeners; // Список слушателей изменений турнира для уведомления GUI
-    private boolean needsResort; // Флаг, указывающий, что турнирная таблица требует пересортировки
+    private final PackedResults results; // Результаты матчей, по одному числу на пару команд
+    private final Standings standings; // Турнирная таблица, поддерживаемая в отсортированном виде
+    private final StandingsTimeline timeline; // История таблицы по турам в порядке внесения результатов
+    private final TeamNameIndex nameIndex; // Индексы команд по нормализованному названию
+    private Schedule schedule; // Расписание туров (null - не составлено)
+    private final List<TournamentListener> listeners; // Слушатели изменений (копия при записи: подписка возможна из любого потока)
+    private boolean needsResort; // Флаг, указывающий, что порядок команд изменился и слушатели ещё не уведомлены
+    private int playedMatches; // Количество сыгранных матчей (поддерживается при каждом изменении результата)
+    private long totalGoals; // Сумма голов во всех сыгранных матчах
+    private int totalPoints; // Сумма очков всех команд
     
     // Интерфейс для уведомления о изменениях в турнире
     public interface TournamentListener {
         void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result);
         void onTeamNameChanged(int teamIndex, String newName);
         void onTableResorted(List<Team> sortedTeams);
+        
+        /**
+         * Сводное уведомление об изменении нескольких результатов (пакет или полная очистка).
+         * По умолчанию разворачивается в onMatchResultChanged для каждой изменившейся ячейки.
+         */
+        default void onResultsChanged(ResultChanges changes) {
+            if (changes.isAllCleared()) {
+                GameResult empty = new GameResult();
+                for (int i = 0; i < changes.getTeamCount(); i++) {
+                    for (int j = 0; j < changes.getTeamCount(); j++) {
+                        if (i != j) {
+                            onMatchResultChanged(i, j, empty);
+                        }
+                    }
+                }
+                return;
+            }
+            
+            for (int k = 0; k < changes.size(); k++) {
+                GameResult result = changes.getResult(k);
+                onMatchResultChanged(changes.getHomeTeam(k), changes.getAwayTeam(k), result);
+                onMatchResultChanged(changes.getAwayTeam(k), changes.getHomeTeam(k), result.createReverseResult());
+            }
+        }
     }
     
     /**
@@ -36,32 +69,24 @@ public class Tournament {
         
         this.teamCount = teamCount;
         this.teams = new ArrayList<>(teamCount);
-        this.results = new GameResult[teamCount][teamCount];
-        this.listeners = new ArrayList<>();
+        this.results = new PackedResults(teamCount);
+        this.listeners = new CopyOnWriteArrayList<>();
         this.needsResort = true;
         
         initializeTeams();
-        initializeResults();
+        
+        this.standings = new Standings(teams, results);
+        this.timeline = new StandingsTimeline(teams);
+        this.nameIndex = new TeamNameIndex(teams);
     }
-
+    
     // Инициализирует команды с именами по умолчанию.
     private void initializeTeams() {
         for (int i = 0; i < teamCount; i++) {
             teams.add(new Team(i + 1, "Команда " + (i + 1)));
         }
     }
-
-    // Инициализирует матрицу результатов пустыми значениями.
-    private void initializeResults() {
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j) {
-                    results[i][j] = new GameResult();
-                }
-            }
-        }
-    }
-
+    
     public int getTeamCount() {
         return teamCount;
     }
@@ -70,34 +95,82 @@ public class Tournament {
         validateTeamIndex(index);
         return teams.get(index);
     }
-
+    
     public List<Team> getTeams() {
         return Collections.unmodifiableList(teams);
     }
-
+    
     public String getTeamName(int index) {
         validateTeamIndex(index);
         return teams.get(index).getName();
     }
-
+    
     public void setTeamName(int index, String name) {
         validateTeamIndex(index);
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Название команды не может быть пустым");
         }
         
-        String oldName = teams.get(index).getName();
+        nameIndex.rename(index, teams.get(index).getName(), name);
         teams.get(index).setName(name.trim());
+        timeline.teamRenamed();
         
-        notifyTeamNameChanged(index, name.trim());
+        // Название - последний критерий сортировки, место может измениться
+        updateStandings(index);
         
-        needsResort = true;
+        notifyTeamNameChanged(index, name.trim());
+    }
+    
+    /**
+     * Возвращает индекс команды по названию без учёта регистра и лишних пробелов или -1.
+     * Если название носят несколько команд, возвращается наименьший индекс.
+     */
+    public int findTeam(String name) {
+        return name == null ? -1 : nameIndex.find(name);
+    }
+    
+    // Носит ли название (без учёта регистра и лишних пробелов) другая команда, кроме excludeIndex.
+    public boolean isTeamNameTaken(String name, int excludeIndex) {
+        return name != null && nameIndex.isTaken(name, excludeIndex);
+    }
+    
+    // Названия, которые носят несколько команд (в нормализованном виде).
+    public List<String> getDuplicateTeamNames() {
+        return nameIndex.getDuplicates();
+    }
+    
+    // Количество названий, которые носят несколько команд (без перебора команд).
+    public int getDuplicateTeamNameCount() {
+        return nameIndex.getDuplicateCount();
     }
     
-    // Возвращает результат матча между двумя командами.
+    // Приводит название к виду, в котором названия команд сравниваются между собой.
+    public static String normalizeTeamName(String name) {
+        return TeamNameIndex.normalize(name);
+    }
+    
+    /**
+     * Возвращает результат матча между двумя командами с точки зрения homeTeam.
+     * Возвращается копия: изменение объекта не влияет на турнир.
+     */
     public GameResult getMatchResult(int homeTeam, int awayTeam) {
         validateMatchIndices(homeTeam, awayTeam);
-        return results[homeTeam][awayTeam];
+        return results.get(homeTeam, awayTeam);
+    }
+    
+    /**
+     * Возвращает результаты всех пар i < j одним массивом, построчно: (0, 1), (0, 2), ..., (1, 2), ...
+     * Сыгранный матч записан как голы i << 16 | голы j, несыгранный - числом -1.
+     * Объект результата на каждый матч не создается.
+     */
+    public int[] getPairResults() {
+        return results.toPairArray();
+    }
+    
+    // Проверяет, проведен ли матч, не создавая объект результата.
+    public boolean isMatchPlayed(int homeTeam, int awayTeam) {
+        validateMatchIndices(homeTeam, awayTeam);
+        return results.isPlayed(homeTeam, awayTeam);
     }
     
     /**
@@ -138,175 +211,353 @@ public class Tournament {
         validateMatchIndices(homeTeam, awayTeam);
         
         // Сохраняем старый результат для отката статистики
-        GameResult oldResult = results[homeTeam][awayTeam];
+        GameResult oldResult = results.get(homeTeam, awayTeam);
         boolean wasPlayed = oldResult.isPlayed();
         
+        // Проверяем счёт до изменения статистики
+        GameResult newResult = new GameResult(homeScore, awayScore);
+        
+        // Устанавливаем новый результат (обратный результат хранится в той же записи)
+        results.set(homeTeam, awayTeam, homeScore, awayScore);
+        standings.resultChanged(homeTeam, awayTeam, oldResult);
+        timeline.record(homeTeam, awayTeam, oldResult, newResult);
+        
         // Откатываем статистику старого результата
         if (wasPlayed) {
-            teams.get(homeTeam).removeMatchResult(
-                    oldResult.getHomePoints(), 
-                    oldResult.getHomeScore(), 
-                    oldResult.getAwayScore()
-            );
-            teams.get(awayTeam).removeMatchResult(
-                    oldResult.getAwayPoints(), 
-                    oldResult.getAwayScore(), 
-                    oldResult.getHomeScore()
-            );
+            removeFromStatistics(homeTeam, awayTeam, oldResult);
         }
         
-        // Устанавливаем новый результат
-        GameResult newResult = new GameResult(homeScore, awayScore);
-        results[homeTeam][awayTeam] = newResult;
-        
-        // Симметричное заполнение
-        results[awayTeam][homeTeam] = newResult.createReverseResult();
-        
         // Обновляем статистику команд
-        teams.get(homeTeam).addMatchResult(
-                newResult.getHomePoints(), homeScore, awayScore);
-        teams.get(awayTeam).addMatchResult(
-                newResult.getAwayPoints(), awayScore, homeScore);
+        addToStatistics(homeTeam, awayTeam, newResult);
         
         // Уведомляем слушателей
         notifyMatchResultChanged(homeTeam, awayTeam, newResult);
-        notifyMatchResultChanged(awayTeam, homeTeam, results[awayTeam][homeTeam]);
-        
-        needsResort = true;
+        notifyMatchResultChanged(awayTeam, homeTeam, newResult.createReverseResult());
     }
     
     // Очищает результат матча между двумя командами.
     public void clearMatchResult(int homeTeam, int awayTeam) {
         validateMatchIndices(homeTeam, awayTeam);
         
-        GameResult oldResult = results[homeTeam][awayTeam];
+        GameResult oldResult = results.get(homeTeam, awayTeam);
+        
+        // Очищаем результат (обе стороны матча) до пересчёта мест, чтобы личные встречи считались без него
+        results.clear(homeTeam, awayTeam);
+        standings.resultChanged(homeTeam, awayTeam, oldResult);
         if (oldResult.isPlayed()) {
-            // Откатываем статистику
-            teams.get(homeTeam).removeMatchResult(
-                    oldResult.getHomePoints(), 
-                    oldResult.getHomeScore(), 
-                    oldResult.getAwayScore()
-            );
-            teams.get(awayTeam).removeMatchResult(
-                    oldResult.getAwayPoints(), 
-                    oldResult.getAwayScore(), 
-                    oldResult.getHomeScore()
-            );
+            timeline.record(homeTeam, awayTeam, oldResult, new GameResult());
         }
         
-        // Очищаем результаты
-        results[homeTeam][awayTeam].clear();
-        results[awayTeam][homeTeam].clear();
+        if (oldResult.isPlayed()) {
+            // Откатываем статистику
+            removeFromStatistics(homeTeam, awayTeam, oldResult);
+        }
         
         // Уведомляем слушателей
-        notifyMatchResultChanged(homeTeam, awayTeam, results[homeTeam][awayTeam]);
-        notifyMatchResultChanged(awayTeam, homeTeam, results[awayTeam][homeTeam]);
+        notifyMatchResultChanged(homeTeam, awayTeam, new GameResult());
+        notifyMatchResultChanged(awayTeam, homeTeam, new GameResult());
+    }
+    
+    /**
+     * Добавляет результат матча в статистику обеих команд.
+     * Каждая команда переставляется в таблице сразу после изменения своей статистики,
+     * чтобы при перестановке менялось место только одной команды.
+     */
+    private void addToStatistics(int homeTeam, int awayTeam, GameResult result) {
+        countMatch(result, 1);
         
-        needsResort = true;
+        teams.get(homeTeam).addMatchResult(
+                result.getHomePoints(), result.getHomeScore(), result.getAwayScore());
+        updateStandings(homeTeam);
+        
+        teams.get(awayTeam).addMatchResult(
+                result.getAwayPoints(), result.getAwayScore(), result.getHomeScore());
+        updateStandings(awayTeam);
     }
     
-    // Очищает все результаты турнира.
-    public void clearAllResults() {
-        for (Team team : teams) {
-            team.resetStatistics();
+    // Убирает результат матча из статистики обеих команд.
+    private void removeFromStatistics(int homeTeam, int awayTeam, GameResult result) {
+        countMatch(result, -1);
+        
+        teams.get(homeTeam).removeMatchResult(
+                result.getHomePoints(), result.getHomeScore(), result.getAwayScore());
+        updateStandings(homeTeam);
+        
+        teams.get(awayTeam).removeMatchResult(
+                result.getAwayPoints(), result.getAwayScore(), result.getHomeScore());
+        updateStandings(awayTeam);
+    }
+    
+    // Добавляет (sign = 1) или убирает (sign = -1) матч из сводных счётчиков турнира.
+    private void countMatch(GameResult result, int sign) {
+        playedMatches += sign;
+        totalGoals += sign * (result.getHomeScore() + result.getAwayScore());
+        totalPoints += sign * (result.getHomePoints() + result.getAwayPoints());
+    }
+    
+    // Переставляет команду в таблице и запоминает, что порядок изменился.
+    private void updateStandings(int teamIndex) {
+        if (standings.update(teamIndex)) {
+            needsResort = true;
         }
-
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j) {
-                    results[i][j].clear();
-                }
+    }
+    
+    /**
+     * Применяет набор изменений результатов за один раз.
+     * Все операции проверяются до применения: при ошибке турнир не изменяется.
+     * Статистика команд обновляется по ходу, таблица пересортировывается один раз в конце,
+     * слушатели получают одно событие onResultsChanged со всеми изменившимися парами.
+     */
+    public void applyBatch(ResultBatch batch) {
+        if (batch == null || batch.isEmpty()) return;
+        
+        for (int k = 0; k < batch.size(); k++) {
+            validateMatchIndices(batch.getHomeTeam(k), batch.getAwayTeam(k));
+            if (!batch.isClear(k)) {
+                PackedResults.checkScore(batch.getHomeScore(k), batch.getAwayScore(k));
             }
         }
-
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j) {
-                    notifyMatchResultChanged(i, j, results[i][j]);
+        
+        BitSet dirtyPairs = new BitSet(results.size()); // Пары, уже попавшие в событие
+        int[] touched = new int[batch.size() * 2]; // Пары в порядке первого изменения
+        int touchedCount = 0;
+        
+        for (int k = 0; k < batch.size(); k++) {
+            int homeTeam = batch.getHomeTeam(k);
+            int awayTeam = batch.getAwayTeam(k);
+            
+            GameResult oldResult = results.get(homeTeam, awayTeam);
+            if (oldResult.isPlayed()) {
+                countMatch(oldResult, -1);
+                teams.get(homeTeam).removeMatchResult(
+                        oldResult.getHomePoints(), oldResult.getHomeScore(), oldResult.getAwayScore());
+                teams.get(awayTeam).removeMatchResult(
+                        oldResult.getAwayPoints(), oldResult.getAwayScore(), oldResult.getHomeScore());
+            }
+            
+            if (batch.isClear(k)) {
+                results.clear(homeTeam, awayTeam);
+                if (oldResult.isPlayed()) {
+                    timeline.record(homeTeam, awayTeam, oldResult, new GameResult());
                 }
+            } else {
+                GameResult newResult = new GameResult(batch.getHomeScore(k), batch.getAwayScore(k));
+                results.set(homeTeam, awayTeam, newResult.getHomeScore(), newResult.getAwayScore());
+                timeline.record(homeTeam, awayTeam, oldResult, newResult);
+                countMatch(newResult, 1);
+                teams.get(homeTeam).addMatchResult(
+                        newResult.getHomePoints(), newResult.getHomeScore(), newResult.getAwayScore());
+                teams.get(awayTeam).addMatchResult(
+                        newResult.getAwayPoints(), newResult.getAwayScore(), newResult.getHomeScore());
             }
+            
+            int pair = results.indexOf(homeTeam, awayTeam);
+            if (!dirtyPairs.get(pair)) {
+                dirtyPairs.set(pair);
+                touched[touchedCount * 2] = homeTeam;
+                touched[touchedCount * 2 + 1] = awayTeam;
+                touchedCount++;
+            }
+        }
+        
+        if (standings.rebuild()) {
+            needsResort = true;
+        }
+        
+        ResultChanges changes = new ResultChanges(teamCount, false, touchedCount);
+        for (int k = 0; k < touchedCount; k++) {
+            int homeTeam = touched[k * 2];
+            int awayTeam = touched[k * 2 + 1];
+            changes.add(homeTeam, awayTeam, results.get(homeTeam, awayTeam));
+        }
+        notifyResultsChanged(changes);
+    }
+    
+    // Очищает все результаты турнира одним событием.
+    public void clearAllResults() {
+        for (Team team : teams) {
+            team.resetStatistics();
         }
         
+        results.clearAll();
+        timeline.clear();
+        playedMatches = 0;
+        totalGoals = 0;
+        totalPoints = 0;
+        
+        standings.rebuild();
         needsResort = true;
+        
+        notifyResultsChanged(new ResultChanges(teamCount, true, 0));
     }
     
-    // Очищает все результаты указанной команды.
+    // Очищает все результаты указанной команды одним событием.
     public void clearTeamResults(int teamIndex) {
         validateTeamIndex(teamIndex);
         
+        ResultBatch batch = new ResultBatch(teamCount - 1);
         for (int j = 0; j < teamCount; j++) {
-            if (j != teamIndex) {
-                clearMatchResult(teamIndex, j);
+            if (j != teamIndex && results.isPlayed(teamIndex, j)) {
+                batch.clearMatchResult(teamIndex, j);
             }
         }
+        applyBatch(batch);
     }
     
     /**
      * Возвращает отсортированную турнирную таблицу.
-     * Команды сортируются по турнирным показателям.
+     * Таблица уже поддерживается в отсортированном виде, метод только копирует её.
+     * Если порядок изменился с прошлого вызова, слушатели получают onTableResorted.
      */
     public List<Team> getSortedTable() {
+        List<Team> sortedTeams = standings.toList();
+        
         if (needsResort) {
-            resortTable();
+            needsResort = false;
+            notifyTableResorted(sortedTeams);
         }
         
-        return teams.stream()
-                .sorted()
-                .collect(Collectors.toList());
+        return sortedTeams;
     }
     
-    // Пересортировывает турнирную таблицу и обновляет места команд.
-    private void resortTable() {
-        List<Team> sortedTeams = teams.stream()
-                .sorted()
-                .collect(Collectors.toList());
-        
-        for (int i = 0; i < sortedTeams.size(); i++) {
-            sortedTeams.get(i).setPosition(i + 1);
+    /**
+     * Включает или выключает учёт личных встреч: команды с равными очками упорядочиваются
+     * по матчам между собой, и только затем по разности и забитым голам во всех матчах.
+     */
+    public void setHeadToHeadTiebreak(boolean enabled) {
+        if (standings.setHeadToHead(enabled)) {
+            needsResort = true;
         }
-
-        notifyTableResorted(sortedTeams);
-        
-        needsResort = false;
     }
-
+    
+    public boolean isHeadToHeadTiebreak() {
+        return standings.isHeadToHead();
+    }
+    
     public Team getLeader() {
-        return getSortedTable().get(0);
+        return standings.getLeader();
     }
-
+    
+    // Возвращает команду, занимающую указанное место (с 1).
+    public Team getTeamAtPosition(int position) {
+        if (position < 1 || position > teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Место должно быть от 1 до %d", teamCount));
+        }
+        return standings.getTeamAt(position);
+    }
+    
+    // Возвращает место команды (с 1); места поддерживаются таблицей при каждой перестановке.
+    public int getTeamPosition(int teamIndex) {
+        validateTeamIndex(teamIndex);
+        return teams.get(teamIndex).getPosition();
+    }
+    
     // Возвращает общее количество проведенных матчей в турнире.
     public int getTotalMatchesPlayed() {
-        int count = 0;
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = i + 1; j < teamCount; j++) {
-                if (results[i][j].isPlayed()) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return playedMatches;
+    }
+    
+    // Возвращает сумму голов во всех сыгранных матчах.
+    public long getTotalGoals() {
+        return totalGoals;
+    }
+    
+    // Возвращает сумму очков всех команд.
+    public int getTotalPoints() {
+        return totalPoints;
+    }
+    
+    // Возвращает среднее количество голов за матч.
+    public double getAverageGoalsPerMatch() {
+        return playedMatches > 0 ? (double) totalGoals / playedMatches : 0.0;
     }
     
     public int getTotalMatches() {
         return (teamCount * (teamCount - 1)) / 2;
     }
-
+    
     public boolean isComplete() {
         return getTotalMatchesPlayed() == getTotalMatches();
     }
-
+    
+    /**
+     * Таблица после указанного тура (0 - до первого результата).
+     * Туры считаются в порядке внесения результатов, по {@link #getMatchesPerRound()} изменений,
+     * последний тур может быть незавершенным. История начинается заново после очистки всех результатов.
+     */
+    public StandingsSnapshot getStandingsAfter(int round) {
+        return timeline.getStandingsAfter(round);
+    }
+    
+    // Таблица после указанного количества внесенных результатов (изменения и очистки тоже считаются).
+    public StandingsSnapshot getStandingsAfterMatch(int match) {
+        return timeline.getStandingsAfterMatch(match);
+    }
+    
+    // Места команды (с 1) после каждого тура истории.
+    public int[] getPositionHistory(int teamIndex) {
+        return timeline.getPositionHistory(teamIndex);
+    }
+    
+    // Места всех команд после каждого тура истории: [индекс команды][тур - 1].
+    public int[][] getPositionHistory() {
+        return timeline.getPositionHistory();
+    }
+    
+    public int getRoundCount() {
+        return timeline.getRoundCount();
+    }
+    
+    public int getMatchesPerRound() {
+        return timeline.getMatchesPerRound();
+    }
+    
+    public int getRecordedMatches() {
+        return timeline.getRecordedMatches();
+    }
+    
+    public Schedule getSchedule() {
+        return schedule;
+    }
+    
+    // Задает расписание туров (null - убрать расписание). Результаты матчей не меняются.
+    public void setSchedule(Schedule schedule) {
+        if (schedule != null && schedule.getTeamCount() != teamCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Расписание составлено на %d команд, в турнире %d", schedule.getTeamCount(), teamCount));
+        }
+        this.schedule = schedule;
+    }
+    
+    /**
+     * Первый тур расписания, в котором остались несыгранные матчи (с 0),
+     * или -1, если расписания нет или все матчи сыграны.
+     */
+    public int getNextScheduledRound() {
+        if (schedule == null) return -1;
+        for (int round = 0; round < schedule.getRoundCount(); round++) {
+            for (int k = 0; k < schedule.getMatchesPerRound(); k++) {
+                if (!results.isPlayed(schedule.getHomeTeam(round, k), schedule.getAwayTeam(round, k))) {
+                    return round;
+                }
+            }
+        }
+        return -1;
+    }
+    
     // Возвращает процент завершенности турнира.
     public double getCompletionPercentage() {
         return (getTotalMatchesPlayed() * 100.0) / getTotalMatches();
     }
-
+    
     // Добавляет слушателя изменений турнира.
     public void addTournamentListener(TournamentListener listener) {
         if (listener != null && !listeners.contains(listener)) {
             listeners.add(listener);
         }
     }
-
+    
     // Удаляет слушателя изменений турнира.
     public void removeTournamentListener(TournamentListener listener) {
         listeners.remove(listener);
@@ -319,7 +570,7 @@ public class Tournament {
                     String.format("Индекс команды должен быть от 0 до %d", teamCount - 1));
         }
     }
-
+    
     // Проверяет корректность индексов для матча.
     private void validateMatchIndices(int homeTeam, int awayTeam) {
         validateTeamIndex(homeTeam);
@@ -329,7 +580,7 @@ public class Tournament {
             throw new IllegalArgumentException("Команда не может играть сама с собой");
         }
     }
-
+    
     // Уведомляет слушателей об изменении результата матча.
     private void notifyMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
         for (TournamentListener listener : listeners) {
@@ -340,7 +591,18 @@ public class Tournament {
             }
         }
     }
-
+    
+    // Уведомляет слушателей об изменении нескольких результатов сразу.
+    private void notifyResultsChanged(ResultChanges changes) {
+        for (TournamentListener listener : listeners) {
+            try {
+                listener.onResultsChanged(changes);
+            } catch (Exception e) {
+                System.err.println("Ошибка в слушателе пакетных изменений: " + e.getMessage());
+            }
+        }
+    }
+    
     // Уведомляет слушателей об изменении названия команды.
     private void notifyTeamNameChanged(int teamIndex, String newName) {
         for (TournamentListener listener : listeners) {
@@ -351,7 +613,7 @@ public class Tournament {
             }
         }
     }
-
+    
     // Уведомляет слушателей о пересортировке таблицы.
     private void notifyTableResorted(List<Team> sortedTeams) {
         for (TournamentListener listener : listeners) {
@@ -368,4 +630,4 @@ public class Tournament {
         return String.format("Турнир: %d команд, %d/%d матчей проведено (%.1f%%)",
                 teamCount, getTotalMatchesPlayed(), getTotalMatches(), getCompletionPercentage());
     }
-}
+}
\ No newline at end of file
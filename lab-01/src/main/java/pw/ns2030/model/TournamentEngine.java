@@ -0,0 +1,115 @@
+package pw.ns2030.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Движок для одновременной работы с несколькими турнирами из многих потоков.
+ * Каждый турнир обслуживается одним потоком записи за раз (см. {@link ConcurrentTournament}),
+ * разные турниры обрабатываются параллельно общим пулом потоков.
+ */
+public class TournamentEngine implements AutoCloseable {
+    private final ExecutorService executor; // Пул потоков записи
+    private final boolean ownsExecutor; // Пул создан движком и закрывается вместе с ним
+    private final Map<String, ConcurrentTournament> tournaments = new ConcurrentHashMap<>(); // Турниры по имени
+    private volatile boolean closed; // Движок закрыт
+    
+    // Создает движок со своим пулом: по потоку записи на ядро.
+    public TournamentEngine() {
+        this(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new WriterThreadFactory()), true);
+    }
+    
+    // Создает движок с внешним пулом, который движок не закрывает.
+    public TournamentEngine(ExecutorService executor) {
+        this(executor, false);
+    }
+    
+    private TournamentEngine(ExecutorService executor, boolean ownsExecutor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Пул потоков обязателен");
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+    
+    /**
+     * Создает турнир с указанным именем.
+     *
+     * @throws IllegalArgumentException если турнир с таким именем уже есть или количество команд недопустимо
+     * @throws IllegalStateException если движок закрыт
+     */
+    public ConcurrentTournament createTournament(String name, int teamCount) {
+        if (closed) {
+            throw new IllegalStateException("Движок турниров закрыт");
+        }
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Имя турнира не может быть пустым");
+        }
+        ConcurrentTournament tournament = new ConcurrentTournament(name, new Tournament(teamCount), executor);
+        if (tournaments.putIfAbsent(name, tournament) != null) {
+            throw new IllegalArgumentException("Турнир с именем '" + name + "' уже существует");
+        }
+        return tournament;
+    }
+    
+    // Возвращает турнир по имени или null.
+    public ConcurrentTournament getTournament(String name) {
+        return tournaments.get(name);
+    }
+    
+    public Collection<ConcurrentTournament> getTournaments() {
+        return Collections.unmodifiableCollection(tournaments.values());
+    }
+    
+    // Убирает турнир из движка. Уже отправленные результаты будут применены.
+    public ConcurrentTournament removeTournament(String name) {
+        return tournaments.remove(name);
+    }
+    
+    /**
+     * Перестает принимать результаты, дожидается применения уже отправленных
+     * и закрывает собственный пул движка. После закрытия отправка результатов
+     * в турниры движка завершается IllegalStateException.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ConcurrentTournament tournament : tournaments.values()) {
+            try {
+                tournament.close().join();
+            } catch (IllegalStateException e) {
+                // Внешний пул уже закрыт - ждать нечего, операции отброшены
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof IllegalStateException)) throw e;
+            }
+        }
+        if (!ownsExecutor) return;
+        
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Потоки записи - демоны, чтобы не мешать завершению приложения.
+    private static final class WriterThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(); // Номер следующего потока
+        
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "tournament-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
\ No newline at end of file
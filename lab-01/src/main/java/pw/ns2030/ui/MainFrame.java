@@ -1,20 +1,35 @@
 package pw.ns2030.ui;
 
 import pw.ns2030.Main;
+import pw.ns2030.model.ResultBatch;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.model.Schedule;
 import pw.ns2030.model.Tournament;
 import pw.ns2030.model.Team;
+import pw.ns2030.utils.EloRatings;
+import pw.ns2030.utils.FixtureScheduler;
+import pw.ns2030.utils.IntegrityMonitor;
+import pw.ns2030.utils.ResultImporter;
 import pw.ns2030.utils.ScoreCalculator;
+import pw.ns2030.utils.ScoreModel;
+import pw.ns2030.utils.SeasonSimulator;
+import pw.ns2030.utils.SimulationResult;
+import pw.ns2030.utils.TableExporter;
 import pw.ns2030.utils.TableValidator;
+import pw.ns2030.utils.TournamentJournal;
 
 import com.formdev.flatlaf.extras.FlatSVGIcon;
 
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.plaf.basic.BasicSplitPaneDivider;
 import javax.swing.plaf.basic.BasicSplitPaneUI;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -24,6 +39,8 @@ import java.util.Properties;
  * Содержит элементы управления турниром и отображение статистики.
  */
 public class MainFrame extends JFrame {
+    private static final String TOURNAMENT_FILE_EXTENSION = ".tournament"; // Расширение файлов турнира
+    
     private final Properties config; // Конфигурация приложения
     private Tournament tournament; // Текущий турнир
     private TournamentTablePanel tablePanel; // Панель с турнирной таблицей
@@ -38,6 +55,11 @@ public class MainFrame extends JFrame {
     private JProgressBar progressBar; // Прогресс-бар завершенности турнира
     private JLabel leaderLabel; // Метка с информацией о лидере
     private JSplitPane splitPane; // Разделяемая панель для изменения размеров
+    private boolean headToHeadTiebreak; // Учитывать личные встречи при равенстве очков (переносится в новый турнир)
+    private TournamentJournal journal; // Файл, в который сохраняется текущий турнир (null - турнир не сохраняется)
+    private boolean importRunning; // Идет импорт результатов из файла
+    private EloRatings eloRatings; // Рейтинг Эло текущего турнира
+    private IntegrityMonitor integrityMonitor; // Постоянная проверка целостности текущего турнира
 
     public MainFrame(Properties config) {
         this.config = config;
@@ -260,13 +282,47 @@ public class MainFrame extends JFrame {
         newTournamentItem.addActionListener(e -> createNewTournamentDialog());
         newTournamentItem.setFont(menuFont);
         
+        JMenuItem openItem = new JMenuItem("Открыть...");
+        openItem.setMnemonic('т');
+        openItem.setAccelerator(KeyStroke.getKeyStroke("ctrl O"));
+        openItem.addActionListener(e -> openTournament());
+        openItem.setFont(menuFont);
+        
+        JMenuItem saveAsItem = new JMenuItem("Сохранить как...");
+        saveAsItem.setMnemonic('С');
+        saveAsItem.setAccelerator(KeyStroke.getKeyStroke("ctrl S"));
+        saveAsItem.addActionListener(e -> saveTournamentAs());
+        saveAsItem.setFont(menuFont);
+        
+        JMenuItem importItem = new JMenuItem("Импорт результатов...");
+        importItem.setMnemonic('И');
+        importItem.setAccelerator(KeyStroke.getKeyStroke("ctrl I"));
+        importItem.addActionListener(e -> importResults());
+        importItem.setFont(menuFont);
+        
         JMenuItem clearAllItem = new JMenuItem("Очистить все результаты", Main.createIcon("clear-circle", 16));
         clearAllItem.setMnemonic('О');
         clearAllItem.setAccelerator(KeyStroke.getKeyStroke("ctrl R"));
         clearAllItem.addActionListener(e -> clearAllResults());
         clearAllItem.setFont(menuFont);
         
+        JMenuItem scheduleItem = new JMenuItem("Составить расписание");
+        scheduleItem.setMnemonic('Р');
+        scheduleItem.addActionListener(e -> composeSchedule());
+        scheduleItem.setFont(menuFont);
+        
+        JCheckBoxMenuItem headToHeadItem = new JCheckBoxMenuItem("Учитывать личные встречи", headToHeadTiebreak);
+        headToHeadItem.setMnemonic('Л');
+        headToHeadItem.addActionListener(e -> setHeadToHeadTiebreak(headToHeadItem.isSelected()));
+        headToHeadItem.setFont(menuFont);
+        
         tournamentMenu.add(newTournamentItem);
+        tournamentMenu.add(openItem);
+        tournamentMenu.add(saveAsItem);
+        tournamentMenu.add(importItem);
+        tournamentMenu.addSeparator();
+        tournamentMenu.add(scheduleItem);
+        tournamentMenu.add(headToHeadItem);
         tournamentMenu.addSeparator();
         tournamentMenu.add(clearAllItem);
         
@@ -281,13 +337,27 @@ public class MainFrame extends JFrame {
         showStatsItem.addActionListener(e -> showDetailedStatistics());
         showStatsItem.setFont(menuFont);
         
-        JMenuItem exportStatsItem = new JMenuItem("Экспорт турнирной таблицы");
+        JMenuItem exportStatsItem = new JMenuItem("Экспорт турнирной таблицы...");
         exportStatsItem.setMnemonic('Э');
         exportStatsItem.setAccelerator(KeyStroke.getKeyStroke("ctrl E"));
         exportStatsItem.addActionListener(e -> exportTournamentTable());
         exportStatsItem.setFont(menuFont);
         
+        JMenuItem forecastItem = new JMenuItem("Прогноз турнира");
+        forecastItem.setMnemonic('р');
+        forecastItem.setAccelerator(KeyStroke.getKeyStroke("F3"));
+        forecastItem.addActionListener(e -> showSeasonForecast());
+        forecastItem.setFont(menuFont);
+        
+        JMenuItem nextRoundItem = new JMenuItem("Следующий тур");
+        nextRoundItem.setMnemonic('С');
+        nextRoundItem.setAccelerator(KeyStroke.getKeyStroke("F4"));
+        nextRoundItem.addActionListener(e -> showNextRound());
+        nextRoundItem.setFont(menuFont);
+        
         statisticsMenu.add(showStatsItem);
+        statisticsMenu.add(forecastItem);
+        statisticsMenu.add(nextRoundItem);
         statisticsMenu.addSeparator();
         statisticsMenu.add(exportStatsItem);
         
@@ -347,31 +417,215 @@ public class MainFrame extends JFrame {
                 return;
             }
             
-            tournament = new Tournament(teamCount);
+            showTournament(new Tournament(teamCount));
             
-            // Удаляем старую таблицу из splitPane
-            if (tablePanel != null && splitPane.getLeftComponent() == tablePanel) {
-                splitPane.setLeftComponent(null);
+            updateStatus("Создан турнир на " + teamCount + " команд");
+        } catch (Exception e) {
+            showError("Ошибка создания турнира", e.getMessage());
+        }
+    }
+    
+    // Делает турнир текущим: закрывает сохранение прежнего турнира и заменяет панель таблицы.
+    private void showTournament(Tournament newTournament) {
+        closeJournal();
+        if (eloRatings != null) {
+            eloRatings.detach();
+        }
+        if (integrityMonitor != null) {
+            integrityMonitor.detach();
+        }
+        
+        tournament = newTournament;
+        tournament.setHeadToHeadTiebreak(headToHeadTiebreak);
+        eloRatings = EloRatings.attach(tournament);
+        integrityMonitor = TableValidator.monitorTournamentIntegrity(tournament);
+        
+        // Удаляем старую таблицу из splitPane
+        if (tablePanel != null && splitPane.getLeftComponent() == tablePanel) {
+            splitPane.setLeftComponent(null);
+        }
+        
+        // Создаем новую панель таблицы
+        tablePanel = new TournamentTablePanel(tournament);
+        
+        // Добавляем в левую часть splitPane
+        splitPane.setLeftComponent(tablePanel);
+        
+        // Добавляем слушателя изменений турнира
+        tournament.addTournamentListener(new TournamentChangeListener());
+        
+        // Обновляем интерфейс
+        teamCountSpinner.setValue(tournament.getTeamCount());
+        updateUI();
+        validate();
+        repaint();
+    }
+    
+    /**
+     * Открывает сохраненный турнир. Снимок и журнал читаются в фоновом потоке,
+     * после загрузки турнир продолжает сохраняться в тот же файл.
+     */
+    private void openTournament() {
+        JFileChooser chooser = createTournamentChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        
+        updateStatus("Загрузка турнира: " + file.getFileName());
+        
+        SwingWorker<Tournament, Void> worker = new SwingWorker<Tournament, Void>() {
+            @Override
+            protected Tournament doInBackground() throws IOException {
+                return TournamentJournal.load(file);
             }
             
-            // Создаем новую панель таблицы
-            tablePanel = new TournamentTablePanel(tournament);
-            
-            // Добавляем в левую часть splitPane
-            splitPane.setLeftComponent(tablePanel);
-            
-            // Добавляем слушателя изменений турнира
-            tournament.addTournamentListener(new TournamentChangeListener());
+            @Override
+            protected void done() {
+                try {
+                    showTournament(get());
+                    journal = TournamentJournal.attach(tournament, file);
+                    updateStatus(String.format("Открыт турнир %s: %d команд, сыграно %d матчей",
+                            file.getFileName(), tournament.getTeamCount(), tournament.getTotalMatchesPlayed()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showError("Ошибка открытия турнира", cause.getMessage());
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    // Сохраняет текущий турнир в выбранный файл и дальше дописывает в него изменения.
+    private void saveTournamentAs() {
+        if (tournament == null) return;
+        
+        JFileChooser chooser = createTournamentChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        if (!file.getFileName().toString().endsWith(TOURNAMENT_FILE_EXTENSION)) {
+            file = file.resolveSibling(file.getFileName() + TOURNAMENT_FILE_EXTENSION);
+        }
+        
+        try {
+            closeJournal();
+            journal = TournamentJournal.attach(tournament, file);
+            updateStatus("Турнир сохраняется в " + file.getFileName());
+        } catch (IOException e) {
+            showError("Ошибка сохранения турнира", e.getMessage());
+        }
+    }
+    
+    private JFileChooser createTournamentChooser() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Турнир (*" + TOURNAMENT_FILE_EXTENSION + ")",
+                TOURNAMENT_FILE_EXTENSION.substring(1)));
+        if (journal != null) {
+            chooser.setCurrentDirectory(journal.getJournalFile().toAbsolutePath().getParent().toFile());
+        }
+        return chooser;
+    }
+    
+    // Прекращает сохранение текущего турнира.
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            showError("Ошибка сохранения турнира", e.getMessage());
+        }
+        journal = null;
+    }
+    
+    // Сообщает об ошибке записи журнала один раз и отключает сохранение.
+    private void checkJournal() {
+        if (journal == null || journal.getFailure() == null) return;
+        
+        String message = "Изменения больше не сохраняются в " + journal.getJournalFile().getFileName()
+                + ":\n" + journal.getFailure().getMessage();
+        closeJournal();
+        showError("Ошибка сохранения турнира", message);
+    }
+    
+    /**
+     * Импортирует результаты из файла строк "хозяева;гости;счёт".
+     * Файл разбирается в фоновом потоке, готовые порции применяются к турниру в потоке интерфейса.
+     */
+    private void importResults() {
+        if (tournament == null || importRunning) return;
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Результаты (*.csv, *.txt)", "csv", "txt"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        
+        // Порции применяются к турниру, для которого начат импорт, даже если его уже сменили
+        Tournament target = tournament;
+        ResultImporter importer = new ResultImporter(target);
+        importRunning = true;
+        
+        SwingWorker<ResultImporter.ImportReport, ResultBatch> worker =
+                new SwingWorker<ResultImporter.ImportReport, ResultBatch>() {
+            @Override
+            protected ResultImporter.ImportReport doInBackground() throws IOException {
+                return importer.importFile(file, (batch, percent) -> {
+                    publish(batch);
+                    setProgress(percent);
+                });
+            }
             
-            // Обновляем интерфейс
-            updateUI();
-            validate();
-            repaint();
+            @Override
+            protected void process(List<ResultBatch> batches) {
+                for (ResultBatch batch : batches) {
+                    target.applyBatch(batch);
+                }
+            }
             
-            updateStatus("Создан турнир на " + teamCount + " команд");
-        } catch (Exception e) {
-            showError("Ошибка создания турнира", e.getMessage());
+            @Override
+            protected void done() {
+                importRunning = false;
+                try {
+                    showImportReport(file, get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showError("Ошибка импорта", cause.getMessage());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                statusBar.setText("Импорт " + file.getFileName() + ": " + e.getNewValue() + "%");
+            }
+        });
+        
+        updateStatus("Импорт " + file.getFileName() + "...");
+        worker.execute();
+    }
+    
+    // Показывает итог импорта и первые отклоненные строки.
+    private void showImportReport(Path file, ResultImporter.ImportReport report) {
+        updateStatus("Импорт " + file.getFileName() + ": принято " + report.getImported()
+                + ", отклонено " + report.getRejected());
+        if (report.getRejected() == 0) return;
+        
+        StringBuilder message = new StringBuilder();
+        message.append(report).append("\n\n");
+        for (String error : report.getErrors()) {
+            message.append(error).append('\n');
         }
+        if (report.getRejected() > report.getErrors().size()) {
+            message.append("... и ещё ").append(report.getRejected() - report.getErrors().size()).append(" строк\n");
+        }
+        
+        JTextArea textArea = new JTextArea(message.toString());
+        textArea.setEditable(false);
+        
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(600, 400));
+        
+        JOptionPane.showMessageDialog(this, scrollPane, "Импорт результатов", JOptionPane.WARNING_MESSAGE);
     }
     
     // Показывает диалог создания нового турнира.
@@ -408,11 +662,62 @@ public class MainFrame extends JFrame {
         
         if (result == JOptionPane.YES_OPTION) {
             tournament.clearAllResults();
-            updateUI();
-            updateStatus("Все результаты очищены");
         }
     }
     
+    // Составляет расписание туров круговым методом и показывает первый несыгранный тур.
+    private void composeSchedule() {
+        if (tournament == null) return;
+        
+        Schedule schedule = new FixtureScheduler(tournament.getTeamCount()).schedule();
+        tournament.setSchedule(schedule);
+        updateStatus(String.format("Составлено расписание: %d туров, два домашних или гостевых матча подряд: %d раз",
+                schedule.getRoundCount(), schedule.getBreakCount()));
+        showNextRound();
+    }
+    
+    // Показывает матчи первого тура расписания, в котором остались несыгранные матчи.
+    private void showNextRound() {
+        if (tournament == null) return;
+        
+        Schedule schedule = tournament.getSchedule();
+        if (schedule == null) {
+            JOptionPane.showMessageDialog(this, "Расписание не составлено (Турнир → Составить расписание)",
+                    "Следующий тур", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        int round = tournament.getNextScheduledRound();
+        if (round < 0) {
+            JOptionPane.showMessageDialog(this, "Все матчи расписания сыграны",
+                    "Следующий тур", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        
+        StringBuilder message = new StringBuilder();
+        message.append("Тур ").append(round + 1).append(" из ").append(schedule.getRoundCount()).append("\n\n");
+        for (int k = 0; k < schedule.getMatchesPerRound(); k++) {
+            int home = schedule.getHomeTeam(round, k);
+            int away = schedule.getAwayTeam(round, k);
+            message.append(tournament.getTeamName(home)).append(" - ").append(tournament.getTeamName(away));
+            if (tournament.isMatchPlayed(home, away)) {
+                message.append("  ").append(tournament.getMatchResult(home, away).getFormattedResult());
+            }
+            message.append('\n');
+        }
+        int resting = schedule.getRestingTeam(round);
+        if (resting >= 0) {
+            message.append("\nОтдыхает: ").append(tournament.getTeamName(resting)).append('\n');
+        }
+        
+        JTextArea textArea = new JTextArea(message.toString());
+        textArea.setEditable(false);
+        
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+        
+        JOptionPane.showMessageDialog(this, scrollPane, "Следующий тур", JOptionPane.PLAIN_MESSAGE);
+    }
+    
     // Показывает подробную статистику турнира.
     private void showDetailedStatistics() {
         if (tournament == null) return;
@@ -433,6 +738,25 @@ public class MainFrame extends JFrame {
                     stats.get("leader"), stats.get("leaderPoints")));
         }
         
+        if (tournament.getTotalMatchesPlayed() > 0) {
+            message.append("\nРейтинг Эло:\n");
+            int[] ranking = eloRatings.getRanking();
+            for (int i = 0; i < Math.min(5, ranking.length); i++) {
+                message.append(String.format("%d. %s - %.0f\n",
+                        i + 1, tournament.getTeamName(ranking[i]), eloRatings.getRating(ranking[i])));
+            }
+        }
+        
+        if (integrityMonitor.isValid()) {
+            message.append("\nЦелостность данных: нарушений нет\n");
+        } else {
+            message.append(String.format("\nЦелостность данных: нарушений - %d\n", integrityMonitor.getViolationCount()));
+            List<String> violations = integrityMonitor.getViolations();
+            for (int i = 0; i < Math.min(5, violations.size()); i++) {
+                message.append("• ").append(violations.get(i)).append("\n");
+            }
+        }
+        
         JOptionPane.showMessageDialog(
                 this,
                 message.toString(),
@@ -442,50 +766,102 @@ public class MainFrame extends JFrame {
         );
     }
     
-    // Экспортирует турнирную таблицу в текстовый формат.
-    private void exportTournamentTable() {
+    /**
+     * Моделирует оставшиеся матчи в фоновом потоке и показывает вероятности мест.
+     * Состояние турнира снимается здесь, в EDT, поэтому ввод результатов во время расчёта ему не мешает.
+     */
+    private void showSeasonForecast() {
         if (tournament == null) return;
         
-        StringBuilder export = new StringBuilder();
-        export.append("ТУРНИРНАЯ ТАБЛИЦА\n");
-        export.append("=".repeat(50)).append("\n\n");
+        SeasonSimulator.Snapshot snapshot = SeasonSimulator.snapshot(tournament);
+        SeasonSimulator simulator = new SeasonSimulator(ScoreModel.teamForm(tournament, 1.4));
+        boolean headToHead = tournament.isHeadToHeadTiebreak();
+        updateStatus("Моделирование оставшихся матчей...");
         
-        List<Team> sortedTeams = tournament.getSortedTable();
-        export.append(String.format("%-3s %-20s %-4s %-3s %-3s %-3s %-3s %-6s %-4s\n",
-                "М", "КОМАНДА", "О", "И", "В", "Н", "П", "ГОЛЫ", "+/-"));
-        export.append("-".repeat(50)).append("\n");
+        new SwingWorker<SimulationResult, Void>() {
+            @Override
+            protected SimulationResult doInBackground() {
+                return simulator.simulate(snapshot, SeasonSimulator.DEFAULT_ITERATIONS);
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    SimulationResult result = get();
+                    
+                    String report = result.formatReport(20);
+                    if (headToHead) {
+                        report = "Места в прогнозе - без учёта личных встреч\n\n" + report;
+                    }
+                    JTextArea textArea = new JTextArea(report);
+                    textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
+                    textArea.setEditable(false);
+                    
+                    JScrollPane scrollPane = new JScrollPane(textArea);
+                    scrollPane.setPreferredSize(new Dimension(600, 400));
+                    
+                    JOptionPane.showMessageDialog(
+                            MainFrame.this,
+                            scrollPane,
+                            "Прогноз турнира",
+                            JOptionPane.PLAIN_MESSAGE
+                    );
+                    updateStatus("Прогноз рассчитан");
+                } catch (Exception e) {
+                    showError("Ошибка моделирования", e.getMessage());
+                }
+            }
+        }.execute();
+    }
+    
+    /**
+     * Экспортирует турнирную таблицу и матрицу результатов в файл CSV, JSON или HTML.
+     * Турнир копируется здесь, в EDT, файл записывается в фоновом потоке.
+     */
+    private void exportTournamentTable() {
+        if (tournament == null) return;
         
-        for (Team team : sortedTeams) {
-            export.append(String.format("%-3d %-20s %-4d %-3d %-3d %-3d %-3d %-6s %-4d\n",
-                    team.getPosition(),
-                    team.getName(),
-                    team.getTotalPoints(),
-                    team.getMatchesPlayed(),
-                    team.getWins(),
-                    team.getDraws(),
-                    team.getLosses(),
-                    team.getGoalsFor() + "-" + team.getGoalsAgainst(),
-                    team.getGoalDifference()
-            ));
+        JFileChooser chooser = new JFileChooser();
+        chooser.setAcceptAllFileFilterUsed(false);
+        for (TableExporter.Format format : TableExporter.Format.values()) {
+            chooser.addChoosableFileFilter(new FileNameExtensionFilter(format.getDescription(), format.getExtension()));
         }
+        chooser.setFileFilter(chooser.getChoosableFileFilters()[0]);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        // Формат - по расширению файла, без расширения - по выбранному фильтру
+        Path selected = chooser.getSelectedFile().toPath();
+        TableExporter.Format format = TableExporter.Format.forFile(selected);
+        if (format == null) {
+            String extension = ((FileNameExtensionFilter) chooser.getFileFilter()).getExtensions()[0];
+            selected = selected.resolveSibling(selected.getFileName() + "." + extension);
+            format = TableExporter.Format.forFile(selected);
+        }
+        Path file = selected;
+        TableExporter.Format exportFormat = format;
+        TableExporter exporter = new TableExporter(tournament);
         
-        export.append("\nСтатистика:\n");
-        export.append(ScoreCalculator.formatTournamentSummary(tournament));
-        
-        // Показываем в диалоге
-        JTextArea textArea = new JTextArea(export.toString());
-        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
-        textArea.setEditable(false);
-        
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(700, 500));
+        updateStatus("Экспорт в " + file.getFileName() + "...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                exporter.export(file, exportFormat);
+                return null;
+            }
         
-        JOptionPane.showMessageDialog(
-                this,
-                scrollPane,
-                "Экспорт турнирной таблицы",
-                JOptionPane.PLAIN_MESSAGE
-        );
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    updateStatus("Таблица экспортирована в " + file.getFileName());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    showError("Ошибка экспорта", cause.getMessage());
+                }
+            }
+        }.execute();
     }
     
     // Показывает диалог "О программе".
@@ -526,7 +902,7 @@ public class MainFrame extends JFrame {
         String helpText = 
                 "ПОМОЩЬ ПО ИСПОЛЬЗОВАНИЮ\n\n" +
                 "1. СОЗДАНИЕ ТУРНИРА:\n" +
-                "   • Выберите количество команд (3-20)\n" +
+                "   • Выберите количество команд (" + Tournament.MIN_TEAMS + "-" + Tournament.MAX_TEAMS + ")\n" +
                 "   • Нажмите 'Создать' или Ctrl+N\n\n" +
                 "2. ЗАПОЛНЕНИЕ РЕЗУЛЬТАТОВ:\n" +
                 "   • Введите результат в формате 'X:Y'\n" +
@@ -539,14 +915,21 @@ public class MainFrame extends JFrame {
                 "4. ТУРНИРНАЯ ТАБЛИЦА:\n" +
                 "   • Автоматическая сортировка команд\n" +
                 "   • 3 очка за победу, 1 за ничью\n" +
-                "   • Сортировка: очки → разность → голы\n\n" +
+                "   • Сортировка: очки → разность → голы\n" +
+                "   • Турнир → Учитывать личные встречи: при равных очках\n" +
+                "     сначала сравниваются матчи команд между собой\n\n" +
                 "5. ГОРЯЧИЕ КЛАВИШИ:\n" +
                 "   • Ctrl+N: Новый турнир\n" +
+                "   • Ctrl+O: Открыть турнир из файла\n" +
+                "   • Ctrl+S: Сохранить турнир в файл (дальше изменения сохраняются автоматически)\n" +
+                "   • Ctrl+I: Импорт результатов из файла (строки 'хозяева;гости;счёт')\n" +
                 "   • Ctrl+R: Очистить результаты\n" +
-                "   • Ctrl+E: Экспорт таблицы\n" +
+                "   • Ctrl+E: Экспорт таблицы в файл (CSV, JSON или HTML)\n" +
                 "   • F1: О программе\n" +
                 "   • Shift+F1: Эта справка\n" +
                 "   • F2: Статистика турнира\n" +
+                "   • F3: Прогноз турнира (моделирование оставшихся матчей)\n" +
+                "   • F4: Следующий тур расписания (Турнир → Составить расписание)\n" +
                 "   • Delete: Очистить выделенную ячейку\n" +
                 "   • Escape: Снять фокус";
         
@@ -566,6 +949,17 @@ public class MainFrame extends JFrame {
         );
     }
     
+    // Переключает учёт личных встреч в текущем и последующих турнирах.
+    private void setHeadToHeadTiebreak(boolean enabled) {
+        headToHeadTiebreak = enabled;
+        if (tournament == null) return;
+        
+        tournament.setHeadToHeadTiebreak(enabled);
+        updateUI();
+        updateStatus(enabled ? "Личные встречи учитываются при равенстве очков"
+                : "Личные встречи не учитываются");
+    }
+    
     // Обновляет весь пользовательский интерфейс.
     private void updateUI() {
         if (tournament == null) return;
@@ -672,6 +1066,7 @@ public class MainFrame extends JFrame {
         @Override
         public void onMatchResultChanged(int homeTeam, int awayTeam, pw.ns2030.model.GameResult result) {
             SwingUtilities.invokeLater(() -> {
+                checkJournal();
                 updateUI();
                 String homeTeamName = tournament.getTeamName(homeTeam);
                 String awayTeamName = tournament.getTeamName(awayTeam);
@@ -686,9 +1081,22 @@ public class MainFrame extends JFrame {
             });
         }
         
+        @Override
+        public void onResultsChanged(ResultChanges changes) {
+            // Один пересчёт интерфейса на весь пакет изменений
+            SwingUtilities.invokeLater(() -> {
+                checkJournal();
+                updateUI();
+                updateStatus(changes.isAllCleared()
+                        ? "Все результаты очищены"
+                        : "Обновлено результатов: " + changes.size());
+            });
+        }
+        
         @Override
         public void onTeamNameChanged(int teamIndex, String newName) {
             SwingUtilities.invokeLater(() -> {
+                checkJournal();
                 updateUI();
                 updateStatus("Команда переименована: " + newName);
             });
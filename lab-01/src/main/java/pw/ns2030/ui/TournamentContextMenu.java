@@ -136,7 +136,7 @@ public class TournamentContextMenu extends JPopupMenu {
         teamStatsItem.setVisible(true);
         editTeamNameItem.setVisible(true);
         
-        boolean hasResult = tournament.getMatchResult(homeTeamIndex, awayTeamIndex).isPlayed();
+        boolean hasResult = tournament.isMatchPlayed(homeTeamIndex, awayTeamIndex);
         clearCellItem.setEnabled(hasResult);
         
         if (!hasResult) {
@@ -339,15 +339,7 @@ public class TournamentContextMenu extends JPopupMenu {
             );
             
             if (newName != null && !newName.trim().isEmpty() && !newName.trim().equals(currentName)) {
-                boolean nameExists = false;
-                for (int i = 0; i < tournament.getTeamCount(); i++) {
-                    if (i != homeTeamIndex && tournament.getTeamName(i).equalsIgnoreCase(newName.trim())) {
-                        nameExists = true;
-                        break;
-                    }
-                }
-                
-                if (nameExists) {
+                if (tournament.isTeamNameTaken(newName, homeTeamIndex)) {
                     JOptionPane.showMessageDialog(
                             this,
                             "Команда с таким названием уже существует!",
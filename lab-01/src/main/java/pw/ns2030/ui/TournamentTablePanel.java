@@ -1,8 +1,9 @@
 package pw.ns2030.ui;
 
-import pw.ns2030.Main;
 import pw.ns2030.model.Tournament;
 import pw.ns2030.model.GameResult;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.utils.EliminationAnalyzer;
 import pw.ns2030.utils.TableValidator;
 
 import javax.swing.*;
@@ -13,19 +14,33 @@ import javax.swing.text.BadLocationException;
 import javax.swing.text.DocumentFilter;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Панель с турнирной таблицей на основе двумерного массива TextField-ов.
- * Обеспечивает редактирование результатов матчей и названий команд с валидацией.
+ * Панель с турнирной таблицей.
+ * Сетка результатов рисуется напрямую из модели турнира: отрисовываются только
+ * видимые ячейки, а для редактирования используется одно плавающее текстовое поле,
+ * которое размещается поверх выбранной ячейки. Поэтому число компонентов не зависит
+ * от количества команд, и таблицы на сотни команд прокручиваются без задержек.
  */
 public class TournamentTablePanel extends JPanel implements Tournament.TournamentListener {
     private final Tournament tournament; // Турнир для отображения
-    private JTextField[][] resultFields; // Двумерный массив текстовых полей для результатов
-    private JTextField[] teamNameFields; // Массив полей для названий команд
-    private TournamentContextMenu contextMenu; // Контекстное меню
-    private final Map<JTextField, Point> fieldToPosition = new HashMap<>(); // Карта текстовых полей для быстрого поиска
+    private final TournamentContextMenu contextMenu; // Контекстное меню
+    private ResultGrid grid; // Сетка результатов матчей
+    private RowHeader rowHeader; // Заголовки строк (названия команд)
+    private ColumnHeader columnHeader; // Заголовки столбцов
+    private final Map<Integer, String> cellErrors = new HashMap<>(); // Ошибки валидации по индексу ячейки
+    
+    private final Object dirtyLock = new Object(); // Защищает набор изменившихся ячеек (события приходят из любого потока)
+    private BitSet dirtyCells = new BitSet(); // Ячейки, изменившиеся с последней перерисовки, по индексу ячейки
+    private boolean allCellsDirty; // Изменились все ячейки (например, очистка турнира)
+    private boolean flushScheduled; // Перерисовка изменившихся ячеек уже поставлена в очередь EDT
+    
+    private final EliminationAnalyzer eliminationAnalyzer; // Анализ борьбы за первое место для отметок в строках
+    private boolean analysisRunning; // Анализ выполняется в фоне (только EDT)
+    private boolean analysisPending; // За время анализа турнир изменился, нужен повторный запуск (только EDT)
     
     private static final int CELL_SIZE = 90; // Размер ячейки результата
     private static final int HEADER_HEIGHT = 50; // Высота заголовка
@@ -36,145 +51,40 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
     private static final Color DRAW_COLOR = new Color(255, 255, 200); // Цвет ничьи
     private static final Color LOSS_COLOR = new Color(255, 200, 200); // Цвет поражения
     private static final Color EMPTY_COLOR = Color.WHITE; // Цвет пустой ячейки
+    private static final Color ERROR_COLOR = new Color(255, 200, 200); // Цвет ячейки с ошибкой ввода
+    private static final Color HEADER_COLOR = new Color(200, 200, 200); // Цвет заголовков столбцов
+    private static final Color TEAM_NAME_COLOR = new Color(230, 230, 255); // Цвет названий команд
+    private static final Color GRID_COLOR = Color.GRAY; // Цвет линий сетки
+    private static final Color SELECTION_COLOR = new Color(0, 120, 215); // Цвет рамки выбранной ячейки
+    private static final Color CLINCHED_COLOR = new Color(0, 130, 0); // Цвет отметки "обеспечила первое место"
+    private static final Color ELIMINATED_COLOR = new Color(150, 150, 150); // Цвет отметки "выбыла из борьбы"
     
     // Создает панель турнирной таблицы.
     public TournamentTablePanel(Tournament tournament) {
         this.tournament = tournament;
         this.contextMenu = new TournamentContextMenu(tournament);
+        this.eliminationAnalyzer = EliminationAnalyzer.attach(tournament, 1);
         
         initializeTable();
         setupLayout();
         setupEventHandlers();
-
+        
         tournament.addTournamentListener(this);
         
         updateTable();
-    }
-
-    private void initializeTable() {
-        int teamCount = tournament.getTeamCount();
-        
-        // Создаем массивы полей
-        resultFields = new JTextField[teamCount][teamCount];
-        teamNameFields = new JTextField[teamCount];
-        
-        // Создаем поля для названий команд
-        for (int i = 0; i < teamCount; i++) {
-            teamNameFields[i] = createTeamNameField(i);
-        }
-        
-        // Создаем поля для результатов
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j) {
-                    resultFields[i][j] = createResultField(i, j);
-                    fieldToPosition.put(resultFields[i][j], new Point(i, j));
-                }
-            }
-        }
-    }
-    
-    // Создает текстовое поле для названия команды.
-    private JTextField createTeamNameField(int teamIndex) {
-        JTextField field = new JTextField(tournament.getTeamName(teamIndex));
-        field.setPreferredSize(new Dimension(TEAM_NAME_WIDTH, HEADER_HEIGHT));
-        field.setHorizontalAlignment(JTextField.CENTER);
-
-        Font currentFont = field.getFont();
-        field.setFont(currentFont.deriveFont(Font.BOLD, 14f));
-        
-        field.setBorder(createCellBorder());
-        field.setBackground(new Color(230, 230, 255));
-        
-        // Горячие клавиши в подсказке
-        field.setToolTipText("<html>Название команды<br/>Клавиши: ESC - снять фокус, DELETE - очистить ячейку</html>");
-        
-        // Добавляем обработчик изменения названия
-        field.addActionListener(e -> updateTeamName(teamIndex, field.getText()));
-        field.addFocusListener(new FocusAdapter() {
-            @Override
-            public void focusLost(FocusEvent e) {
-                updateTeamName(teamIndex, field.getText());
-            }
-        });
-        
-        // Контекстное меню для заголовка команды
-        field.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mousePressed(MouseEvent e) {
-                if (e.isPopupTrigger()) {
-                    showContextMenuForTeam(teamIndex, e.getX(), e.getY(), field);
-                }
-            }
-            
-            @Override
-            public void mouseReleased(MouseEvent e) {
-                if (e.isPopupTrigger()) {
-                    showContextMenuForTeam(teamIndex, e.getX(), e.getY(), field);
-                }
-            }
-        });
-        
-        return field;
+        scheduleEliminationAnalysis();
     }
     
-    // Создает текстовое поле для результата матча.
-    private JTextField createResultField(int homeTeam, int awayTeam) {
-        JTextField field = new JTextField();
-        field.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
-        field.setHorizontalAlignment(JTextField.CENTER);
-
-        Font currentFont = field.getFont();
-        field.setFont(currentFont.deriveFont(Font.BOLD, 16f));
-        
-        field.setBorder(createCellBorder());
-        
-        // Добавляем фильтр документа для валидации ввода
-        ((AbstractDocument) field.getDocument()).setDocumentFilter(new ScoreDocumentFilter());
-        
-        // Добавляем обработчики событий
-        field.addActionListener(e -> updateMatchResult(homeTeam, awayTeam, field.getText()));
-        field.addFocusListener(new FocusAdapter() {
-            @Override
-            public void focusLost(FocusEvent e) {
-                updateMatchResult(homeTeam, awayTeam, field.getText());
-            }
-            
-            @Override
-            public void focusGained(FocusEvent e) {
-                field.selectAll();
-            }
-        });
-        
-        // Контекстное меню
-        field.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mousePressed(MouseEvent e) {
-                if (e.isPopupTrigger()) {
-                    showContextMenuForCell(homeTeam, awayTeam, e.getX(), e.getY(), field);
-                }
-            }
-            
-            @Override
-            public void mouseReleased(MouseEvent e) {
-                if (e.isPopupTrigger()) {
-                    showContextMenuForCell(homeTeam, awayTeam, e.getX(), e.getY(), field);
-                }
-            }
-        });
-        
-        // Подсказка с горячими клавишами
-        field.setToolTipText(String.format("<html>Результат: %s vs %s (формат: X:Y)<br/>" +
-                "Клавиши: ESC - снять фокус, DELETE - очистить, F2 - статистика</html>", 
-                tournament.getTeamName(homeTeam), tournament.getTeamName(awayTeam)));
-        
-        return field;
+    private void initializeTable() {
+        grid = new ResultGrid();
+        rowHeader = new RowHeader();
+        columnHeader = new ColumnHeader();
     }
     
     // Создает границу для ячейки.
     private Border createCellBorder() {
         return BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(Color.GRAY, 1),
+                BorderFactory.createLineBorder(GRID_COLOR, 1),
                 BorderFactory.createEmptyBorder(4, 4, 4, 4)
         );
     }
@@ -183,103 +93,33 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
     private void setupLayout() {
         setLayout(new BorderLayout());
         
-        JPanel tablePanel = createTablePanel();
-        JScrollPane scrollPane = new JScrollPane(tablePanel);
+        JScrollPane scrollPane = new JScrollPane(grid);
+        scrollPane.setRowHeaderView(rowHeader);
+        scrollPane.setColumnHeaderView(columnHeader);
+        scrollPane.setCorner(ScrollPaneConstants.UPPER_LEFT_CORNER, createCornerLabel());
         scrollPane.setPreferredSize(calculatePreferredSize());
         
         add(scrollPane, BorderLayout.CENTER);
     }
     
-    // Создает основную панель таблицы.
-    private JPanel createTablePanel() {
-        int teamCount = tournament.getTeamCount();
-        JPanel panel = new JPanel(new GridBagLayout());
-        GridBagConstraints gbc = new GridBagConstraints();
-        
-        // Пустая ячейка в левом верхнем углу
-        gbc.gridx = 0;
-        gbc.gridy = 0;
+    // Создает метку в левом верхнем углу таблицы.
+    private JLabel createCornerLabel() {
         JLabel cornerLabel = new JLabel("Команды");
         cornerLabel.setPreferredSize(new Dimension(TEAM_NAME_WIDTH, HEADER_HEIGHT));
         cornerLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        cornerLabel.setBackground(new Color(200, 200, 200));
+        cornerLabel.setBackground(HEADER_COLOR);
         cornerLabel.setOpaque(true);
         cornerLabel.setBorder(createCellBorder());
-
+        
         Font cornerFont = cornerLabel.getFont();
         cornerLabel.setFont(cornerFont.deriveFont(Font.BOLD, 14f));
-        
-        panel.add(cornerLabel, gbc);
-        
-        // Заголовки столбцов (названия команд)
-        for (int j = 0; j < teamCount; j++) {
-            gbc.gridx = j + 1;
-            gbc.gridy = 0;
-            
-            // Создаем лейбл с переносом строк для длинных названий
-            JLabel columnHeader = createColumnHeader(j);
-            columnHeader.setPreferredSize(new Dimension(CELL_SIZE, HEADER_HEIGHT));
-            columnHeader.setBackground(new Color(200, 200, 200));
-            columnHeader.setOpaque(true);
-            columnHeader.setBorder(createCellBorder());
-            
-            panel.add(columnHeader, gbc);
-        }
-        
-        // Строки таблицы
-        for (int i = 0; i < teamCount; i++) {
-            // Заголовок строки (название команды)
-            gbc.gridx = 0;
-            gbc.gridy = i + 1;
-            panel.add(teamNameFields[i], gbc);
-            
-            // Ячейки результатов
-            for (int j = 0; j < teamCount; j++) {
-                gbc.gridx = j + 1;
-                gbc.gridy = i + 1;
-                
-                if (i == j) {
-                    // Диагональная ячейка (команда сама с собой)
-                    JLabel diagonalCell = new JLabel("—");
-                    diagonalCell.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
-                    diagonalCell.setHorizontalAlignment(SwingConstants.CENTER);
-                    diagonalCell.setBackground(DISABLED_CELL_COLOR);
-                    diagonalCell.setOpaque(true);
-                    diagonalCell.setBorder(createCellBorder());
-
-                    Font diagonalFont = diagonalCell.getFont();
-                    diagonalCell.setFont(diagonalFont.deriveFont(Font.BOLD, 18f));
-                    
-                    panel.add(diagonalCell, gbc);
-                } else {
-                    panel.add(resultFields[i][j], gbc);
-                }
-            }
-        }
-        
-        return panel;
-    }
-    
-    // Создает заголовок столбца с поддержкой HTML для переноса строк.
-    private JLabel createColumnHeader(int teamIndex) {
-        String teamName = tournament.getTeamName(teamIndex);
-        String displayText = formatTeamNameForColumn(teamName);
-        
-        JLabel label = new JLabel(displayText);
-        label.setHorizontalAlignment(SwingConstants.CENTER);
-        label.setVerticalAlignment(SwingConstants.CENTER);
-        
-        Font headerFont = label.getFont();
-        label.setFont(headerFont.deriveFont(Font.BOLD, 11f));
-        label.setToolTipText("<html>" + teamName + "<br/>Команда " + (teamIndex + 1) + "</html>");
-        
-        return label;
+        return cornerLabel;
     }
     
-    // Форматирует название команды для отображения в заголовке столбца.
-    private String formatTeamNameForColumn(String teamName) {
+    // Разбивает название команды на строки для заголовка столбца.
+    private String[] splitTeamNameForColumn(String teamName) {
         if (teamName.length() <= 10) {
-            return "<html><center>" + teamName + "</center></html>";
+            return new String[]{teamName};
         }
         
         // Разбиваем длинное название на части
@@ -287,25 +127,19 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         if (words.length == 1) {
             // Одно длинное слово - разбиваем посередине
             int mid = teamName.length() / 2;
-            String part1 = teamName.substring(0, mid);
-            String part2 = teamName.substring(mid);
-            return "<html><center>" + part1 + "<br/>" + part2 + "</center></html>";
+            return new String[]{teamName.substring(0, mid), teamName.substring(mid)};
         } else {
             // Несколько слов - распределяем по строкам
             StringBuilder line1 = new StringBuilder();
             StringBuilder line2 = new StringBuilder();
             
             for (int i = 0; i < words.length; i++) {
-                if (i < words.length / 2) {
-                    if (line1.length() > 0) line1.append(" ");
-                    line1.append(words[i]);
-                } else {
-                    if (line2.length() > 0) line2.append(" ");
-                    line2.append(words[i]);
-                }
+                StringBuilder line = i < words.length / 2 ? line1 : line2;
+                if (line.length() > 0) line.append(" ");
+                line.append(words[i]);
             }
             
-            return "<html><center>" + line1 + "<br/>" + line2 + "</center></html>";
+            return new String[]{line1.toString(), line2.toString()};
         }
     }
     
@@ -314,7 +148,7 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         int teamCount = tournament.getTeamCount();
         int width = TEAM_NAME_WIDTH + teamCount * CELL_SIZE + 80; // +80 для полос прокрутки
         int height = HEADER_HEIGHT + teamCount * CELL_SIZE + 80;
-
+        
         width = Math.min(width, 1400);
         height = Math.min(height, 900);
         
@@ -374,6 +208,8 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         String helpText = "ГОРЯЧИЕ КЛАВИШИ:\n\n" +
                 "ESC - снять фокус\n" +
                 "DELETE - очистить ячейку\n" +
+                "Стрелки - переход между ячейками\n" +
+                "ENTER - редактировать ячейку\n" +
                 "F1 - эта справка\n" +
                 "F2 - статистика турнира\n" +
                 "Ctrl+N - новый турнир\n" +
@@ -400,184 +236,261 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         JOptionPane.showMessageDialog(this, stats, "Быстрая статистика (F2)", JOptionPane.INFORMATION_MESSAGE);
     }
     
-    // Очищает ячейку, находящуюся в фокусе.
+    // Очищает выбранную ячейку сетки.
     private void clearFocusedCell() {
-        Component focused = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
-        if (focused instanceof JTextField && fieldToPosition.containsKey(focused)) {
-            JTextField field = (JTextField) focused;
-            Point pos = fieldToPosition.get(field);
-            
-            if (pos != null) {
-                field.setText("");
-                updateMatchResult(pos.x, pos.y, "");
-            }
+        if (grid.isFocusOwner() && grid.selectedRow >= 0 && grid.selectedRow != grid.selectedColumn) {
+            updateMatchResult(grid.selectedRow, grid.selectedColumn, "");
         }
     }
     
     // Обновляет название команды.
     private void updateTeamName(int teamIndex, String newName) {
+        if (newName.trim().equals(tournament.getTeamName(teamIndex))) {
+            return;
+        }
+        
         try {
-            TableValidator.ValidationResult validation = 
+            TableValidator.ValidationResult validation =
                     TableValidator.validateTeamNameUniqueness(tournament, newName, teamIndex);
             
             if (!validation.isValid()) {
-                JOptionPane.showMessageDialog(this, validation.getErrorMessage(), 
+                JOptionPane.showMessageDialog(this, validation.getErrorMessage(),
                         "Ошибка", JOptionPane.ERROR_MESSAGE);
-                teamNameFields[teamIndex].setText(tournament.getTeamName(teamIndex));
                 return;
             }
             
             tournament.setTeamName(teamIndex, newName);
             
         } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), 
+            JOptionPane.showMessageDialog(this, e.getMessage(),
                     "Ошибка", JOptionPane.ERROR_MESSAGE);
-            teamNameFields[teamIndex].setText(tournament.getTeamName(teamIndex));
         }
     }
     
     // Обновляет результат матча.
     private void updateMatchResult(int homeTeam, int awayTeam, String resultString) {
+        // Повторный ввод того же счёта не должен порождать события модели
+        if (resultString.trim().equals(tournament.getMatchResult(homeTeam, awayTeam).getFormattedResult())) {
+            return;
+        }
+        
         try {
-            TableValidator.ValidationResult validation = 
+            TableValidator.ValidationResult validation =
                     TableValidator.validateScoreString(resultString);
             
             if (!validation.isValid()) {
-                showValidationError(resultFields[homeTeam][awayTeam], validation.getErrorMessage());
+                showValidationError(homeTeam, awayTeam, validation.getErrorMessage());
                 return;
             }
             
             tournament.setMatchResult(homeTeam, awayTeam, resultString);
             
         } catch (Exception e) {
-            showValidationError(resultFields[homeTeam][awayTeam], e.getMessage());
+            showValidationError(homeTeam, awayTeam, e.getMessage());
         }
     }
     
     // Показывает ошибку валидации.
-    private void showValidationError(JTextField field, String message) {
-        field.setBackground(new Color(255, 200, 200));
-        field.setToolTipText("Ошибка: " + message);
+    private void showValidationError(int homeTeam, int awayTeam, String message) {
+        int key = cellKey(homeTeam, awayTeam);
+        cellErrors.put(key, message);
+        grid.repaintCell(homeTeam, awayTeam);
         
         // Восстанавливаем цвет через 3 секунды
         Timer timer = new Timer(3000, e -> {
-            updateFieldAppearance(field);
+            cellErrors.remove(key);
+            grid.repaintCell(homeTeam, awayTeam);
         });
         timer.setRepeats(false);
         timer.start();
     }
     
-    // Показывает контекстное меню для ячейки.
-    private void showContextMenuForCell(int homeTeam, int awayTeam, int x, int y, Component invoker) {
-        contextMenu.showForMatchCell(homeTeam, awayTeam, x, y, invoker);
-    }
-    
-    // Показывает контекстное меню для заголовка команды.
-    private void showContextMenuForTeam(int teamIndex, int x, int y, Component invoker) {
-        contextMenu.showForTeamHeader(teamIndex, x, y, invoker);
+    private int cellKey(int row, int column) {
+        return row * tournament.getTeamCount() + column;
     }
     
     // Обновляет всю таблицу.
     private void updateTable() {
         SwingUtilities.invokeLater(() -> {
-            updateResultFields();
-            updateTeamNameFields();
-            updateFieldColors();
+            grid.repaint();
+            rowHeader.repaint();
+            columnHeader.repaint();
         });
     }
     
-    // Обновляет поля результатов.
-    private void updateResultFields() {
-        int teamCount = tournament.getTeamCount();
+    // Возвращает цвет фона ячейки результата.
+    private Color getCellColor(int row, int column) {
+        if (row == column) {
+            return DISABLED_CELL_COLOR;
+        }
+        if (cellErrors.containsKey(cellKey(row, column))) {
+            return ERROR_COLOR;
+        }
         
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j && resultFields[i][j] != null) {
-                    GameResult result = tournament.getMatchResult(i, j);
-                    resultFields[i][j].setText(result.getFormattedResult());
-                    updateFieldAppearance(resultFields[i][j]);
-                }
-            }
+        GameResult result = tournament.getMatchResult(row, column);
+        if (!result.isPlayed()) {
+            return EMPTY_COLOR;
+        }
+        if (result.isHomeWin()) {
+            return WIN_COLOR;
         }
+        return result.isDraw() ? DRAW_COLOR : LOSS_COLOR;
     }
     
-    // Обновляет поля названий команд.
-    private void updateTeamNameFields() {
-        for (int i = 0; i < tournament.getTeamCount(); i++) {
-            if (!teamNameFields[i].isFocusOwner()) {
-                teamNameFields[i].setText(tournament.getTeamName(i));
-            }
+    // Возвращает подсказку для ячейки результата.
+    private String getCellToolTip(int row, int column) {
+        String error = cellErrors.get(cellKey(row, column));
+        if (error != null) {
+            return "Ошибка: " + error;
+        }
+        
+        GameResult result = tournament.getMatchResult(row, column);
+        if (!result.isPlayed()) {
+            return String.format("<html>Результат: %s vs %s (формат: X:Y)<br/>" +
+                    "Клавиши: ESC - снять фокус, DELETE - очистить, F2 - статистика</html>",
+                    tournament.getTeamName(row), tournament.getTeamName(column));
         }
+        return String.format("<html>%s vs %s: %s (%d очков)<br/>" +
+                "Клавиши: DELETE - очистить, F2 - статистика</html>",
+                tournament.getTeamName(row), tournament.getTeamName(column),
+                result.getFormattedResult(), result.getHomePoints());
     }
     
-    // Обновляет цвета полей.
-    private void updateFieldColors() {
-        int teamCount = tournament.getTeamCount();
+    // Рисует текст по центру прямоугольника, обрезая его по ширине.
+    private static void drawCentered(Graphics g, String text, int x, int y, int width, int height) {
+        FontMetrics fm = g.getFontMetrics();
+        String shown = fitText(fm, text, width - 8);
+        int textX = x + (width - fm.stringWidth(shown)) / 2;
+        int textY = y + (height - fm.getHeight()) / 2 + fm.getAscent();
+        g.drawString(shown, textX, textY);
+    }
+    
+    // Обрезает текст с многоточием, если он не помещается в заданную ширину.
+    private static String fitText(FontMetrics fm, String text, int width) {
+        if (fm.stringWidth(text) <= width) {
+            return text;
+        }
+        int end = text.length();
+        while (end > 0 && fm.stringWidth(text.substring(0, end) + "…") > width) {
+            end--;
+        }
+        return text.substring(0, end) + "…";
+    }
+    
+    /**
+     * Запоминает изменившиеся ячейки и ставит их перерисовку в очередь EDT.
+     * Все изменения, пришедшие до выполнения перерисовки, объединяются в один проход.
+     */
+    private void markDirty(int row, int column) {
+        synchronized (dirtyLock) {
+            dirtyCells.set(cellKey(row, column));
+            scheduleFlush();
+        }
+    }
+    
+    private void markAllDirty() {
+        synchronized (dirtyLock) {
+            allCellsDirty = true;
+            scheduleFlush();
+        }
+    }
+    
+    // Вызывается под dirtyLock.
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flushDirtyCells);
+        }
+    }
+    
+    // Перерисовывает накопленные ячейки, попадающие в видимую область.
+    private void flushDirtyCells() {
+        BitSet cells;
+        boolean all;
+        synchronized (dirtyLock) {
+            cells = dirtyCells;
+            all = allCellsDirty;
+            dirtyCells = new BitSet();
+            allCellsDirty = false;
+            flushScheduled = false;
+        }
         
-        for (int i = 0; i < teamCount; i++) {
-            for (int j = 0; j < teamCount; j++) {
-                if (i != j && resultFields[i][j] != null) {
-                    updateFieldAppearance(resultFields[i][j]);
-                }
+        scheduleEliminationAnalysis();
+        
+        Rectangle visible = grid.getVisibleRect();
+        if (all) {
+            grid.repaint(visible);
+            return;
+        }
+        
+        int teamCount = tournament.getTeamCount();
+        for (int key = cells.nextSetBit(0); key >= 0; key = cells.nextSetBit(key + 1)) {
+            Rectangle cell = grid.cellRect(key / teamCount, key % teamCount);
+            if (cell.intersects(visible)) {
+                grid.repaint(cell);
             }
         }
     }
     
-    // Обновляет внешний вид текстового поля.
-    private void updateFieldAppearance(JTextField field) {
-        Point pos = fieldToPosition.get(field);
-        if (pos == null) return;
-        
-        GameResult result = tournament.getMatchResult(pos.x, pos.y);
+    /**
+     * Запускает анализ выбывания в фоне. Здесь, в EDT, копируются только исходы пар и очки,
+     * которые анализатор поддерживает по событиям турнира; снимок строится в фоне.
+     * Изменения во время анализа не запускают второй поток: после завершения анализ повторяется один раз.
+     */
+    private void scheduleEliminationAnalysis() {
+        if (analysisRunning) {
+            analysisPending = true;
+            return;
+        }
         
-        if (!result.isPlayed()) {
-            field.setBackground(EMPTY_COLOR);
-            field.setToolTipText(String.format("<html>Результат: %s vs %s (формат: X:Y)<br/>" +
-                    "Клавиши: ESC - снять фокус, DELETE - очистить, F2 - статистика</html>", 
-                    tournament.getTeamName(pos.x), tournament.getTeamName(pos.y)));
-        } else {
-            if (result.isHomeWin()) {
-                field.setBackground(WIN_COLOR);
-            } else if (result.isDraw()) {
-                field.setBackground(DRAW_COLOR);
-            } else {
-                field.setBackground(LOSS_COLOR);
+        analysisRunning = true;
+        EliminationAnalyzer.Analysis analysis = eliminationAnalyzer.prepare();
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                analysis.run();
+                return null;
             }
             
-            field.setToolTipText(String.format("<html>%s vs %s: %s (%d очков)<br/>" +
-                    "Клавиши: DELETE - очистить, F2 - статистика</html>", 
-                    tournament.getTeamName(pos.x), tournament.getTeamName(pos.y),
-                    result.getFormattedResult(), result.getHomePoints()));
-        }
+            @Override
+            protected void done() {
+                analysisRunning = false;
+                rowHeader.repaint(rowHeader.getVisibleRect());
+                if (analysisPending) {
+                    analysisPending = false;
+                    scheduleEliminationAnalysis();
+                }
+            }
+        }.execute();
     }
     
     // Реализация Tournament.TournamentListener:
     @Override
     public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
-        SwingUtilities.invokeLater(() -> {
-            if (resultFields[homeTeam][awayTeam] != null) {
-                if (!resultFields[homeTeam][awayTeam].isFocusOwner()) {
-                    resultFields[homeTeam][awayTeam].setText(result.getFormattedResult());
-                }
-                updateFieldAppearance(resultFields[homeTeam][awayTeam]);
+        markDirty(homeTeam, awayTeam);
+    }
+    
+    @Override
+    public void onResultsChanged(ResultChanges changes) {
+        if (changes.isAllCleared()) {
+            markAllDirty();
+            return;
+        }
+        
+        synchronized (dirtyLock) {
+            for (int k = 0; k < changes.size(); k++) {
+                dirtyCells.set(cellKey(changes.getHomeTeam(k), changes.getAwayTeam(k)));
+                dirtyCells.set(cellKey(changes.getAwayTeam(k), changes.getHomeTeam(k)));
             }
-        });
+            scheduleFlush();
+        }
     }
     
     @Override
     public void onTeamNameChanged(int teamIndex, String newName) {
         SwingUtilities.invokeLater(() -> {
-            if (!teamNameFields[teamIndex].isFocusOwner()) {
-                teamNameFields[teamIndex].setText(newName);
-            }
-            
-            // Обновляем подсказки
-            for (int j = 0; j < tournament.getTeamCount(); j++) {
-                if (teamIndex != j) {
-                    updateFieldAppearance(resultFields[teamIndex][j]);
-                    updateFieldAppearance(resultFields[j][teamIndex]);
-                }
-            }
+            rowHeader.repaintRow(teamIndex);
+            columnHeader.repaintColumn(teamIndex);
         });
     }
     
@@ -586,11 +499,532 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         // Таблица уже отсортирована...
     }
     
+    /**
+     * Сетка результатов матчей. Рисует только ячейки, попавшие в область отсечения,
+     * значения берутся из модели турнира при каждой отрисовке.
+     */
+    private class ResultGrid extends JComponent implements Scrollable {
+        private final JTextField editor; // Плавающее поле редактирования
+        private final Font cellFont;
+        private int selectedRow = -1; // Выбранная ячейка
+        private int selectedColumn = -1;
+        private int editingRow = -1; // Редактируемая ячейка (-1, если редактирования нет)
+        private int editingColumn = -1;
+        
+        ResultGrid() {
+            setLayout(null);
+            setOpaque(true);
+            setFocusable(true);
+            setBackground(EMPTY_COLOR);
+            cellFont = UIManager.getFont("TextField.font").deriveFont(Font.BOLD, 16f);
+            
+            editor = createEditor();
+            add(editor);
+            
+            // Регистрируем компонент в менеджере подсказок
+            setToolTipText("");
+            
+            setupMouseHandlers();
+            setupKeyHandlers();
+        }
+        
+        // Создает поле редактирования результата.
+        private JTextField createEditor() {
+            JTextField field = new JTextField();
+            field.setHorizontalAlignment(JTextField.CENTER);
+            field.setFont(cellFont);
+            field.setBorder(BorderFactory.createLineBorder(SELECTION_COLOR, 2));
+            field.setVisible(false);
+            
+            // Добавляем фильтр документа для валидации ввода
+            ((AbstractDocument) field.getDocument()).setDocumentFilter(new ScoreDocumentFilter());
+            
+            field.addActionListener(e -> stopEditing(true));
+            field.addFocusListener(new FocusAdapter() {
+                @Override
+                public void focusLost(FocusEvent e) {
+                    stopEditing(true);
+                }
+            });
+            
+            field.getInputMap(JComponent.WHEN_FOCUSED)
+                    .put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "cancelEdit");
+            field.getActionMap().put("cancelEdit", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    stopEditing(false);
+                }
+            });
+            
+            return field;
+        }
+        
+        private void setupMouseHandlers() {
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    int row = rowAt(e.getY());
+                    int column = columnAt(e.getX());
+                    if (row < 0 || column < 0) return;
+                    
+                    requestFocusInWindow();
+                    select(row, column);
+                    
+                    if (e.isPopupTrigger()) {
+                        showContextMenu(row, column, e);
+                    } else if (SwingUtilities.isLeftMouseButton(e) && row != column) {
+                        startEditing(row, column, null);
+                    }
+                }
+                
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    int row = rowAt(e.getY());
+                    int column = columnAt(e.getX());
+                    if (e.isPopupTrigger() && row >= 0 && column >= 0) {
+                        showContextMenu(row, column, e);
+                    }
+                }
+            });
+        }
+        
+        private void setupKeyHandlers() {
+            InputMap inputMap = getInputMap(JComponent.WHEN_FOCUSED);
+            ActionMap actionMap = getActionMap();
+            
+            bindMove(inputMap, actionMap, KeyEvent.VK_UP, -1, 0);
+            bindMove(inputMap, actionMap, KeyEvent.VK_DOWN, 1, 0);
+            bindMove(inputMap, actionMap, KeyEvent.VK_LEFT, 0, -1);
+            bindMove(inputMap, actionMap, KeyEvent.VK_RIGHT, 0, 1);
+            
+            inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "startEdit");
+            actionMap.put("startEdit", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    if (selectedRow >= 0 && selectedRow != selectedColumn) {
+                        startEditing(selectedRow, selectedColumn, null);
+                    }
+                }
+            });
+            
+            // Ввод цифры сразу начинает редактирование ячейки
+            addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyTyped(KeyEvent e) {
+                    char c = e.getKeyChar();
+                    if ((Character.isDigit(c) || c == ':') && selectedRow >= 0 && selectedRow != selectedColumn) {
+                        startEditing(selectedRow, selectedColumn, String.valueOf(c));
+                        e.consume();
+                    }
+                }
+            });
+        }
+        
+        private void bindMove(InputMap inputMap, ActionMap actionMap, int key, int dRow, int dColumn) {
+            String name = "move" + key;
+            inputMap.put(KeyStroke.getKeyStroke(key, 0), name);
+            actionMap.put(name, new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    int last = tournament.getTeamCount() - 1;
+                    int row = Math.max(0, Math.min(last, Math.max(selectedRow, 0) + dRow));
+                    int column = Math.max(0, Math.min(last, Math.max(selectedColumn, 0) + dColumn));
+                    select(row, column);
+                }
+            });
+        }
+        
+        private void showContextMenu(int row, int column, MouseEvent e) {
+            if (row != column) {
+                contextMenu.showForMatchCell(row, column, e.getX(), e.getY(), this);
+            }
+        }
+        
+        // Выбирает ячейку и прокручивает таблицу к ней.
+        void select(int row, int column) {
+            if (row == selectedRow && column == selectedColumn) return;
+            
+            int oldRow = selectedRow;
+            int oldColumn = selectedColumn;
+            selectedRow = row;
+            selectedColumn = column;
+            
+            if (oldRow >= 0) repaintCell(oldRow, oldColumn);
+            repaintCell(row, column);
+            scrollRectToVisible(cellRect(row, column));
+        }
+        
+        // Показывает поле редактирования поверх ячейки.
+        void startEditing(int row, int column, String initialText) {
+            stopEditing(true);
+            
+            editingRow = row;
+            editingColumn = column;
+            
+            editor.setText(initialText != null ? initialText
+                    : tournament.getMatchResult(row, column).getFormattedResult());
+            editor.setBackground(getCellColor(row, column));
+            editor.setBounds(cellRect(row, column));
+            editor.setVisible(true);
+            editor.requestFocusInWindow();
+            
+            if (initialText == null) {
+                editor.selectAll();
+            }
+        }
+        
+        // Скрывает поле редактирования, при необходимости применяя введённый результат.
+        void stopEditing(boolean commit) {
+            if (editingRow < 0) return;
+            
+            int row = editingRow;
+            int column = editingColumn;
+            String text = editor.getText();
+            
+            editingRow = -1;
+            editingColumn = -1;
+            
+            boolean hadFocus = editor.isFocusOwner();
+            editor.setVisible(false);
+            if (hadFocus) {
+                requestFocusInWindow();
+            }
+            
+            if (commit) {
+                updateMatchResult(row, column, text);
+            }
+            repaintCell(row, column);
+        }
+        
+        int rowAt(int y) {
+            int row = y / CELL_SIZE;
+            return y >= 0 && row < tournament.getTeamCount() ? row : -1;
+        }
+        
+        int columnAt(int x) {
+            int column = x / CELL_SIZE;
+            return x >= 0 && column < tournament.getTeamCount() ? column : -1;
+        }
+        
+        Rectangle cellRect(int row, int column) {
+            return new Rectangle(column * CELL_SIZE, row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        }
+        
+        void repaintCell(int row, int column) {
+            repaint(column * CELL_SIZE, row * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            int teamCount = tournament.getTeamCount();
+            
+            // Диапазон ячеек, попавших в область перерисовки
+            int firstRow = Math.max(0, clip.y / CELL_SIZE);
+            int lastRow = Math.min(teamCount - 1, (clip.y + clip.height - 1) / CELL_SIZE);
+            int firstColumn = Math.max(0, clip.x / CELL_SIZE);
+            int lastColumn = Math.min(teamCount - 1, (clip.x + clip.width - 1) / CELL_SIZE);
+            
+            g.setColor(getParent().getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(cellFont);
+            
+            for (int row = firstRow; row <= lastRow; row++) {
+                int y = row * CELL_SIZE;
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    paintCell(g2, row, column, column * CELL_SIZE, y);
+                }
+            }
+        }
+        
+        private void paintCell(Graphics2D g, int row, int column, int x, int y) {
+            g.setColor(getCellColor(row, column));
+            g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+            g.setColor(GRID_COLOR);
+            g.drawRect(x, y, CELL_SIZE - 1, CELL_SIZE - 1);
+            
+            g.setColor(Color.BLACK);
+            if (row == column) {
+                // Диагональная ячейка (команда сама с собой)
+                drawCentered(g, "—", x, y, CELL_SIZE, CELL_SIZE);
+            } else if (row != editingRow || column != editingColumn) {
+                drawCentered(g, tournament.getMatchResult(row, column).getFormattedResult(),
+                        x, y, CELL_SIZE, CELL_SIZE);
+            }
+            
+            if (row == selectedRow && column == selectedColumn) {
+                g.setColor(SELECTION_COLOR);
+                g.drawRect(x + 1, y + 1, CELL_SIZE - 3, CELL_SIZE - 3);
+                g.drawRect(x + 2, y + 2, CELL_SIZE - 5, CELL_SIZE - 5);
+            }
+        }
+        
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            int row = rowAt(e.getY());
+            int column = columnAt(e.getX());
+            if (row < 0 || column < 0 || row == column) return null;
+            return getCellToolTip(row, column);
+        }
+        
+        @Override
+        public Dimension getPreferredSize() {
+            int size = tournament.getTeamCount() * CELL_SIZE;
+            return new Dimension(size, size);
+        }
+        
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return getPreferredSize();
+        }
+        
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return CELL_SIZE;
+        }
+        
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            int extent = orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+            return Math.max(CELL_SIZE, extent - CELL_SIZE);
+        }
+        
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return false;
+        }
+        
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+    }
+    
+    /**
+     * Заголовки строк: названия команд с редактированием через плавающее поле.
+     */
+    private class RowHeader extends JComponent {
+        private final JTextField editor; // Плавающее поле редактирования названия
+        private static final int BADGE_HEIGHT = 22; // Высота полосы отметки под названием
+        
+        private final Font nameFont;
+        private final Font badgeFont; // Шрифт отметки о борьбе за первое место
+        private int editingRow = -1; // Редактируемая строка (-1, если редактирования нет)
+        
+        RowHeader() {
+            setLayout(null);
+            setOpaque(true);
+            nameFont = UIManager.getFont("TextField.font").deriveFont(Font.BOLD, 14f);
+            badgeFont = nameFont.deriveFont(Font.PLAIN, 11f);
+            
+            editor = new JTextField();
+            editor.setHorizontalAlignment(JTextField.CENTER);
+            editor.setFont(nameFont);
+            editor.setBackground(TEAM_NAME_COLOR);
+            editor.setBorder(BorderFactory.createLineBorder(SELECTION_COLOR, 2));
+            editor.setVisible(false);
+            editor.addActionListener(e -> stopEditing(true));
+            editor.addFocusListener(new FocusAdapter() {
+                @Override
+                public void focusLost(FocusEvent e) {
+                    stopEditing(true);
+                }
+            });
+            editor.getInputMap(JComponent.WHEN_FOCUSED)
+                    .put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "cancelEdit");
+            editor.getActionMap().put("cancelEdit", new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    stopEditing(false);
+                }
+            });
+            add(editor);
+            
+            setToolTipText("");
+            
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    int row = grid.rowAt(e.getY());
+                    if (row < 0) return;
+                    
+                    if (e.isPopupTrigger()) {
+                        contextMenu.showForTeamHeader(row, e.getX(), e.getY(), RowHeader.this);
+                    } else if (SwingUtilities.isLeftMouseButton(e)) {
+                        startEditing(row);
+                    }
+                }
+                
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    int row = grid.rowAt(e.getY());
+                    if (e.isPopupTrigger() && row >= 0) {
+                        contextMenu.showForTeamHeader(row, e.getX(), e.getY(), RowHeader.this);
+                    }
+                }
+            });
+        }
+        
+        void startEditing(int row) {
+            stopEditing(true);
+            
+            editingRow = row;
+            editor.setText(tournament.getTeamName(row));
+            editor.setBounds(0, row * CELL_SIZE, TEAM_NAME_WIDTH, CELL_SIZE);
+            editor.setVisible(true);
+            editor.requestFocusInWindow();
+            editor.selectAll();
+        }
+        
+        void stopEditing(boolean commit) {
+            if (editingRow < 0) return;
+            
+            int row = editingRow;
+            String text = editor.getText();
+            editingRow = -1;
+            editor.setVisible(false);
+            
+            if (commit) {
+                updateTeamName(row, text);
+            }
+            repaintRow(row);
+        }
+        
+        void repaintRow(int row) {
+            repaint(0, row * CELL_SIZE, TEAM_NAME_WIDTH, CELL_SIZE);
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            int teamCount = tournament.getTeamCount();
+            int firstRow = Math.max(0, clip.y / CELL_SIZE);
+            int lastRow = Math.min(teamCount - 1, (clip.y + clip.height - 1) / CELL_SIZE);
+            
+            g.setColor(getParent().getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(nameFont);
+            
+            for (int row = firstRow; row <= lastRow; row++) {
+                int y = row * CELL_SIZE;
+                g2.setColor(TEAM_NAME_COLOR);
+                g2.fillRect(0, y, TEAM_NAME_WIDTH, CELL_SIZE);
+                g2.setColor(GRID_COLOR);
+                g2.drawRect(0, y, TEAM_NAME_WIDTH - 1, CELL_SIZE - 1);
+                
+                if (row != editingRow) {
+                    g2.setColor(Color.BLACK);
+                    drawCentered(g2, tournament.getTeamName(row), 0, y, TEAM_NAME_WIDTH, CELL_SIZE);
+                    paintStatusBadge(g2, row, y);
+                }
+            }
+        }
+        
+        // Отметка под названием: команда обеспечила первое место или выбыла из борьбы за него.
+        private void paintStatusBadge(Graphics2D g2, int row, int y) {
+            EliminationAnalyzer.Status status = eliminationAnalyzer.getStatus(row);
+            if (status == EliminationAnalyzer.Status.CLINCHED) {
+                g2.setColor(CLINCHED_COLOR);
+            } else if (status == EliminationAnalyzer.Status.ELIMINATED) {
+                g2.setColor(ELIMINATED_COLOR);
+            } else {
+                return;
+            }
+            
+            Font font = g2.getFont();
+            g2.setFont(badgeFont);
+            drawCentered(g2, status.getDescription(), 0, y + CELL_SIZE - BADGE_HEIGHT, TEAM_NAME_WIDTH, BADGE_HEIGHT);
+            g2.setFont(font);
+        }
+        
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            int row = grid.rowAt(e.getY());
+            if (row < 0) return null;
+            
+            EliminationAnalyzer.Status status = eliminationAnalyzer.getStatus(row);
+            String race = status == null ? "" : "<br/>Борьба за первое место: " + status.getDescription();
+            return "<html>Название команды" + race
+                    + "<br/>Клавиши: ESC - снять фокус, DELETE - очистить ячейку</html>";
+        }
+        
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(TEAM_NAME_WIDTH, tournament.getTeamCount() * CELL_SIZE);
+        }
+    }
+    
+    /**
+     * Заголовки столбцов: названия команд, длинные названия переносятся на две строки.
+     */
+    private class ColumnHeader extends JComponent {
+        private final Font headerFont;
+        
+        ColumnHeader() {
+            setOpaque(true);
+            headerFont = UIManager.getFont("Label.font").deriveFont(Font.BOLD, 11f);
+            setToolTipText("");
+        }
+        
+        void repaintColumn(int column) {
+            repaint(column * CELL_SIZE, 0, CELL_SIZE, HEADER_HEIGHT);
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            int teamCount = tournament.getTeamCount();
+            int firstColumn = Math.max(0, clip.x / CELL_SIZE);
+            int lastColumn = Math.min(teamCount - 1, (clip.x + clip.width - 1) / CELL_SIZE);
+            
+            g.setColor(getParent().getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setFont(headerFont);
+            int lineHeight = g2.getFontMetrics().getHeight();
+            
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int x = column * CELL_SIZE;
+                g2.setColor(HEADER_COLOR);
+                g2.fillRect(x, 0, CELL_SIZE, HEADER_HEIGHT);
+                g2.setColor(GRID_COLOR);
+                g2.drawRect(x, 0, CELL_SIZE - 1, HEADER_HEIGHT - 1);
+                
+                g2.setColor(Color.BLACK);
+                String[] lines = splitTeamNameForColumn(tournament.getTeamName(column));
+                int top = (HEADER_HEIGHT - lines.length * lineHeight) / 2;
+                for (int i = 0; i < lines.length; i++) {
+                    drawCentered(g2, lines[i], x, top + i * lineHeight, CELL_SIZE, lineHeight);
+                }
+            }
+        }
+        
+        @Override
+        public String getToolTipText(MouseEvent e) {
+            int column = grid.columnAt(e.getX());
+            if (column < 0) return null;
+            return "<html>" + tournament.getTeamName(column) + "<br/>Команда " + (column + 1) + "</html>";
+        }
+        
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(tournament.getTeamCount() * CELL_SIZE, HEADER_HEIGHT);
+        }
+    }
+    
     // Фильтр документа для валидации ввода результатов.
     private static class ScoreDocumentFilter extends DocumentFilter {
         
         @Override
-        public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr) 
+        public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr)
                 throws BadLocationException {
             if (isValidInput(fb.getDocument().getText(0, fb.getDocument().getLength()), string, offset)) {
                 super.insertString(fb, offset, string, attr);
@@ -598,10 +1032,10 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         }
         
         @Override
-        public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) 
+        public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs)
                 throws BadLocationException {
             String currentText = fb.getDocument().getText(0, fb.getDocument().getLength());
-            String newText = currentText.substring(0, offset) + text + 
+            String newText = currentText.substring(0, offset) + text +
                            currentText.substring(offset + length);
             
             if (newText.isEmpty() || isValidPartialScore(newText)) {
@@ -611,7 +1045,7 @@ public class TournamentTablePanel extends JPanel implements Tournament.Tournamen
         
         // Проверяет, является ли ввод допустимым.
         private boolean isValidInput(String currentText, String newText, int offset) {
-            String resultText = currentText.substring(0, offset) + newText + 
+            String resultText = currentText.substring(0, offset) + newText +
                               currentText.substring(offset);
             return isValidPartialScore(resultText);
         }
@@ -0,0 +1,661 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.GameResult;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Анализ выбывания и гарантированного места: может ли команда ещё занять место не ниже topK
+ * (по очкам, равенство в пользу команды) и обеспечила ли она его при любом исходе оставшихся матчей.
+ *
+ * Основа - сведение задачи о выбывании к максимальному потоку (как в задаче о выбывании в бейсболе).
+ * При системе 3/1/0 точная задача NP-трудна, поэтому поток дает доказательства в обе стороны:
+ * - ослабленная сеть, где каждый матч раздает 2 очка (минимум при любом исходе), доказывает выбывание;
+ * - исходы, построенные по потоку (ничьи и победы), доказывают, что команда ещё борется;
+ * - если ни то, ни другое не сработало, небольшая задача решается полным перебором с ограничением шагов.
+ * Что не удалось решить, получает статус UNDECIDED.
+ *
+ * Команды анализируются параллельно. Результат переиспользуется: если с прошлого анализа результаты
+ * только добавлялись (сыгранные матчи не менялись и не очищались), множество возможных исходов
+ * сузилось, и статусы CLINCHED и ELIMINATED остаются верными без пересчёта.
+ *
+ * Анализатор подписан на турнир и поддерживает исходы пар по событиям, поэтому {@link #prepare()}
+ * в потоке владельца турнира только копирует массив исходов и очки команд, а снимок со списками
+ * оставшихся матчей строится уже в {@link Analysis#run()}.
+ */
+public class EliminationAnalyzer implements Tournament.TournamentListener {
+    private static final int SEARCH_GAME_LIMIT = 64; // Наибольшее число матчей для полного перебора
+    private static final int SEARCH_NODE_LIMIT = 200_000; // Наибольшее число шагов перебора на команду
+    
+    // Исход матча пары (i, j), i < j, в снимке
+    private static final byte UNPLAYED = 0;
+    private static final byte HOME_WIN = 1;
+    private static final byte DRAW = 2;
+    private static final byte AWAY_WIN = 3;
+    
+    // Статус команды в борьбе за место
+    public enum Status {
+        CLINCHED("обеспечила место"),
+        ALIVE("борется"),
+        ELIMINATED("выбыла"),
+        UNDECIDED("не определено");
+        
+        private final String description; // Описание для интерфейса
+        
+        Status(String description) {
+            this.description = description;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+        
+        // Статус, который не может измениться при добавлении новых результатов
+        boolean isFinal() {
+            return this == CLINCHED || this == ELIMINATED;
+        }
+    }
+    
+    private final Tournament tournament; // Анализируемый турнир
+    private final int teamCount; // Количество команд
+    private final int topK; // Борьба за места с 1 по topK
+    private final byte[] outcomes; // Текущий исход каждой пары i < j (поток владельца турнира)
+    private long version; // Номер последнего снятого состояния (поток владельца турнира)
+    private volatile Result lastResult; // Последний завершенный анализ
+    
+    private EliminationAnalyzer(Tournament tournament, int topK) {
+        if (topK < 1 || topK >= tournament.getTeamCount()) {
+            throw new IllegalArgumentException(
+                    String.format("Число мест должно быть от 1 до %d", tournament.getTeamCount() - 1));
+        }
+        this.tournament = tournament;
+        this.teamCount = tournament.getTeamCount();
+        this.topK = topK;
+        this.outcomes = new byte[teamCount * (teamCount - 1) / 2];
+    }
+    
+    // Снимает исходы сыгранных матчей и подписывается на изменения турнира.
+    public static EliminationAnalyzer attach(Tournament tournament, int topK) {
+        EliminationAnalyzer analyzer = new EliminationAnalyzer(tournament, topK);
+        int pair = 0;
+        for (int i = 0; i < analyzer.teamCount; i++) {
+            for (int j = i + 1; j < analyzer.teamCount; j++, pair++) {
+                if (tournament.isMatchPlayed(i, j)) {
+                    GameResult result = tournament.getMatchResult(i, j);
+                    analyzer.outcomes[pair] = outcome(result.getHomeScore(), result.getAwayScore());
+                }
+            }
+        }
+        tournament.addTournamentListener(analyzer);
+        return analyzer;
+    }
+    
+    public void detach() {
+        tournament.removeTournamentListener(this);
+    }
+    
+    public int getTopK() {
+        return topK;
+    }
+    
+    /**
+     * Снимает состояние турнира для анализа: копию исходов пар и очки команд, O(n) обращений
+     * к турниру. Вызывается в потоке, который владеет турниром (в GUI - в EDT);
+     * сам расчёт {@link Analysis#run()} можно выполнять в любом потоке.
+     */
+    public Analysis prepare() {
+        int[] points = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            points[i] = tournament.getTeam(i).getTotalPoints();
+        }
+        return new Analysis(++version, points, outcomes.clone(), lastResult);
+    }
+    
+    // Снимает состояние и сразу выполняет анализ.
+    public Status[] analyze() {
+        return prepare().run();
+    }
+    
+    // Статус команды по последнему завершенному анализу или null, если анализа ещё не было.
+    public Status getStatus(int teamIndex) {
+        Result result = lastResult;
+        return result == null ? null : result.statuses[teamIndex];
+    }
+    
+    // Один запуск анализа по снятому состоянию турнира.
+    public final class Analysis {
+        private final long version; // Номер снятого состояния
+        private final int[] points; // Очки команд
+        private final byte[] outcomes; // Исходы пар i < j
+        private final Result candidate; // Предыдущий анализ, переиспользуемый, если результаты только добавлялись
+        private volatile boolean incremental; // Окончательные статусы взяты из прошлого анализа
+        
+        private Analysis(long version, int[] points, byte[] outcomes, Result candidate) {
+            this.version = version;
+            this.points = points;
+            this.outcomes = outcomes;
+            this.candidate = candidate;
+        }
+        
+        // Признак того, что окончательные статусы взяты из прошлого анализа (известен после run()).
+        public boolean isIncremental() {
+            return incremental;
+        }
+        
+        public Status[] run() {
+            Snapshot snapshot = new Snapshot(version, points, outcomes);
+            Result previous = candidate != null && snapshot.isRestrictionOf(candidate.snapshot) ? candidate : null;
+            incremental = previous != null;
+            
+            Status[] statuses = new Status[snapshot.teamCount];
+            IntStream.range(0, snapshot.teamCount).parallel().forEach(team -> {
+                if (previous != null && previous.statuses[team].isFinal()) {
+                    statuses[team] = previous.statuses[team];
+                } else {
+                    statuses[team] = analyzeTeam(snapshot, team);
+                }
+            });
+            
+            // Публикуем, только если за время расчёта не завершился анализ более нового снимка
+            synchronized (EliminationAnalyzer.this) {
+                if (lastResult == null || lastResult.snapshot.version <= snapshot.version) {
+                    lastResult = new Result(snapshot, statuses);
+                }
+            }
+            return statuses.clone();
+        }
+    }
+    
+    // Исход матча с точки зрения первой команды пары.
+    private static byte outcome(int firstScore, int secondScore) {
+        return firstScore > secondScore ? HOME_WIN : firstScore == secondScore ? DRAW : AWAY_WIN;
+    }
+    
+    // Запоминает итоговый результат пары в ориентации (homeTeam, awayTeam); homeScore < 0 - не сыгран.
+    private void record(int homeTeam, int awayTeam, int homeScore, int awayScore) {
+        int first = Math.min(homeTeam, awayTeam);
+        int second = Math.max(homeTeam, awayTeam);
+        int pair = first * (2 * teamCount - first - 1) / 2 + (second - first - 1);
+        if (homeScore < 0) {
+            outcomes[pair] = UNPLAYED;
+        } else {
+            outcomes[pair] = homeTeam < awayTeam ? outcome(homeScore, awayScore) : outcome(awayScore, homeScore);
+        }
+    }
+    
+    // Реализация Tournament.TournamentListener
+    @Override
+    public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
+        if (result.isPlayed()) {
+            record(homeTeam, awayTeam, result.getHomeScore(), result.getAwayScore());
+        } else {
+            record(homeTeam, awayTeam, -1, -1);
+        }
+    }
+    
+    @Override
+    public void onResultsChanged(ResultChanges changes) {
+        if (changes.isAllCleared()) {
+            Arrays.fill(outcomes, UNPLAYED);
+            return;
+        }
+        for (int k = 0; k < changes.size(); k++) {
+            record(changes.getHomeTeam(k), changes.getAwayTeam(k), changes.getHomeScore(k), changes.getAwayScore(k));
+        }
+    }
+    
+    @Override
+    public void onTeamNameChanged(int teamIndex, String newName) {
+        // Названия не влияют на анализ
+    }
+    
+    @Override
+    public void onTableResorted(List<Team> sortedTeams) {
+        // Анализ не зависит от порядка мест
+    }
+    
+    private static final class Result {
+        private final Snapshot snapshot; // Снимок, по которому выполнен анализ
+        private final Status[] statuses; // Статусы команд
+        
+        Result(Snapshot snapshot, Status[] statuses) {
+            this.snapshot = snapshot;
+            this.statuses = statuses;
+        }
+    }
+    
+    // Анализирует одну команду.
+    private Status analyzeTeam(Snapshot s, int team) {
+        int n = s.teamCount;
+        int minPoints = s.points[team]; // Команда проигрывает все оставшиеся матчи
+        int maxPoints = s.points[team] + ScoreCalculator.POINTS_FOR_WIN * s.remaining[team]; // Выигрывает все
+        
+        // Обеспечила место: догнать команду могут не больше topK - 1 соперников
+        int canCatchUp = 0;
+        for (int i = 0; i < n; i++) {
+            if (i != team && s.points[i] + ScoreCalculator.POINTS_FOR_WIN * s.remaining[i] >= minPoints) {
+                canCatchUp++;
+            }
+        }
+        if (canCatchUp < topK) {
+            return Status.CLINCHED;
+        }
+        
+        // Команды, которые уже сейчас выше максимума, обойдут её при любом исходе
+        boolean[] free = new boolean[n]; // Команды, которым разрешено обойти анализируемую
+        int freeCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (i != team && s.points[i] > maxPoints) {
+                free[i] = true;
+                freeCount++;
+            }
+        }
+        if (freeCount >= topK) {
+            return Status.ELIMINATED;
+        }
+        
+        // Остальные свободные места отдаем соперникам с наибольшим потенциалом
+        if (freeCount < topK - 1) {
+            Integer[] candidates = IntStream.range(0, n)
+                    .filter(i -> i != team && !free[i])
+                    .boxed()
+                    .toArray(Integer[]::new);
+            Arrays.sort(candidates, (a, b) -> Integer.compare(
+                    s.points[b] + ScoreCalculator.POINTS_FOR_WIN * s.remaining[b],
+                    s.points[a] + ScoreCalculator.POINTS_FOR_WIN * s.remaining[a]));
+            for (int k = 0; freeCount < topK - 1; k++) {
+                free[candidates[k]] = true;
+                freeCount++;
+            }
+        }
+        boolean exact = freeCount == 0; // Без свободных соперников проверка точная
+        
+        // Ограничения: остальные соперники должны остаться не выше maxPoints.
+        // Матчи с анализируемой командой она выигрывает, свободные соперники выигрывают у ограниченных.
+        int[] slack = new int[n]; // Сколько очков ещё может набрать соперник
+        boolean[] capped = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (i != team && !free[i]) {
+                capped[i] = true;
+                slack[i] = maxPoints - s.points[i];
+            }
+        }
+        
+        Feasibility feasibility = checkCappedGames(s, capped, slack);
+        if (feasibility == Feasibility.FEASIBLE) {
+            return Status.ALIVE;
+        }
+        if (feasibility == Feasibility.INFEASIBLE && exact) {
+            return Status.ELIMINATED;
+        }
+        return Status.UNDECIDED;
+    }
+    
+    private enum Feasibility { FEASIBLE, INFEASIBLE, UNKNOWN }
+    
+    /**
+     * Проверяет, можно ли сыграть оставшиеся матчи между ограниченными командами так,
+     * чтобы каждая набрала не больше slack очков.
+     */
+    private Feasibility checkCappedGames(Snapshot s, boolean[] capped, int[] slack) {
+        int n = s.teamCount;
+        
+        // Быстрая проверка без перебора матчей: все матчи ничейные, даже если считать каждый
+        // оставшийся матч команды (матчей только с ограниченными соперниками не больше)
+        boolean allDrawsFit = true;
+        for (int i = 0; i < n && allDrawsFit; i++) {
+            allDrawsFit = !capped[i] || s.remaining[i] * ScoreCalculator.POINTS_FOR_DRAW <= slack[i];
+        }
+        if (allDrawsFit) {
+            return Feasibility.FEASIBLE;
+        }
+        
+        // Оставшиеся матчи каждой команды с другими ограниченными командами
+        int[] gamesLeft = new int[n];
+        for (int f = 0; f < s.fixtureHome.length; f++) {
+            if (capped[s.fixtureHome[f]] && capped[s.fixtureAway[f]]) {
+                gamesLeft[s.fixtureHome[f]]++;
+                gamesLeft[s.fixtureAway[f]]++;
+            }
+        }
+        
+        // Команды, которые не превысят предел даже при всех победах, считаем выигравшими все свои матчи
+        // и убираем: их соперники в этих матчах очков не получают, поэтому у соперника остается
+        // на один матч меньше, в котором он может набрать очки
+        boolean[] relevant = capped.clone();
+        int[] queue = new int[n];
+        int queueSize = 0;
+        for (int i = 0; i < n; i++) {
+            if (relevant[i] && ScoreCalculator.POINTS_FOR_WIN * gamesLeft[i] <= slack[i]) {
+                relevant[i] = false;
+                queue[queueSize++] = i;
+            }
+        }
+        for (int q = 0; q < queueSize; q++) {
+            int removed = queue[q];
+            for (int o = s.opponentStart[removed]; o < s.opponentStart[removed + 1]; o++) {
+                int opponent = s.opponents[o];
+                if (relevant[opponent]) {
+                    gamesLeft[opponent]--;
+                    if (ScoreCalculator.POINTS_FOR_WIN * gamesLeft[opponent] <= slack[opponent]) {
+                        relevant[opponent] = false;
+                        queue[queueSize++] = opponent;
+                    }
+                }
+            }
+        }
+        
+        List<int[]> games = new ArrayList<>();
+        for (int f = 0; f < s.fixtureHome.length; f++) {
+            if (relevant[s.fixtureHome[f]] && relevant[s.fixtureAway[f]]) {
+                games.add(new int[] {s.fixtureHome[f], s.fixtureAway[f]});
+            }
+        }
+        if (games.isEmpty()) {
+            return Feasibility.FEASIBLE;
+        }
+        
+        // Все матчи - ничьи
+        boolean drawsFit = true;
+        for (int i = 0; i < n && drawsFit; i++) {
+            drawsFit = !relevant[i] || gamesLeft[i] * ScoreCalculator.POINTS_FOR_DRAW <= slack[i];
+        }
+        if (drawsFit) {
+            return Feasibility.FEASIBLE;
+        }
+        
+        int gameCount = games.size();
+        int[] gameHome = new int[gameCount];
+        int[] gameAway = new int[gameCount];
+        for (int g = 0; g < gameCount; g++) {
+            gameHome[g] = games.get(g)[0];
+            gameAway[g] = games.get(g)[1];
+        }
+        
+        // Ослабление: каждый матч раздает 2 очка в любой пропорции. Любой настоящий исход раздает
+        // не меньше каждой команде, поэтому если и так не помещается - настоящих исходов нет.
+        FlowNetwork relaxed = buildNetwork(n, gameHome, gameAway, 2, slack, 1);
+        if (relaxed.maxFlow() < 2L * gameCount) {
+            return Feasibility.INFEASIBLE;
+        }
+        
+        // Исход по ослабленному потоку: 1:1 - ничья, 2:0 - победа (победителю нужно ещё одно очко)
+        int[] load = new int[n];
+        for (int g = 0; g < gameCount; g++) {
+            int toHome = relaxed.flowFromGame(g, 0);
+            if (toHome == 2) {
+                load[gameHome[g]] += ScoreCalculator.POINTS_FOR_WIN;
+            } else if (toHome == 0) {
+                load[gameAway[g]] += ScoreCalculator.POINTS_FOR_WIN;
+            } else {
+                load[gameHome[g]] += ScoreCalculator.POINTS_FOR_DRAW;
+                load[gameAway[g]] += ScoreCalculator.POINTS_FOR_DRAW;
+            }
+        }
+        if (fits(load, slack, relevant)) {
+            return Feasibility.FEASIBLE;
+        }
+        
+        // Исход только из побед: каждый матч - 3 очка одной команде
+        FlowNetwork decisive = buildNetwork(n, gameHome, gameAway, 1, slack, ScoreCalculator.POINTS_FOR_WIN);
+        if (decisive.maxFlow() == gameCount) {
+            return Feasibility.FEASIBLE;
+        }
+        
+        if (gameCount <= SEARCH_GAME_LIMIT) {
+            int[] remainingSlack = slack.clone();
+            long totalSlack = 0;
+            for (int i = 0; i < n; i++) {
+                if (relevant[i]) totalSlack += remainingSlack[i];
+            }
+            Search search = new Search(gameHome, gameAway, remainingSlack);
+            if (search.find(0, totalSlack)) {
+                return Feasibility.FEASIBLE;
+            }
+            return search.nodes > SEARCH_NODE_LIMIT ? Feasibility.UNKNOWN : Feasibility.INFEASIBLE;
+        }
+        return Feasibility.UNKNOWN;
+    }
+    
+    private static boolean fits(int[] load, int[] slack, boolean[] relevant) {
+        for (int i = 0; i < load.length; i++) {
+            if (relevant[i] && load[i] > slack[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Сеть: исток -> матч (perGame) -> каждая из двух команд (perGame) -> сток (slack / unit).
+     * Узлы: 0 - исток, 1 - сток, 2..2+g - матчи, далее команды.
+     */
+    private static FlowNetwork buildNetwork(int teamCount, int[] gameHome, int[] gameAway,
+                                            int perGame, int[] slack, int unit) {
+        int gameCount = gameHome.length;
+        FlowNetwork network = new FlowNetwork(2 + gameCount + teamCount, gameCount * 3 + teamCount);
+        for (int g = 0; g < gameCount; g++) {
+            network.addEdge(0, 2 + g, perGame);
+            network.addEdge(2 + g, 2 + gameCount + gameHome[g], perGame);
+            network.addEdge(2 + g, 2 + gameCount + gameAway[g], perGame);
+        }
+        boolean[] used = new boolean[teamCount];
+        for (int g = 0; g < gameCount; g++) {
+            used[gameHome[g]] = true;
+            used[gameAway[g]] = true;
+        }
+        for (int i = 0; i < teamCount; i++) {
+            if (used[i]) {
+                network.addEdge(2 + gameCount + i, 1, Math.max(slack[i], 0) / unit);
+            }
+        }
+        return network;
+    }
+    
+    // Полный перебор исходов с отсечением по остатку очков.
+    private static final class Search {
+        private final int[] gameHome; // Хозяева матчей
+        private final int[] gameAway; // Гости матчей
+        private final int[] slack; // Оставшийся запас очков команд
+        private int nodes; // Количество пройденных узлов
+        
+        Search(int[] gameHome, int[] gameAway, int[] slack) {
+            this.gameHome = gameHome;
+            this.gameAway = gameAway;
+            this.slack = slack;
+        }
+        
+        boolean find(int game, long totalSlack) {
+            if (game == gameHome.length) return true;
+            if (++nodes > SEARCH_NODE_LIMIT) return false;
+            // Каждый оставшийся матч раздает минимум 2 очка
+            if (totalSlack < 2L * (gameHome.length - game)) return false;
+            
+            int home = gameHome[game];
+            int away = gameAway[game];
+            int win = ScoreCalculator.POINTS_FOR_WIN;
+            int draw = ScoreCalculator.POINTS_FOR_DRAW;
+            
+            // Сначала победа команды с большим запасом, затем ничья, затем победа второй
+            int first = slack[home] >= slack[away] ? home : away;
+            int second = first == home ? away : home;
+            if (slack[first] >= win && assign(first, win, game, totalSlack)) return true;
+            if (slack[home] >= draw && slack[away] >= draw) {
+                slack[home] -= draw;
+                slack[away] -= draw;
+                boolean found = find(game + 1, totalSlack - 2L * draw);
+                slack[home] += draw;
+                slack[away] += draw;
+                if (found) return true;
+            }
+            return slack[second] >= win && assign(second, win, game, totalSlack);
+        }
+        
+        private boolean assign(int team, int points, int game, long totalSlack) {
+            slack[team] -= points;
+            boolean found = find(game + 1, totalSlack - points);
+            slack[team] += points;
+            return found;
+        }
+    }
+    
+    // Максимальный поток (алгоритм Диница) на массивах.
+    private static final class FlowNetwork {
+        private final int[] head; // Первое ребро узла
+        private final int[] next; // Следующее ребро того же узла
+        private final int[] to; // Конец ребра
+        private final int[] capacity; // Остаточная пропускная способность
+        private final int[] level; // Уровни BFS
+        private final int[] iterator; // Текущее ребро узла при поиске пути
+        private int edgeCount; // Количество ребер (с обратными)
+        
+        FlowNetwork(int nodeCount, int edgeHint) {
+            head = new int[nodeCount];
+            Arrays.fill(head, -1);
+            next = new int[edgeHint * 2];
+            to = new int[edgeHint * 2];
+            capacity = new int[edgeHint * 2];
+            level = new int[nodeCount];
+            iterator = new int[nodeCount];
+        }
+        
+        void addEdge(int from, int target, int cap) {
+            link(from, target, cap);
+            link(target, from, 0);
+        }
+        
+        private void link(int from, int target, int cap) {
+            to[edgeCount] = target;
+            capacity[edgeCount] = cap;
+            next[edgeCount] = head[from];
+            head[from] = edgeCount++;
+        }
+        
+        // Поток из матча g к его команде (0 - хозяева, 1 - гости) по обратному ребру.
+        int flowFromGame(int game, int side) {
+            int edge = game * 6 + 2 + side * 2; // Ребра матча добавлены подряд: исток, хозяева, гости
+            return capacity[edge + 1];
+        }
+        
+        long maxFlow() {
+            long flow = 0;
+            while (bfs()) {
+                System.arraycopy(head, 0, iterator, 0, head.length);
+                int pushed;
+                while ((pushed = push(0, Integer.MAX_VALUE)) > 0) {
+                    flow += pushed;
+                }
+            }
+            return flow;
+        }
+        
+        private boolean bfs() {
+            Arrays.fill(level, -1);
+            int[] queue = new int[head.length];
+            int read = 0;
+            int write = 0;
+            queue[write++] = 0;
+            level[0] = 0;
+            while (read < write) {
+                int node = queue[read++];
+                for (int e = head[node]; e >= 0; e = next[e]) {
+                    if (capacity[e] > 0 && level[to[e]] < 0) {
+                        level[to[e]] = level[node] + 1;
+                        queue[write++] = to[e];
+                    }
+                }
+            }
+            return level[1] >= 0;
+        }
+        
+        private int push(int node, int limit) {
+            if (node == 1) return limit;
+            for (; iterator[node] >= 0; iterator[node] = next[iterator[node]]) {
+                int e = iterator[node];
+                if (capacity[e] > 0 && level[to[e]] == level[node] + 1) {
+                    int pushed = push(to[e], Math.min(limit, capacity[e]));
+                    if (pushed > 0) {
+                        capacity[e] -= pushed;
+                        capacity[e ^ 1] += pushed;
+                        return pushed;
+                    }
+                }
+            }
+            return 0;
+        }
+    }
+    
+    // Неизменяемый снимок турнира: очки, оставшиеся матчи и исходы сыгранных.
+    private static final class Snapshot {
+        private final long version; // Номер снимка
+        private final int teamCount; // Количество команд
+        private final int[] points; // Очки команд
+        private final int[] remaining; // Оставшиеся матчи команд
+        private final byte[] outcomes; // Исход каждой пары i < j
+        private final int[] fixtureHome; // Несыгранные матчи: первая команда пары
+        private final int[] fixtureAway; // Несыгранные матчи: вторая команда пары
+        private final int[] opponentStart; // Начало списка несыгранных соперников команды в opponents
+        private final int[] opponents; // Несыгранные соперники всех команд подряд
+        
+        // Строит списки оставшихся матчей по снятым исходам. Массивы передаются во владение снимку.
+        Snapshot(long version, int[] points, byte[] outcomes) {
+            this.version = version;
+            this.teamCount = points.length;
+            this.points = points;
+            this.outcomes = outcomes;
+            this.remaining = new int[teamCount];
+            
+            int unplayed = 0;
+            int pair = 0;
+            for (int i = 0; i < teamCount; i++) {
+                for (int j = i + 1; j < teamCount; j++, pair++) {
+                    if (outcomes[pair] == UNPLAYED) {
+                        remaining[i]++;
+                        remaining[j]++;
+                        unplayed++;
+                    }
+                }
+            }
+            
+            fixtureHome = new int[unplayed];
+            fixtureAway = new int[unplayed];
+            int fixture = 0;
+            pair = 0;
+            for (int i = 0; i < teamCount; i++) {
+                for (int j = i + 1; j < teamCount; j++, pair++) {
+                    if (outcomes[pair] == UNPLAYED) {
+                        fixtureHome[fixture] = i;
+                        fixtureAway[fixture] = j;
+                        fixture++;
+                    }
+                }
+            }
+            
+            opponentStart = new int[teamCount + 1];
+            for (int i = 0; i < teamCount; i++) {
+                opponentStart[i + 1] = opponentStart[i] + remaining[i];
+            }
+            opponents = new int[2 * unplayed];
+            int[] filled = Arrays.copyOf(opponentStart, teamCount);
+            for (int f = 0; f < unplayed; f++) {
+                opponents[filled[fixtureHome[f]]++] = fixtureAway[f];
+                opponents[filled[fixtureAway[f]]++] = fixtureHome[f];
+            }
+        }
+        
+        // Проверяет, что этот снимок получен из older только добавлением результатов.
+        boolean isRestrictionOf(Snapshot older) {
+            if (older.teamCount != teamCount) return false;
+            for (int pair = 0; pair < outcomes.length; pair++) {
+                if (older.outcomes[pair] != UNPLAYED && older.outcomes[pair] != outcomes[pair]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
\ No newline at end of file
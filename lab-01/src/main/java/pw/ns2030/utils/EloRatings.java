@@ -0,0 +1,249 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.GameResult;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.util.*;
+
+/**
+ * Рейтинг команд по системе Эло, пересчитываемый по мере внесения результатов.
+ *
+ * Матчи учитываются в порядке внесения: новый результат меняет рейтинги двух команд за O(1).
+ * Рейтинг зависит от порядка матчей, поэтому исправление старого результата требует пересчёта
+ * всех последующих матчей. Чтобы не начинать с начала сезона, через каждые
+ * {@link #CHECKPOINT_INTERVAL} матчей сохраняются рейтинги всех команд; пересчёт начинается
+ * с ближайшей точки перед исправленным матчем. Пакет изменений пересчитывается один раз.
+ *
+ * Исправленный матч сохраняет своё место в порядке; очищенный матч пропускается,
+ * а повторно внесенный после очистки результат считается новым матчем.
+ *
+ * Рейтинг подписывается на турнир и, как турнир, используется из одного потока.
+ */
+public class EloRatings implements Tournament.TournamentListener {
+    public static final double INITIAL_RATING = 1500; // Рейтинг команды без матчей
+    public static final double K_FACTOR = 20; // Наибольшее изменение рейтинга за матч с разницей в один гол
+    static final int CHECKPOINT_INTERVAL = 1024; // Матчей между сохраненными рейтингами
+    
+    private static final int CLEARED = -1; // Признак очищенного матча в последовательности
+    
+    private final Tournament tournament; // Турнир, на который подписан рейтинг
+    private final int teamCount; // Количество команд
+    private final double[] ratings; // Текущие рейтинги по индексам команд
+    private int[] matches = new int[4 * 64]; // Матчи в порядке внесения по 4 числа: команды i < j и их голы
+    private int matchCount; // Длина последовательности матчей (с очищенными)
+    private int applied; // Матчей в начале последовательности, учтенных в текущих рейтингах
+    private final int[] slotOfPair; // Номер матча пары + 1 (0 - пара в последовательности не участвует)
+    private final List<double[]> checkpoints = new ArrayList<>(); // Рейтинги перед матчем k * CHECKPOINT_INTERVAL
+    
+    private EloRatings(Tournament tournament) {
+        this.tournament = tournament;
+        this.teamCount = tournament.getTeamCount();
+        this.ratings = new double[teamCount];
+        this.slotOfPair = new int[teamCount * (teamCount - 1) / 2];
+        Arrays.fill(ratings, INITIAL_RATING);
+    }
+    
+    /**
+     * Создает рейтинг по уже внесенным результатам турнира и подписывается на его изменения.
+     * Уже сыгранные матчи учитываются в порядке пар команд.
+     */
+    public static EloRatings attach(Tournament tournament) {
+        EloRatings elo = new EloRatings(tournament);
+        for (int i = 0; i < elo.teamCount; i++) {
+            for (int j = i + 1; j < elo.teamCount; j++) {
+                if (tournament.isMatchPlayed(i, j)) {
+                    elo.append(i, j, tournament.getMatchResult(i, j));
+                    elo.playNext();
+                }
+            }
+        }
+        tournament.addTournamentListener(elo);
+        return elo;
+    }
+    
+    // Отписывается от турнира, рейтинг перестает обновляться.
+    public void detach() {
+        tournament.removeTournamentListener(this);
+    }
+    
+    public double getRating(int teamIndex) {
+        return ratings[teamIndex];
+    }
+    
+    // Копия текущих рейтингов по индексам команд.
+    public double[] getRatings() {
+        return ratings.clone();
+    }
+    
+    // Индексы команд по убыванию рейтинга (при равенстве - по индексу).
+    public int[] getRanking() {
+        Integer[] order = new Integer[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int comparison = Double.compare(ratings[b], ratings[a]);
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        });
+        
+        int[] ranking = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            ranking[i] = order[i];
+        }
+        return ranking;
+    }
+    
+    // Ожидаемый результат команды homeTeam против awayTeam: от 0 (поражение) до 1 (победа).
+    public double getExpectedScore(int homeTeam, int awayTeam) {
+        return expectedScore(ratings[homeTeam], ratings[awayTeam]);
+    }
+    
+    // Количество учтенных матчей.
+    public int getMatchCount() {
+        int played = 0;
+        for (int slot = 0; slot < matchCount; slot++) {
+            if (matches[slot * 4 + 2] != CLEARED) played++;
+        }
+        return played;
+    }
+    
+    // Реализация Tournament.TournamentListener
+    @Override
+    public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
+        // Турнир сообщает о каждой паре дважды, учитываем ячейку над диагональю
+        if (homeTeam > awayTeam) return;
+        replayFrom(matchChanged(homeTeam, awayTeam, result));
+    }
+    
+    @Override
+    public void onResultsChanged(ResultChanges changes) {
+        if (changes.isAllCleared()) {
+            Arrays.fill(ratings, INITIAL_RATING);
+            Arrays.fill(slotOfPair, 0);
+            matchCount = 0;
+            applied = 0;
+            checkpoints.clear();
+            return;
+        }
+        
+        int from = Integer.MAX_VALUE;
+        for (int k = 0; k < changes.size(); k++) {
+            from = Math.min(from, matchChanged(changes.getHomeTeam(k), changes.getAwayTeam(k), changes.getResult(k)));
+        }
+        replayFrom(from);
+    }
+    
+    @Override
+    public void onTeamNameChanged(int teamIndex, String newName) {
+        // Рейтинг не зависит от названий
+    }
+    
+    @Override
+    public void onTableResorted(List<Team> sortedTeams) {
+        // Рейтинг не зависит от мест в таблице
+    }
+    
+    /**
+     * Записывает изменение результата пары в последовательность матчей.
+     *
+     * @return номер первого матча, с которого нужно пересчитать рейтинги (MAX_VALUE - не нужно)
+     */
+    private int matchChanged(int homeTeam, int awayTeam, GameResult result) {
+        if (homeTeam > awayTeam) {
+            return matchChanged(awayTeam, homeTeam, result.createReverseResult());
+        }
+        
+        int pair = pairIndex(homeTeam, awayTeam);
+        int slot = slotOfPair[pair] - 1;
+        if (slot >= 0) {
+            // Исправление или очистка уже учтенного матча
+            int offset = slot * 4;
+            if (result.isPlayed()) {
+                matches[offset + 2] = result.getHomeScore();
+                matches[offset + 3] = result.getAwayScore();
+            } else {
+                matches[offset + 2] = CLEARED;
+                slotOfPair[pair] = 0;
+            }
+            return slot;
+        }
+        
+        if (!result.isPlayed()) return Integer.MAX_VALUE;
+        return append(homeTeam, awayTeam, result);
+    }
+    
+    private int append(int homeTeam, int awayTeam, GameResult result) {
+        if ((matchCount + 1) * 4 > matches.length) {
+            matches = Arrays.copyOf(matches, matches.length * 2);
+        }
+        int offset = matchCount * 4;
+        matches[offset] = homeTeam;
+        matches[offset + 1] = awayTeam;
+        matches[offset + 2] = result.getHomeScore();
+        matches[offset + 3] = result.getAwayScore();
+        slotOfPair[pairIndex(homeTeam, awayTeam)] = matchCount + 1;
+        return matchCount++;
+    }
+    
+    /**
+     * Пересчитывает рейтинги начиная с указанного матча. Новые матчи в конце просто
+     * применяются к текущим рейтингам, иначе расчёт продолжается с сохраненных рейтингов
+     * ближайшей точки перед матчем, а последующие точки перезаписываются.
+     */
+    private void replayFrom(int from) {
+        if (from >= matchCount) return;
+        
+        if (from < applied) {
+            int block = from / CHECKPOINT_INTERVAL;
+            System.arraycopy(checkpoints.get(block), 0, ratings, 0, teamCount);
+            checkpoints.subList(block + 1, checkpoints.size()).clear();
+            applied = block * CHECKPOINT_INTERVAL;
+        }
+        while (applied < matchCount) {
+            playNext();
+        }
+    }
+    
+    // Применяет следующий неучтенный матч, перед каждым CHECKPOINT_INTERVAL матчем сохраняет рейтинги.
+    private void playNext() {
+        if (applied % CHECKPOINT_INTERVAL == 0 && applied / CHECKPOINT_INTERVAL == checkpoints.size()) {
+            checkpoints.add(ratings.clone());
+        }
+        play(applied++);
+    }
+    
+    // Обновляет рейтинги двух команд по результату матча.
+    private void play(int slot) {
+        int offset = slot * 4;
+        int homeScore = matches[offset + 2];
+        if (homeScore == CLEARED) return;
+        int awayScore = matches[offset + 3];
+        int homeTeam = matches[offset];
+        int awayTeam = matches[offset + 1];
+        
+        double actual = homeScore > awayScore ? 1 : homeScore == awayScore ? 0.5 : 0;
+        double change = K_FACTOR * goalMultiplier(Math.abs(homeScore - awayScore))
+                * (actual - expectedScore(ratings[homeTeam], ratings[awayTeam]));
+        ratings[homeTeam] += change;
+        ratings[awayTeam] -= change;
+    }
+    
+    // Вероятность победы (плюс половина ничьей) команды с рейтингом rating против opponent.
+    static double expectedScore(double rating, double opponent) {
+        return 1 / (1 + Math.pow(10, (opponent - rating) / 400));
+    }
+    
+    // Крупная победа меняет рейтинг сильнее (как в мировом футбольном рейтинге Эло).
+    private static double goalMultiplier(int goalDifference) {
+        if (goalDifference <= 1) return 1;
+        if (goalDifference == 2) return 1.5;
+        return (11 + goalDifference) / 8.0;
+    }
+    
+    // Номер пары i < j в треугольной нумерации.
+    private int pairIndex(int i, int j) {
+        return i * (2 * teamCount - i - 1) / 2 + (j - i - 1);
+    }
+}
\ No newline at end of file
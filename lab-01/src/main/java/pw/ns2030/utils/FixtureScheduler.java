@@ -0,0 +1,485 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.Schedule;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Составление расписания однокругового турнира.
+ *
+ * Основа - круговой метод (Бергер): одна позиция стоит на месте, остальные поворачиваются
+ * по кругу, хозяева чередуются так, что в расписании n - 2 «брейка» (два домашних или
+ * два гостевых матча подряд) для четного числа команд и ни одного для нечетного - меньше
+ * не бывает. Домашних и гостевых матчей у каждой команды поровну (или на один больше).
+ *
+ * Необязательные ограничения:
+ * - запрет домашнего матча команды в туре (стадион занят);
+ * - тур отдыха команды (только при нечетном числе команд, когда в каждом туре кто-то отдыхает).
+ *
+ * Если ограничения заданы, расписание подбирается локальным поиском (имитация отжига) в два этапа:
+ * 1. Команды распределяются по позициям круга обменом двух команд. Распределение не меняет
+ *    ни брейков, ни баланса, а стоимость обмена считается только по ограничениям двух команд.
+ * 2. Оставшиеся нарушения исправляются сменой хозяина отдельных матчей; стоимость смены -
+ *    нарушения, брейки и баланс двух команд в соседних турах, то есть O(1).
+ * {@link #SEARCHES} независимых поисков из разных начальных распределений выполняются
+ * параллельно в ForkJoinPool; генераторы получаются через SplittableRandom.split(),
+ * поэтому при одинаковом seed результат не зависит от числа потоков.
+ */
+public class FixtureScheduler {
+    public static final int DEFAULT_ITERATIONS = 1_000_000; // Шагов каждого этапа поиска по умолчанию
+    static final int SEARCHES = 8; // Независимых поисков
+    static final int VIOLATION_COST = 100; // Цена нарушенного ограничения (в брейках)
+    static final int IMBALANCE_COST = 10; // Цена лишнего домашнего или гостевого матча команды
+    static final int ASSIGN_REST_COST = 10; // Цена неполученного отдыха при распределении (сменой хозяев его не исправить)
+    
+    private static final double ASSIGN_START_TEMPERATURE = 2; // Начальная температура распределения (в запретах домашних матчей)
+    private static final double REPAIR_START_TEMPERATURE = 1; // Начальная температура смены хозяев (в брейках)
+    private static final double END_TEMPERATURE = 0.05; // Конечная температура обоих этапов
+    
+    private final int teamCount; // Количество команд
+    private final int size; // Позиций круга: четное число, при нечетном числе команд одна позиция - отдых
+    private final int roundCount; // Количество туров
+    private final BitSet homeBlackouts; // Запрет домашнего матча: тур * teamCount + команда
+    private final BitSet restRounds; // Желаемый отдых: тур * teamCount + команда
+    private final ForkJoinPool pool; // Пул потоков для поисков
+    private final long seed; // Начальное значение генератора
+    private int iterations = DEFAULT_ITERATIONS; // Шагов каждого этапа поиска
+    
+    public FixtureScheduler(int teamCount) {
+        this(teamCount, ForkJoinPool.commonPool(), System.nanoTime());
+    }
+    
+    public FixtureScheduler(int teamCount, ForkJoinPool pool, long seed) {
+        if (teamCount < 2) {
+            throw new IllegalArgumentException("Для расписания нужно не меньше двух команд");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Пул потоков обязателен");
+        }
+        this.teamCount = teamCount;
+        this.size = teamCount % 2 == 0 ? teamCount : teamCount + 1;
+        this.roundCount = size - 1;
+        this.homeBlackouts = new BitSet();
+        this.restRounds = new BitSet();
+        this.pool = pool;
+        this.seed = seed;
+    }
+    
+    public int getRoundCount() {
+        return roundCount;
+    }
+    
+    // Запрещает команде принимать соперника в указанном туре (туры и команды с 0).
+    public FixtureScheduler addVenueBlackout(int team, int round) {
+        validate(team, round);
+        homeBlackouts.set(round * teamCount + team);
+        return this;
+    }
+    
+    // Просит дать команде отдых в указанном туре. Возможно только при нечетном числе команд.
+    public FixtureScheduler addRestRound(int team, int round) {
+        validate(team, round);
+        if (teamCount % 2 == 0) {
+            throw new IllegalArgumentException("При четном числе команд в каждом туре играют все команды");
+        }
+        restRounds.set(round * teamCount + team);
+        return this;
+    }
+    
+    public FixtureScheduler setIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Количество шагов не может быть отрицательным");
+        }
+        this.iterations = iterations;
+        return this;
+    }
+    
+    // Составляет расписание. Без ограничений возвращает круговое расписание без поиска.
+    public Schedule schedule() {
+        Circle circle = new Circle();
+        if (homeBlackouts.isEmpty() && restRounds.isEmpty()) {
+            Search search = new Search(circle, null);
+            search.build();
+            return search.toSchedule();
+        }
+        
+        SplittableRandom root = new SplittableRandom(seed);
+        List<Search> searches = new ArrayList<>(SEARCHES);
+        for (int k = 0; k < SEARCHES; k++) {
+            searches.add(new Search(circle, root.split()));
+        }
+        
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(searches.size());
+                for (Search search : searches) {
+                    tasks.add(ForkJoinTask.adapt(search::run));
+                }
+                invokeAll(tasks);
+            }
+        });
+        
+        // При равной стоимости берется поиск с меньшим номером - результат не зависит от потоков
+        Search best = searches.get(0);
+        for (Search search : searches) {
+            if (search.cost < best.cost) best = search;
+        }
+        return best.toSchedule();
+    }
+    
+    // Количество нарушенных ограничений в расписании.
+    public int countViolations(Schedule schedule) {
+        if (schedule.getTeamCount() != teamCount) {
+            throw new IllegalArgumentException("Расписание составлено для другого количества команд");
+        }
+        int violations = 0;
+        boolean[] playing = new boolean[teamCount];
+        for (int round = 0; round < roundCount; round++) {
+            Arrays.fill(playing, false);
+            for (int k = 0; k < schedule.getMatchesPerRound(); k++) {
+                int home = schedule.getHomeTeam(round, k);
+                playing[home] = true;
+                playing[schedule.getAwayTeam(round, k)] = true;
+                if (homeBlackouts.get(round * teamCount + home)) violations++;
+            }
+            for (int team = 0; team < teamCount; team++) {
+                if (playing[team] && restRounds.get(round * teamCount + team)) violations++;
+            }
+        }
+        return violations;
+    }
+    
+    private void validate(int team, int round) {
+        if (team < 0 || team >= teamCount) {
+            throw new IllegalArgumentException("Некорректный индекс команды: " + team);
+        }
+        if (round < 0 || round >= roundCount) {
+            throw new IllegalArgumentException("Некорректный номер тура: " + round);
+        }
+    }
+    
+    // Туры, в которых у команды задано ограничение из набора.
+    private int[][] roundsByTeam(BitSet constraints) {
+        int[] counts = new int[teamCount];
+        for (int bit = constraints.nextSetBit(0); bit >= 0; bit = constraints.nextSetBit(bit + 1)) {
+            counts[bit % teamCount]++;
+        }
+        int[][] rounds = new int[teamCount][];
+        for (int team = 0; team < teamCount; team++) {
+            rounds[team] = new int[counts[team]];
+            counts[team] = 0;
+        }
+        for (int bit = constraints.nextSetBit(0); bit >= 0; bit = constraints.nextSetBit(bit + 1)) {
+            int team = bit % teamCount;
+            rounds[team][counts[team]++] = bit / teamCount;
+        }
+        return rounds;
+    }
+    
+    /**
+     * Круговое расписание по позициям и ограничения по командам - общие для всех поисков,
+     * после создания не изменяются.
+     */
+    private final class Circle {
+        private final int restSlot; // Позиция отдыха или -1 при четном числе команд
+        private final int[] opponent; // Позиция соперника: тур * size + позиция
+        private final boolean[] home; // Позиция принимает соперника: тур * size + позиция
+        private final int[] restRound; // Тур отдыха позиции (-1 - без отдыха)
+        private final int[][] blackouts; // Туры запрета домашнего матча по командам
+        private final int[][] rests; // Туры желаемого отдыха по командам
+        private final int[] constrained; // Все ограничения: тур * teamCount + команда
+        
+        Circle() {
+            this.restSlot = teamCount < size ? size - 1 : -1;
+            this.opponent = new int[roundCount * size];
+            this.home = new boolean[roundCount * size];
+            this.restRound = new int[size];
+            Arrays.fill(restRound, -1);
+            
+            int fixed = size - 1; // Неподвижная позиция, остальные стоят на круге
+            for (int round = 0; round < roundCount; round++) {
+                // Неподвижная позиция играет с позицией round, хозяин чередуется по турам
+                play(round, fixed, round, round % 2 == 1);
+                for (int k = 1; k < size / 2; k++) {
+                    play(round, (round + k) % fixed, (round - k + fixed) % fixed, k % 2 == 1);
+                }
+            }
+            
+            this.blackouts = roundsByTeam(homeBlackouts);
+            this.rests = roundsByTeam(restRounds);
+            BitSet all = (BitSet) homeBlackouts.clone();
+            all.or(restRounds);
+            this.constrained = all.stream().toArray();
+        }
+        
+        private void play(int round, int first, int second, boolean firstHome) {
+            int offset = round * size;
+            opponent[offset + first] = second;
+            opponent[offset + second] = first;
+            if (first == restSlot || second == restSlot) {
+                restRound[first == restSlot ? second : first] = round;
+                return;
+            }
+            home[offset + first] = firstHome;
+            home[offset + second] = !firstHome;
+        }
+        
+        /**
+         * Стоимость позиции для команды: запреты домашних матчей, которые выпадают на домашние туры
+         * позиции, и желаемые туры отдыха, не совпадающие с отдыхом позиции.
+         */
+        int slotCost(int team, int slot) {
+            int count = 0;
+            for (int round : blackouts[team]) {
+                if (restRound[slot] != round && home[round * size + slot]) count++;
+            }
+            for (int round : rests[team]) {
+                if (restRound[slot] != round) count += ASSIGN_REST_COST;
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Один поиск. На первом этапе ищется распределение команд по позициям круга,
+     * затем по нему строится расписание участников (соперник и признак домашнего матча
+     * для каждого участника в каждом туре; участник teamCount - фиктивный, встреча с ним
+     * означает отдых) и в нем меняются хозяева отдельных матчей.
+     */
+    private final class Search {
+        private final Circle circle; // Круговое расписание и ограничения
+        private final SplittableRandom random; // Генератор поиска (null - поиск не выполняется)
+        private final int[] slotOfTeam; // Позиция команды на круге
+        private final int rest; // Фиктивный участник (отдых) или -1
+        private int[] opponent; // Соперник: тур * size + участник
+        private boolean[] home; // Участник принимает соперника: тур * size + участник
+        private final int[] homeCount; // Домашних матчей участника
+        private long cost; // Стоимость текущего расписания
+        
+        Search(Circle circle, SplittableRandom random) {
+            this.circle = circle;
+            this.random = random;
+            this.rest = circle.restSlot >= 0 ? teamCount : -1;
+            this.slotOfTeam = new int[teamCount];
+            this.homeCount = new int[size];
+            
+            // Начальное распределение - случайная перестановка (без поиска - по порядку)
+            int[] slots = new int[size];
+            for (int i = 0; i < size; i++) {
+                slots[i] = i;
+            }
+            if (random != null) {
+                for (int i = size - 2; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = slots[i];
+                    slots[i] = slots[j];
+                    slots[j] = swap;
+                }
+            }
+            // При четном числе команд неподвижную позицию тоже занимает случайная команда (при нечетном - отдых)
+            if (rest < 0 && random != null) {
+                int j = random.nextInt(size);
+                int swap = slots[size - 1];
+                slots[size - 1] = slots[j];
+                slots[j] = swap;
+            }
+            System.arraycopy(slots, 0, slotOfTeam, 0, teamCount);
+        }
+        
+        void run() {
+            assign();
+            build();
+            repair();
+        }
+        
+        // Этап 1: обмен позиций двух команд, стоимость - сумма стоимостей позиций (Circle.slotCost).
+        private void assign() {
+            double cooling = cooling(ASSIGN_START_TEMPERATURE);
+            double temperature = ASSIGN_START_TEMPERATURE;
+            int assignCost = 0;
+            for (int team = 0; team < teamCount; team++) {
+                assignCost += circle.slotCost(team, slotOfTeam[team]);
+            }
+            
+            for (int step = 0; step < iterations && assignCost > 0; step++) {
+                int first = random.nextInt(teamCount);
+                int second = random.nextInt(teamCount);
+                temperature *= cooling;
+                if (first == second) continue;
+                
+                int firstSlot = slotOfTeam[first];
+                int secondSlot = slotOfTeam[second];
+                int delta = circle.slotCost(first, secondSlot) + circle.slotCost(second, firstSlot)
+                        - circle.slotCost(first, firstSlot) - circle.slotCost(second, secondSlot);
+                if (accept(delta, temperature)) {
+                    slotOfTeam[first] = secondSlot;
+                    slotOfTeam[second] = firstSlot;
+                    assignCost += delta;
+                }
+            }
+        }
+        
+        // Строит расписание участников по распределению позиций.
+        void build() {
+            int[] teamOfSlot = new int[size];
+            for (int team = 0; team < teamCount; team++) {
+                teamOfSlot[slotOfTeam[team]] = team;
+            }
+            if (rest >= 0) {
+                teamOfSlot[circle.restSlot] = rest;
+            }
+            
+            opponent = new int[roundCount * size];
+            home = new boolean[roundCount * size];
+            for (int round = 0; round < roundCount; round++) {
+                int offset = round * size;
+                for (int slot = 0; slot < size; slot++) {
+                    int team = teamOfSlot[slot];
+                    opponent[offset + team] = teamOfSlot[circle.opponent[offset + slot]];
+                    home[offset + team] = circle.home[offset + slot];
+                    if (home[offset + team]) homeCount[team]++;
+                }
+            }
+            
+            long sum = 0;
+            for (int team = 0; team < size; team++) {
+                sum += imbalance(team);
+                for (int round = 0; round < roundCount; round++) {
+                    sum += roundCost(team, round) + breakAt(team, round);
+                }
+            }
+            cost = sum;
+        }
+        
+        /**
+         * Этап 2: смена хозяина матча. В девяти шагах из десяти матч выбирается рядом с ограничением
+         * (тот же или соседний тур команды с ограничением), чтобы поиск не тратил шаги на туры,
+         * где менять нечего, в остальных - случайно. Лучшее состояние запоминается в конце отжига.
+         */
+        private void repair() {
+            double cooling = cooling(REPAIR_START_TEMPERATURE);
+            double temperature = REPAIR_START_TEMPERATURE;
+            long lowerBound = rest < 0 ? teamCount - 2 : 0;
+            
+            long bestCost = cost;
+            int[] bestOpponent = null;
+            boolean[] bestHome = null;
+            int[] bestHomeCount = null;
+            
+            for (int step = 0; step < iterations && cost > lowerBound; step++) {
+                temperature *= cooling;
+                int round;
+                int team;
+                if (random.nextInt(10) > 0) {
+                    int constraint = circle.constrained[random.nextInt(circle.constrained.length)];
+                    team = constraint % teamCount;
+                    round = constraint / teamCount;
+                    if (random.nextBoolean()) {
+                        team = opponent[round * size + team];
+                    }
+                    round = Math.max(0, Math.min(roundCount - 1, round + random.nextInt(5) - 2));
+                    if (team == rest) continue;
+                } else {
+                    round = random.nextInt(roundCount);
+                    team = random.nextInt(teamCount);
+                }
+                int other = opponent[round * size + team];
+                if (other == rest) continue;
+                
+                long before = flipCost(team, round) + flipCost(other, round);
+                flip(round, team, other);
+                long delta = flipCost(team, round) + flipCost(other, round) - before;
+                if (accept(delta, temperature)) {
+                    cost += delta;
+                    if (cost < bestCost && temperature < END_TEMPERATURE * 4) {
+                        // Копии только в конце отжига, когда улучшения редки
+                        bestCost = cost;
+                        bestOpponent = opponent.clone();
+                        bestHome = home.clone();
+                        bestHomeCount = homeCount.clone();
+                    }
+                } else {
+                    flip(round, team, other);
+                }
+            }
+            
+            if (bestHome != null && bestCost < cost) {
+                opponent = bestOpponent;
+                home = bestHome;
+                System.arraycopy(bestHomeCount, 0, homeCount, 0, size);
+                cost = bestCost;
+            }
+        }
+        
+        private double cooling(double startTemperature) {
+            return Math.pow(END_TEMPERATURE / startTemperature, 1.0 / Math.max(iterations, 1));
+        }
+        
+        private boolean accept(long delta, double temperature) {
+            return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+        }
+        
+        private void flip(int round, int team, int other) {
+            int offset = round * size;
+            boolean teamHome = !home[offset + team];
+            home[offset + team] = teamHome;
+            home[offset + other] = !teamHome;
+            homeCount[team] += teamHome ? 1 : -1;
+            homeCount[other] += teamHome ? -1 : 1;
+        }
+        
+        // Слагаемые стоимости участника, которые меняет смена хозяина в туре.
+        private long flipCost(int team, int round) {
+            return roundCost(team, round) + breakAt(team, round) + breakAt(team, round + 1) + imbalance(team);
+        }
+        
+        // Нарушения ограничений участника в туре.
+        private long roundCost(int team, int round) {
+            if (team == rest) return 0;
+            int offset = round * size;
+            if (opponent[offset + team] == rest) return 0;
+            long sum = 0;
+            if (home[offset + team] && homeBlackouts.get(round * teamCount + team)) sum += VIOLATION_COST;
+            if (restRounds.get(round * teamCount + team)) sum += VIOLATION_COST;
+            return sum;
+        }
+        
+        // Брейк участника между турами round - 1 и round (отдых прерывает серию).
+        private long breakAt(int team, int round) {
+            if (team == rest || round <= 0 || round >= roundCount) return 0;
+            int current = round * size + team;
+            int previous = current - size;
+            if (opponent[current] == rest || opponent[previous] == rest) return 0;
+            return home[current] == home[previous] ? 1 : 0;
+        }
+        
+        // Штраф за разницу домашних и гостевых матчей больше одного.
+        private long imbalance(int team) {
+            if (team == rest) return 0;
+            int excess = Math.abs(2 * homeCount[team] - (teamCount - 1)) - 1;
+            return excess > 0 ? (long) excess * IMBALANCE_COST : 0;
+        }
+        
+        Schedule toSchedule() {
+            int matchesPerRound = teamCount / 2;
+            int[] homeTeams = new int[roundCount * matchesPerRound];
+            int[] awayTeams = new int[roundCount * matchesPerRound];
+            int match = 0;
+            for (int round = 0; round < roundCount; round++) {
+                int offset = round * size;
+                for (int team = 0; team < teamCount; team++) {
+                    int other = opponent[offset + team];
+                    if (other == rest || other < team) continue;
+                    homeTeams[match] = home[offset + team] ? team : other;
+                    awayTeams[match] = home[offset + team] ? other : team;
+                    match++;
+                }
+            }
+            return new Schedule(teamCount, homeTeams, awayTeams);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.GameResult;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.util.*;
+
+/**
+ * Постоянная проверка целостности турнира - те же проверки, что у
+ * {@link TableValidator#validateTournamentIntegrity(Tournament)}, но без полного перебора.
+ *
+ * Монитор подписывается на турнир и после каждого события проверяет только затронутое:
+ * для изменившейся пары - симметричность результата и статистику двух её команд,
+ * для переименованной команды - допустимость названия (уникальность названий турнир уже отслеживает
+ * своим индексом, монитор спрашивает её у турнира). Ожидаемая статистика
+ * команд поддерживается по разнице между прежним и новым результатом пары (монитор хранит
+ * последний увиденный результат каждой пары), поэтому событие обрабатывается за O(1).
+ * Найденные нарушения хранятся до исправления; полная проверка выполняется только
+ * при подключении и после очистки всех результатов.
+ */
+public class IntegrityMonitor implements Tournament.TournamentListener {
+    // Показатели команды в векторе ожидаемой статистики: stat * teamCount + индекс команды
+    private static final int POINTS = 0; // Очки
+    private static final int PLAYED = 1; // Сыгранные матчи
+    private static final int WINS = 2; // Победы
+    private static final int DRAWS = 3; // Ничьи
+    private static final int LOSSES = 4; // Поражения
+    private static final int GOALS_FOR = 5; // Забитые голы
+    private static final int GOALS_AGAINST = 6; // Пропущенные голы
+    private static final int STATS = 7; // Количество показателей
+    
+    private static final int NOT_PLAYED = -1; // Признак несыгранного матча в сохраненных результатах
+    
+    private final Tournament tournament; // Проверяемый турнир
+    private final int teamCount; // Количество команд
+    private final int[] seen; // Последний увиденный результат каждой пары i < j (голы i << 16 | голы j)
+    private final int[] expected; // Статистика команд, следующая из увиденных результатов
+    
+    private final BitSet invalidNames = new BitSet(); // Команды с недопустимым названием
+    private final BitSet inconsistentStats = new BitSet(); // Команды, чья статистика не сходится с матчами
+    private final Set<Long> asymmetricPairs = new TreeSet<>(); // Пары (i << 32 | j) с несимметричным результатом
+    
+    private IntegrityMonitor(Tournament tournament) {
+        this.tournament = tournament;
+        this.teamCount = tournament.getTeamCount();
+        this.seen = new int[teamCount * (teamCount - 1) / 2];
+        this.expected = new int[STATS * teamCount];
+    }
+    
+    // Проверяет турнир целиком и подписывается на его изменения.
+    public static IntegrityMonitor attach(Tournament tournament) {
+        IntegrityMonitor monitor = new IntegrityMonitor(tournament);
+        monitor.checkAll();
+        tournament.addTournamentListener(monitor);
+        return monitor;
+    }
+    
+    public void detach() {
+        tournament.removeTournamentListener(this);
+    }
+    
+    public boolean isValid() {
+        return getViolationCount() == 0;
+    }
+    
+    // Количество описаний в getViolations() (несимметричная пара описывается дважды).
+    public int getViolationCount() {
+        return invalidNames.cardinality() + tournament.getDuplicateTeamNameCount()
+                + 2 * asymmetricPairs.size() + inconsistentStats.cardinality();
+    }
+    
+    /**
+     * Описания текущих нарушений (с текущими названиями команд) в том же виде,
+     * что у {@link TableValidator#validateTournamentIntegrity(Tournament)}.
+     */
+    public List<String> getViolations() {
+        List<String> issues = new ArrayList<>();
+        for (int i = invalidNames.nextSetBit(0); i >= 0; i = invalidNames.nextSetBit(i + 1)) {
+            issues.add("Команда " + (i + 1) + ": "
+                    + TableValidator.validateTeamName(tournament.getTeamName(i)).getErrorMessage());
+        }
+        for (String name : tournament.getDuplicateTeamNames()) {
+            issues.add("Дублирующиеся названия команд: '" + tournament.getTeamName(tournament.findTeam(name)) + "'");
+        }
+        for (long pair : asymmetricPairs) {
+            int i = (int) (pair >>> 32);
+            int j = (int) pair;
+            // Полная проверка сообщает о несимметричной паре с обеих сторон
+            issues.add(TableValidator.describeAsymmetry(tournament, i, j));
+            issues.add(TableValidator.describeAsymmetry(tournament, j, i));
+        }
+        for (int i = inconsistentStats.nextSetBit(0); i >= 0; i = inconsistentStats.nextSetBit(i + 1)) {
+            issues.add(TableValidator.describeInconsistentStatistics(tournament, i));
+        }
+        return issues;
+    }
+    
+    // Реализация Tournament.TournamentListener
+    @Override
+    public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
+        // Турнир сообщает о каждой паре дважды, проверяем пару один раз
+        if (homeTeam > awayTeam) return;
+        checkPair(homeTeam, awayTeam);
+    }
+    
+    @Override
+    public void onResultsChanged(ResultChanges changes) {
+        if (changes.isAllCleared()) {
+            checkAll();
+            return;
+        }
+        for (int k = 0; k < changes.size(); k++) {
+            int homeTeam = changes.getHomeTeam(k);
+            int awayTeam = changes.getAwayTeam(k);
+            checkPair(Math.min(homeTeam, awayTeam), Math.max(homeTeam, awayTeam));
+        }
+    }
+    
+    @Override
+    public void onTeamNameChanged(int teamIndex, String newName) {
+        invalidNames.set(teamIndex, !TableValidator.validateTeamName(tournament.getTeamName(teamIndex)).isValid());
+    }
+    
+    @Override
+    public void onTableResorted(List<Team> sortedTeams) {
+        // Порядок мест не влияет на целостность
+    }
+    
+    // Проверка всего турнира: заново снимает результаты, статистику и допустимость названий.
+    private void checkAll() {
+        Arrays.fill(expected, 0);
+        asymmetricPairs.clear();
+        int pair = 0;
+        for (int i = 0; i < teamCount; i++) {
+            for (int j = i + 1; j < teamCount; j++) {
+                seen[pair] = NOT_PLAYED;
+                record(i, j, pair);
+                checkSymmetry(i, j);
+                pair++;
+            }
+        }
+        
+        inconsistentStats.clear();
+        for (int i = 0; i < teamCount; i++) {
+            checkStatistics(i);
+        }
+        
+        invalidNames.clear();
+        for (int i = 0; i < teamCount; i++) {
+            invalidNames.set(i, !TableValidator.validateTeamName(tournament.getTeamName(i)).isValid());
+        }
+    }
+    
+    // Пара изменилась: переносит её результат в ожидаемую статистику и проверяет пару и обе команды.
+    private void checkPair(int i, int j) {
+        record(i, j, pairIndex(i, j));
+        checkSymmetry(i, j);
+        checkStatistics(i);
+        checkStatistics(j);
+    }
+    
+    private void checkSymmetry(int i, int j) {
+        long key = (long) i << 32 | j;
+        if (TableValidator.describeAsymmetry(tournament, i, j) == null) {
+            asymmetricPairs.remove(key);
+        } else {
+            asymmetricPairs.add(key);
+        }
+    }
+    
+    private void checkStatistics(int teamIndex) {
+        Team team = tournament.getTeam(teamIndex);
+        boolean consistent = team.getTotalPoints() == expected[POINTS * teamCount + teamIndex]
+                && team.getMatchesPlayed() == expected[PLAYED * teamCount + teamIndex]
+                && team.getWins() == expected[WINS * teamCount + teamIndex]
+                && team.getDraws() == expected[DRAWS * teamCount + teamIndex]
+                && team.getLosses() == expected[LOSSES * teamCount + teamIndex]
+                && team.getGoalsFor() == expected[GOALS_FOR * teamCount + teamIndex]
+                && team.getGoalsAgainst() == expected[GOALS_AGAINST * teamCount + teamIndex];
+        inconsistentStats.set(teamIndex, !consistent);
+    }
+    
+    // Заменяет в ожидаемой статистике прежний увиденный результат пары текущим.
+    private void record(int i, int j, int pair) {
+        GameResult result = tournament.getMatchResult(i, j);
+        int current = result.isPlayed() ? result.getHomeScore() << 16 | result.getAwayScore() : NOT_PLAYED;
+        if (seen[pair] == current) return;
+        
+        addResult(i, j, seen[pair], -1);
+        addResult(i, j, current, 1);
+        seen[pair] = current;
+    }
+    
+    private void addResult(int i, int j, int packed, int sign) {
+        if (packed == NOT_PLAYED) return;
+        int goalsI = packed >>> 16;
+        int goalsJ = packed & 0xFFFF;
+        
+        expected[PLAYED * teamCount + i] += sign;
+        expected[PLAYED * teamCount + j] += sign;
+        expected[GOALS_FOR * teamCount + i] += sign * goalsI;
+        expected[GOALS_AGAINST * teamCount + i] += sign * goalsJ;
+        expected[GOALS_FOR * teamCount + j] += sign * goalsJ;
+        expected[GOALS_AGAINST * teamCount + j] += sign * goalsI;
+        
+        if (goalsI > goalsJ) {
+            win(i, j, sign);
+        } else if (goalsI < goalsJ) {
+            win(j, i, sign);
+        } else {
+            expected[DRAWS * teamCount + i] += sign;
+            expected[DRAWS * teamCount + j] += sign;
+            expected[POINTS * teamCount + i] += sign;
+            expected[POINTS * teamCount + j] += sign;
+        }
+    }
+    
+    private void win(int winner, int loser, int sign) {
+        expected[WINS * teamCount + winner] += sign;
+        expected[POINTS * teamCount + winner] += sign * 3;
+        expected[LOSSES * teamCount + loser] += sign;
+    }
+    
+    // Номер пары i < j в треугольной нумерации.
+    private int pairIndex(int i, int j) {
+        return i * (2 * teamCount - i - 1) / 2 + (j - i - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.ResultBatch;
+import pw.ns2030.model.Tournament;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Потоковый импорт результатов матчей из текстового файла.
+ *
+ * Каждая строка - "хозяева;гости;счёт": команда задается номером (с 1) или названием
+ * (без учёта регистра), счёт - в формате "X:Y", пустой счёт очищает результат.
+ * Пустые строки и строки, начинающиеся с '#', пропускаются.
+ *
+ * Файл читается построчно и не загружается целиком: разобранные строки собираются
+ * в {@link ResultBatch} по {@link #CHUNK_SIZE} и передаются получателю, который применяет их
+ * через {@link Tournament#applyBatch(ResultBatch)}. Строки проверяются разбором по символам
+ * (те же правила, что у {@link TableValidator#validateScoreString(String)}), без регулярных
+ * выражений и split на каждую строку. Ошибочные строки пропускаются и попадают в отчет.
+ *
+ * Импортер можно выполнять в фоновом потоке: названия команд копируются при создании,
+ * а сам турнир изменяет только получатель порций.
+ */
+public class ResultImporter {
+    public static final int CHUNK_SIZE = 65_536; // Строк в одной порции
+    public static final int MAX_REPORTED_ERRORS = 100; // Сколько ошибочных строк описывается в отчете
+    private static final char SEPARATOR = ';'; // Разделитель полей
+    private static final char COMMENT = '#'; // Начало строки-комментария
+    
+    private final int teamCount; // Количество команд турнира
+    private final Map<String, Integer> teamsByName; // Индексы команд по нормализованному названию
+    
+    // Получатель разобранных порций. Вызывается в потоке импорта.
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        /**
+         * @param batch   очередная порция результатов (не пустая)
+         * @param percent доля прочитанного файла, 0-100
+         */
+        void accept(ResultBatch batch, int percent);
+    }
+    
+    // Отчет об импорте.
+    public static class ImportReport {
+        private final int linesRead; // Прочитано строк (включая пустые и комментарии)
+        private final int imported; // Принято результатов
+        private final int rejected; // Отклонено строк
+        private final List<String> errors; // Описания первых MAX_REPORTED_ERRORS отклоненных строк
+        
+        ImportReport(int linesRead, int imported, int rejected, List<String> errors) {
+            this.linesRead = linesRead;
+            this.imported = imported;
+            this.rejected = rejected;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+        
+        public int getLinesRead() { return linesRead; }
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public List<String> getErrors() { return errors; }
+        
+        @Override
+        public String toString() {
+            return String.format("Прочитано строк: %d, принято результатов: %d, отклонено: %d",
+                    linesRead, imported, rejected);
+        }
+    }
+    
+    // Запоминает состав турнира. Вызывается в потоке, который владеет турниром.
+    public ResultImporter(Tournament tournament) {
+        this.teamCount = tournament.getTeamCount();
+        this.teamsByName = new HashMap<>(teamCount * 2);
+        for (int i = 0; i < teamCount; i++) {
+            teamsByName.putIfAbsent(Tournament.normalizeTeamName(tournament.getTeamName(i)), i);
+        }
+    }
+    
+    // Импортирует файл в кодировке UTF-8.
+    public ImportReport importFile(Path file, ChunkConsumer consumer) throws IOException {
+        long size = Math.max(Files.size(file), 1);
+        try (CountingInputStream counter = new CountingInputStream(Files.newInputStream(file));
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(counter, StandardCharsets.UTF_8), 1 << 16)) {
+            return importFrom(reader, consumer, () -> (int) (counter.count * 100 / size));
+        }
+    }
+    
+    // Импортирует строки из произвольного источника (без оценки прогресса).
+    public ImportReport importFrom(Reader source, ChunkConsumer consumer) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source, 1 << 16);
+        return importFrom(reader, consumer, () -> 0);
+    }
+    
+    private ImportReport importFrom(BufferedReader reader, ChunkConsumer consumer, Progress progress) throws IOException {
+        LineParser parser = new LineParser();
+        List<String> errors = new ArrayList<>();
+        ResultBatch batch = new ResultBatch(CHUNK_SIZE);
+        int lineNumber = 0;
+        int imported = 0;
+        int rejected = 0;
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1); // Метка порядка байтов, которую добавляют редакторы Windows
+            }
+            String error = parser.parse(line);
+            if (error == LineParser.SKIP) continue;
+            
+            if (error != null) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Строка " + lineNumber + ": " + error);
+                }
+                continue;
+            }
+            
+            if (parser.homeScore < 0) {
+                batch.clearMatchResult(parser.homeTeam, parser.awayTeam);
+            } else {
+                batch.setMatchResult(parser.homeTeam, parser.awayTeam, parser.homeScore, parser.awayScore);
+            }
+            imported++;
+            
+            if (batch.size() == CHUNK_SIZE) {
+                consumer.accept(batch, Math.min(progress.percent(), 99));
+                batch = new ResultBatch(CHUNK_SIZE);
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            consumer.accept(batch, 100);
+        }
+        return new ImportReport(lineNumber, imported, rejected, errors);
+    }
+    
+    /**
+     * Разбор одной строки. Результат кладется в поля, чтобы не создавать объект на строку.
+     * parse возвращает null для принятой строки, SKIP для пропускаемой или текст ошибки.
+     */
+    private final class LineParser {
+        static final String SKIP = "skip"; // Пустая строка или комментарий
+        
+        int homeTeam; // Индекс команды хозяев
+        int awayTeam; // Индекс команды гостей
+        int homeScore; // Голы хозяев (-1 - очистка)
+        int awayScore; // Голы гостей
+        
+        String parse(String line) {
+            int start = skipSpaces(line, 0, line.length());
+            if (start == line.length() || line.charAt(start) == COMMENT) return SKIP;
+            
+            int first = line.indexOf(SEPARATOR, start);
+            int second = first < 0 ? -1 : line.indexOf(SEPARATOR, first + 1);
+            if (second < 0 || line.indexOf(SEPARATOR, second + 1) >= 0) {
+                return "ожидается формат 'хозяева;гости;счёт'";
+            }
+            
+            homeTeam = team(line, start, first);
+            if (homeTeam < 0) return "неизвестная команда '" + line.substring(start, first).trim() + "'";
+            awayTeam = team(line, first + 1, second);
+            if (awayTeam < 0) return "неизвестная команда '" + line.substring(first + 1, second).trim() + "'";
+            if (homeTeam == awayTeam) return "команда не может играть сама с собой";
+            
+            return score(line, second + 1, line.length());
+        }
+        
+        // Номер команды (с 1) или название. Возвращает индекс или -1.
+        private int team(String line, int from, int to) {
+            from = skipSpaces(line, from, to);
+            to = trimEnd(line, from, to);
+            if (from == to) return -1;
+            
+            int number = parseNumber(line, from, to, teamCount);
+            if (number >= 1) return number - 1;
+            
+            Integer index = teamsByName.get(Tournament.normalizeTeamName(line.substring(from, to)));
+            return index != null ? index : -1;
+        }
+        
+        // Счёт "X:Y" или пустое поле (очистка). Возвращает null или текст ошибки.
+        private String score(String line, int from, int to) {
+            from = skipSpaces(line, from, to);
+            to = trimEnd(line, from, to);
+            if (from == to) {
+                homeScore = -1;
+                awayScore = -1;
+                return null;
+            }
+            
+            int colon = line.indexOf(':', from);
+            if (colon < 0 || colon >= to) {
+                return "результат должен быть в формате 'X:Y'";
+            }
+            homeScore = parseNumber(line, from, colon, TableValidator.MAX_SCORE);
+            awayScore = parseNumber(line, colon + 1, to, TableValidator.MAX_SCORE);
+            if (homeScore < 0 || awayScore < 0) {
+                return "счёт должен состоять из чисел от 0 до " + TableValidator.MAX_SCORE;
+            }
+            return null;
+        }
+    }
+    
+    // Разбирает неотрицательное число не больше max. Возвращает -1, если это не такое число.
+    private static int parseNumber(String line, int from, int to, int max) {
+        if (from == to || to - from > 9) return -1;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value <= max ? value : -1;
+    }
+    
+    private static int skipSpaces(String line, int from, int to) {
+        while (from < to && Character.isWhitespace(line.charAt(from))) from++;
+        return from;
+    }
+    
+    private static int trimEnd(String line, int from, int to) {
+        while (to > from && Character.isWhitespace(line.charAt(to - 1))) to--;
+        return to;
+    }
+    
+    @FunctionalInterface
+    private interface Progress {
+        int percent();
+    }
+    
+    // Считает прочитанные байты для оценки прогресса.
+    private static final class CountingInputStream extends FilterInputStream {
+        private volatile long count; // Прочитано байт
+        
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
\ No newline at end of file
@@ -47,8 +47,18 @@ public class ScoreCalculator {
         return (double) totalGoals / matchesPlayed;
     }
     
-    // Определяет место команды в турнирной таблице на основе сортировки
+    /**
+     * Определяет место команды в турнирной таблице на основе сортировки.
+     * Для таблицы турнира место уже известно команде и только проверяется, перебор нужен
+     * лишь для списков, упорядоченных иначе.
+     */
     public static int calculatePosition(Team team, List<Team> sortedTeams) {
+        int position = team.getPosition();
+        if (position >= 1 && position <= sortedTeams.size()
+                && sortedTeams.get(position - 1).getId() == team.getId()) {
+            return position;
+        }
+        
         for (int i = 0; i < sortedTeams.size(); i++) {
             if (sortedTeams.get(i).getId() == team.getId()) {
                 return i + 1;
@@ -71,17 +81,13 @@ public class ScoreCalculator {
         stats.put("remainingMatches", totalMatches - playedMatches);
         stats.put("completionPercentage", completion);
         
-        // Статистика команд
-        List<Team> teams = tournament.getTeams();
-        int totalGoals = teams.stream().mapToInt(Team::getGoalsFor).sum();
-        int totalPoints = teams.stream().mapToInt(Team::getTotalPoints).sum();
-        
-        stats.put("totalGoals", totalGoals);
-        stats.put("totalPoints", totalPoints);
-        stats.put("averageGoalsPerMatch", playedMatches > 0 ? (double) totalGoals / playedMatches : 0.0);
+        // Сводные счётчики турнира поддерживаются при каждом изменении результата
+        stats.put("totalGoals", tournament.getTotalGoals());
+        stats.put("totalPoints", tournament.getTotalPoints());
+        stats.put("averageGoalsPerMatch", tournament.getAverageGoalsPerMatch());
         
         // Лидер турнира
-        if (!teams.isEmpty()) {
+        if (tournament.getTeamCount() > 0) {
             Team leader = tournament.getLeader();
             stats.put("leader", leader.getName());
             stats.put("leaderPoints", leader.getTotalPoints());
@@ -98,7 +104,7 @@ public class ScoreCalculator {
         
         // Подсчитываем количество оставшихся матчей
         for (int i = 0; i < tournament.getTeamCount(); i++) {
-            if (i != teamIndex && !tournament.getMatchResult(teamIndex, i).isPlayed()) {
+            if (i != teamIndex && !tournament.isMatchPlayed(teamIndex, i)) {
                 remainingMatches++;
             }
         }
@@ -0,0 +1,121 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.util.SplittableRandom;
+
+/**
+ * Модель счёта несыгранного матча для {@link SeasonSimulator}.
+ * Счёт возвращается одним числом (см. {@link #score(int, int)}), чтобы при моделировании
+ * миллионов матчей не создавать объекты.
+ */
+@FunctionalInterface
+public interface ScoreModel {
+    int MAX_GOALS = 0xFFFF; // Наибольшее число голов одной команды в упакованном счёте
+    
+    /**
+     * Разыгрывает матч homeTeam против awayTeam.
+     * Реализация вызывается из нескольких потоков одновременно и не должна хранить изменяемое состояние,
+     * случайность берется только из переданного генератора.
+     *
+     * @return упакованный счёт, см. {@link #score(int, int)}
+     */
+    int play(SplittableRandom random, int homeTeam, int awayTeam);
+    
+    // Упаковывает счёт матча в одно число.
+    static int score(int homeGoals, int awayGoals) {
+        return (Math.min(homeGoals, MAX_GOALS) << 16) | Math.min(awayGoals, MAX_GOALS);
+    }
+    
+    static int homeGoals(int score) {
+        return score >>> 16;
+    }
+    
+    static int awayGoals(int score) {
+        return score & MAX_GOALS;
+    }
+    
+    /**
+     * Голы каждой команды распределены по Пуассону с заданными средними,
+     * сила команд не учитывается.
+     */
+    static ScoreModel poisson(double homeMean, double awayMean) {
+        if (homeMean <= 0 || awayMean <= 0) {
+            throw new IllegalArgumentException("Среднее число голов должно быть положительным");
+        }
+        double homeLimit = Math.exp(-homeMean);
+        double awayLimit = Math.exp(-awayMean);
+        return (random, homeTeam, awayTeam) ->
+                score(poissonSample(random, homeLimit), poissonSample(random, awayLimit));
+    }
+    
+    /**
+     * Голы по Пуассону с учётом формы команд: среднее для хозяев - это их средние забитые
+     * голы, умноженные на средние пропущенные соперника и деленные на среднюю результативность турнира.
+     * Статистика снимается с турнира в момент вызова. Команды без матчей считаются средними.
+     */
+    static ScoreModel teamForm(Tournament tournament, double defaultMean) {
+        if (defaultMean <= 0) {
+            throw new IllegalArgumentException("Среднее число голов должно быть положительным");
+        }
+        
+        int teamCount = tournament.getTeamCount();
+        long goals = 0;
+        long matches = 0;
+        for (Team team : tournament.getTeams()) {
+            goals += team.getGoalsFor();
+            matches += team.getMatchesPlayed();
+        }
+        double leagueMean = matches > 0 && goals > 0 ? (double) goals / matches : defaultMean;
+        
+        // Сила атаки и обороны: голы за матч, команды без голов не обнуляют среднее
+        double[] attack = new double[teamCount];
+        double[] defence = new double[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            Team team = tournament.getTeam(i);
+            int played = team.getMatchesPlayed();
+            attack[i] = played > 0 ? Math.max(team.getGoalsFor(), 0.5) / played : leagueMean;
+            defence[i] = played > 0 ? Math.max(team.getGoalsAgainst(), 0.5) / played : leagueMean;
+        }
+        
+        return (random, homeTeam, awayTeam) -> {
+            double homeMean = attack[homeTeam] * defence[awayTeam] / leagueMean;
+            double awayMean = attack[awayTeam] * defence[homeTeam] / leagueMean;
+            return score(poissonSample(random, Math.exp(-homeMean)), poissonSample(random, Math.exp(-awayMean)));
+        };
+    }
+    
+    /**
+     * Голы по Пуассону с учётом рейтинга Эло: средние хозяев и гостей расходятся от общего среднего
+     * тем сильнее, чем больше разница рейтингов (разница в 400 очков - в 10 раз).
+     * Рейтинги копируются в момент вызова.
+     */
+    static ScoreModel elo(EloRatings ratings, double mean) {
+        if (mean <= 0) {
+            throw new IllegalArgumentException("Среднее число голов должно быть положительным");
+        }
+        
+        double[] strength = ratings.getRatings();
+        return (random, homeTeam, awayTeam) -> {
+            double advantage = Math.pow(10, (strength[homeTeam] - strength[awayTeam]) / 800);
+            return score(poissonSample(random, Math.exp(-mean * advantage)),
+                    poissonSample(random, Math.exp(-mean / advantage)));
+        };
+    }
+    
+    /**
+     * Случайная величина Пуассона методом Кнута.
+     *
+     * @param limit exp(-среднее)
+     */
+    static int poissonSample(SplittableRandom random, double limit) {
+        int goals = 0;
+        double product = random.nextDouble();
+        while (product > limit && goals < MAX_GOALS) {
+            goals++;
+            product *= random.nextDouble();
+        }
+        return goals;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,302 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Моделирование оставшейся части турнира методом Монте-Карло.
+ * Все несыгранные матчи разыгрываются заданной моделью счёта много раз, для каждой команды
+ * подсчитывается, сколько раз она заняла каждое место.
+ *
+ * Прогоны делятся между потоками ForkJoinPool. У каждого потока свои массивы очков, голов и побед
+ * и свой счётчик мест, поэтому внутри прогона ничего не создается и потоки не синхронизируются.
+ * Генераторы задач получаются через SplittableRandom.split(), поэтому при одинаковом seed
+ * результат не зависит от числа потоков и порядка выполнения задач.
+ *
+ * Места в прогонах определяются по очкам, разности, забитым, победам и названию, без учёта
+ * личных встреч: при включенном {@link Tournament#setHeadToHeadTiebreak(boolean)} команды
+ * с равными очками в прогнозе могут стоять иначе, чем в таблице.
+ */
+public class SeasonSimulator {
+    public static final int DEFAULT_ITERATIONS = 100_000; // Количество прогонов по умолчанию
+    private static final int MIN_CHUNK = 64; // Наименьшее число прогонов в одной задаче
+    private static final int MAX_TASKS = 256; // Наибольшее число задач (не зависит от числа потоков)
+    
+    private final ScoreModel scoreModel; // Модель счёта несыгранных матчей
+    private final ForkJoinPool pool; // Пул потоков для прогонов
+    private final long seed; // Начальное значение генератора
+    
+    public SeasonSimulator(ScoreModel scoreModel) {
+        this(scoreModel, ForkJoinPool.commonPool(), System.nanoTime());
+    }
+    
+    public SeasonSimulator(ScoreModel scoreModel, ForkJoinPool pool, long seed) {
+        if (scoreModel == null || pool == null) {
+            throw new IllegalArgumentException("Модель счёта и пул потоков обязательны");
+        }
+        this.scoreModel = scoreModel;
+        this.pool = pool;
+        this.seed = seed;
+    }
+    
+    /**
+     * Снимает состояние турнира: текущую статистику команд и список несыгранных матчей.
+     * Вызывается в потоке, который владеет турниром (в GUI - в EDT), дальше снимок турнир не читает.
+     */
+    public static Snapshot snapshot(Tournament tournament) {
+        return new Snapshot(tournament);
+    }
+    
+    // Снимает состояние турнира и сразу моделирует его.
+    public SimulationResult simulate(Tournament tournament, int iterations) {
+        return simulate(snapshot(tournament), iterations);
+    }
+    
+    /**
+     * Моделирует турнир iterations раз.
+     * Если все матчи сыграны, итог известен заранее и выполняется один прогон.
+     */
+    public SimulationResult simulate(Snapshot snapshot, int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Количество прогонов должно быть положительным");
+        }
+        if (snapshot.fixtureHome.length == 0) {
+            iterations = 1;
+        }
+        
+        Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Worker> threadWorker = ThreadLocal.withInitial(() -> {
+            Worker worker = new Worker(snapshot, scoreModel);
+            workers.add(worker);
+            return worker;
+        });
+        
+        int chunk = Math.max(MIN_CHUNK, iterations / MAX_TASKS);
+        pool.invoke(new SimulationTask(threadWorker, iterations, chunk, new SplittableRandom(seed)));
+        
+        // Складываем счётчики мест всех потоков
+        int[] positionCounts = new int[snapshot.teamCount * snapshot.teamCount];
+        for (Worker worker : workers) {
+            for (int i = 0; i < positionCounts.length; i++) {
+                positionCounts[i] += worker.positionCounts[i];
+            }
+        }
+        
+        return new SimulationResult(snapshot.teamNames, positionCounts, iterations, snapshot.fixtureHome.length);
+    }
+    
+    /**
+     * Неизменяемый снимок турнира для моделирования.
+     * Порядок при равенстве показателей повторяет турнирную таблицу: название без учёта регистра, затем индекс.
+     */
+    public static final class Snapshot {
+        private final int teamCount; // Количество команд
+        private final String[] teamNames; // Названия команд
+        private final int[] points; // Текущие очки
+        private final int[] goalDifference; // Текущая разность голов
+        private final int[] goalsFor; // Текущие забитые голы
+        private final int[] wins; // Текущие победы
+        private final int[] nameRank; // Место команды при сортировке по названию
+        private final int[] fixtureHome; // Несыгранные матчи: первая команда пары
+        private final int[] fixtureAway; // Несыгранные матчи: вторая команда пары
+        
+        private Snapshot(Tournament tournament) {
+            teamCount = tournament.getTeamCount();
+            teamNames = new String[teamCount];
+            points = new int[teamCount];
+            goalDifference = new int[teamCount];
+            goalsFor = new int[teamCount];
+            wins = new int[teamCount];
+            
+            for (int i = 0; i < teamCount; i++) {
+                Team team = tournament.getTeam(i);
+                teamNames[i] = team.getName();
+                points[i] = team.getTotalPoints();
+                goalDifference[i] = team.getGoalDifference();
+                goalsFor[i] = team.getGoalsFor();
+                wins[i] = team.getWins();
+            }
+            
+            Integer[] byName = new Integer[teamCount];
+            for (int i = 0; i < teamCount; i++) {
+                byName[i] = i;
+            }
+            Arrays.sort(byName, Comparator.<Integer, String>comparing(i -> teamNames[i], String.CASE_INSENSITIVE_ORDER)
+                    .thenComparingInt(i -> i));
+            nameRank = new int[teamCount];
+            for (int rank = 0; rank < teamCount; rank++) {
+                nameRank[byName[rank]] = rank;
+            }
+            
+            int remaining = tournament.getTotalMatches() - tournament.getTotalMatchesPlayed();
+            fixtureHome = new int[remaining];
+            fixtureAway = new int[remaining];
+            int fixture = 0;
+            for (int i = 0; i < teamCount; i++) {
+                for (int j = i + 1; j < teamCount; j++) {
+                    if (!tournament.isMatchPlayed(i, j)) {
+                        fixtureHome[fixture] = i;
+                        fixtureAway[fixture] = j;
+                        fixture++;
+                    }
+                }
+            }
+        }
+        
+        public int getRemainingMatches() {
+            return fixtureHome.length;
+        }
+    }
+    
+    // Делит прогоны пополам, пока задача не станет меньше chunk.
+    private static final class SimulationTask extends RecursiveAction {
+        private final ThreadLocal<Worker> threadWorker; // Рабочие массивы текущего потока
+        private final int iterations; // Количество прогонов в задаче
+        private final int chunk; // Размер задачи, которая выполняется без деления
+        private final SplittableRandom random; // Генератор задачи
+        
+        SimulationTask(ThreadLocal<Worker> threadWorker, int iterations, int chunk, SplittableRandom random) {
+            this.threadWorker = threadWorker;
+            this.iterations = iterations;
+            this.chunk = chunk;
+            this.random = random;
+        }
+        
+        @Override
+        protected void compute() {
+            if (iterations <= chunk) {
+                threadWorker.get().run(iterations, random);
+                return;
+            }
+            
+            int half = iterations / 2;
+            SimulationTask left = new SimulationTask(threadWorker, half, chunk, random.split());
+            SimulationTask right = new SimulationTask(threadWorker, iterations - half, chunk, random);
+            invokeAll(left, right);
+        }
+    }
+    
+    // Рабочие массивы одного потока: состояние прогона и накопленные места.
+    private static final class Worker {
+        private final Snapshot snapshot; // Исходное состояние турнира
+        private final ScoreModel scoreModel; // Модель счёта
+        private final int teamCount; // Количество команд
+        private final int[] points; // Очки в текущем прогоне
+        private final int[] goalDifference; // Разность голов в текущем прогоне
+        private final int[] goalsFor; // Забитые голы в текущем прогоне
+        private final int[] wins; // Победы в текущем прогоне
+        private final int[] order; // Команды в порядке мест
+        private final int[] buffer; // Буфер сортировки слиянием
+        private final int[] positionCounts; // Сколько раз команда заняла место: [команда * n + место]
+        
+        Worker(Snapshot snapshot, ScoreModel scoreModel) {
+            this.snapshot = snapshot;
+            this.scoreModel = scoreModel;
+            this.teamCount = snapshot.teamCount;
+            this.points = new int[teamCount];
+            this.goalDifference = new int[teamCount];
+            this.goalsFor = new int[teamCount];
+            this.wins = new int[teamCount];
+            this.order = new int[teamCount];
+            this.buffer = new int[teamCount];
+            this.positionCounts = new int[teamCount * teamCount];
+        }
+        
+        void run(int iterations, SplittableRandom random) {
+            int[] fixtureHome = snapshot.fixtureHome;
+            int[] fixtureAway = snapshot.fixtureAway;
+            
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                System.arraycopy(snapshot.points, 0, points, 0, teamCount);
+                System.arraycopy(snapshot.goalDifference, 0, goalDifference, 0, teamCount);
+                System.arraycopy(snapshot.goalsFor, 0, goalsFor, 0, teamCount);
+                System.arraycopy(snapshot.wins, 0, wins, 0, teamCount);
+                
+                for (int f = 0; f < fixtureHome.length; f++) {
+                    int home = fixtureHome[f];
+                    int away = fixtureAway[f];
+                    int score = scoreModel.play(random, home, away);
+                    int homeGoals = ScoreModel.homeGoals(score);
+                    int awayGoals = ScoreModel.awayGoals(score);
+                    
+                    goalsFor[home] += homeGoals;
+                    goalsFor[away] += awayGoals;
+                    goalDifference[home] += homeGoals - awayGoals;
+                    goalDifference[away] += awayGoals - homeGoals;
+                    
+                    if (homeGoals > awayGoals) {
+                        points[home] += ScoreCalculator.POINTS_FOR_WIN;
+                        wins[home]++;
+                    } else if (homeGoals < awayGoals) {
+                        points[away] += ScoreCalculator.POINTS_FOR_WIN;
+                        wins[away]++;
+                    } else {
+                        points[home] += ScoreCalculator.POINTS_FOR_DRAW;
+                        points[away] += ScoreCalculator.POINTS_FOR_DRAW;
+                    }
+                }
+                
+                for (int i = 0; i < teamCount; i++) {
+                    order[i] = i;
+                }
+                sort(0, teamCount);
+                
+                for (int position = 0; position < teamCount; position++) {
+                    positionCounts[order[position] * teamCount + position]++;
+                }
+            }
+        }
+        
+        // Сортировка слиянием order[from, to) без выделения памяти.
+        private void sort(int from, int to) {
+            if (to - from <= 16) {
+                insertionSort(from, to);
+                return;
+            }
+            
+            int middle = (from + to) >>> 1;
+            sort(from, middle);
+            sort(middle, to);
+            if (compare(order[middle - 1], order[middle]) <= 0) {
+                return;
+            }
+            
+            System.arraycopy(order, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && compare(buffer[left], buffer[right]) <= 0)) {
+                    order[i] = buffer[left++];
+                } else {
+                    order[i] = buffer[right++];
+                }
+            }
+        }
+        
+        private void insertionSort(int from, int to) {
+            for (int i = from + 1; i < to; i++) {
+                int team = order[i];
+                int j = i - 1;
+                while (j >= from && compare(order[j], team) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = team;
+            }
+        }
+        
+        // Очки, разность, забитые, победы, название - без учёта личных встреч, даже если они включены в турнире.
+        private int compare(int a, int b) {
+            if (points[a] != points[b]) return Integer.compare(points[b], points[a]);
+            if (goalDifference[a] != goalDifference[b]) return Integer.compare(goalDifference[b], goalDifference[a]);
+            if (goalsFor[a] != goalsFor[b]) return Integer.compare(goalsFor[b], goalsFor[a]);
+            if (wins[a] != wins[b]) return Integer.compare(wins[b], wins[a]);
+            return Integer.compare(snapshot.nameRank[a], snapshot.nameRank[b]);
+        }
+    }
+}
\ No newline at end of file
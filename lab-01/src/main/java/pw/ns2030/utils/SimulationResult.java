@@ -0,0 +1,124 @@
+package pw.ns2030.utils;
+
+import java.util.Arrays;
+
+/**
+ * Итог моделирования турнира: сколько раз каждая команда заняла каждое место.
+ * Команды и места нумеруются так же, как в турнире: индекс команды с 0, место с 1.
+ */
+public class SimulationResult {
+    private final String[] teamNames; // Названия команд на момент моделирования
+    private final int teamCount; // Количество команд
+    private final int[] positionCounts; // Сколько раз команда заняла место: [команда * n + (место - 1)]
+    private final int iterations; // Количество прогонов
+    private final int remainingMatches; // Количество разыгранных несыгранных матчей
+    
+    SimulationResult(String[] teamNames, int[] positionCounts, int iterations, int remainingMatches) {
+        this.teamNames = teamNames;
+        this.teamCount = teamNames.length;
+        this.positionCounts = positionCounts;
+        this.iterations = iterations;
+        this.remainingMatches = remainingMatches;
+    }
+    
+    public int getTeamCount() {
+        return teamCount;
+    }
+    
+    public String getTeamName(int teamIndex) {
+        return teamNames[teamIndex];
+    }
+    
+    public int getIterations() {
+        return iterations;
+    }
+    
+    public int getRemainingMatches() {
+        return remainingMatches;
+    }
+    
+    // Вероятность того, что команда закончит турнир на указанном месте.
+    public double getPositionProbability(int teamIndex, int position) {
+        checkIndices(teamIndex, position);
+        return (double) positionCounts[teamIndex * teamCount + position - 1] / iterations;
+    }
+    
+    public double getChampionProbability(int teamIndex) {
+        return getPositionProbability(teamIndex, 1);
+    }
+    
+    // Вероятность того, что команда закончит турнир не ниже указанного места.
+    public double getTopProbability(int teamIndex, int position) {
+        checkIndices(teamIndex, position);
+        long count = 0;
+        for (int p = 0; p < position; p++) {
+            count += positionCounts[teamIndex * teamCount + p];
+        }
+        return (double) count / iterations;
+    }
+    
+    // Среднее место команды по всем прогонам.
+    public double getExpectedPosition(int teamIndex) {
+        checkIndices(teamIndex, 1);
+        double sum = 0;
+        for (int p = 0; p < teamCount; p++) {
+            sum += (double) (p + 1) * positionCounts[teamIndex * teamCount + p];
+        }
+        return sum / iterations;
+    }
+    
+    // Лучшее место, которое команда заняла хотя бы в одном прогоне.
+    public int getBestObservedPosition(int teamIndex) {
+        checkIndices(teamIndex, 1);
+        for (int p = 0; p < teamCount; p++) {
+            if (positionCounts[teamIndex * teamCount + p] > 0) {
+                return p + 1;
+            }
+        }
+        return teamCount;
+    }
+    
+    private void checkIndices(int teamIndex, int position) {
+        if (teamIndex < 0 || teamIndex >= teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Индекс команды должен быть от 0 до %d", teamCount - 1));
+        }
+        if (position < 1 || position > teamCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Место должно быть от 1 до %d", teamCount));
+        }
+    }
+    
+    /**
+     * Формирует отчет по командам, упорядоченным по среднему месту.
+     *
+     * @param limit наибольшее количество команд в отчете
+     */
+    public String formatReport(int limit) {
+        double[] expected = new double[teamCount];
+        Integer[] teams = new Integer[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            expected[i] = getExpectedPosition(i);
+            teams[i] = i;
+        }
+        Arrays.sort(teams, (a, b) -> Double.compare(expected[a], expected[b]));
+        
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Прогонов: %d, несыгранных матчей: %d\n\n", iterations, remainingMatches));
+        report.append(String.format("%-20s %8s %8s %8s\n", "КОМАНДА", "1 место", "Топ-3", "Ср.место"));
+        for (int k = 0; k < Math.min(limit, teamCount); k++) {
+            int team = teams[k];
+            report.append(String.format("%-20s %7.1f%% %7.1f%% %8.2f\n",
+                    teamNames[team],
+                    getChampionProbability(team) * 100,
+                    getTopProbability(team, Math.min(3, teamCount)) * 100,
+                    getExpectedPosition(team)));
+        }
+        return report.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return formatReport(teamCount);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,384 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Экспорт турнирной таблицы и полной матрицы результатов в файл CSV, JSON или HTML.
+ *
+ * Документ не собирается в памяти: строки таблицы и ячейки матрицы сразу пишутся
+ * в буферизованный поток, числа выводятся поразрядно без String.format и без строки на каждое
+ * число. Для 1000 команд матрица - миллион ячеек, поэтому экспорт занимает доли секунды.
+ *
+ * Состояние турнира копируется при создании экспортера (в потоке, который владеет турниром),
+ * сама запись файла может выполняться в фоновом потоке.
+ */
+public class TableExporter {
+    private static final int BUFFER_SIZE = 1 << 16; // Размер буфера записи
+    private static final char CSV_SEPARATOR = ';'; // Разделитель CSV (как у импорта результатов)
+    private static final int NOT_PLAYED = -1; // Признак несыгранного матча в матрице
+    
+    // Показатели строки таблицы (в порядке столбцов)
+    private static final String[] STAT_HEADERS = {"И", "В", "Н", "П", "ЗМ", "ПМ", "РМ", "О"};
+    private static final String[] STAT_KEYS = {
+            "played", "wins", "draws", "losses", "goalsFor", "goalsAgainst", "goalDifference", "points"};
+    private static final int STAT_COUNT = STAT_HEADERS.length; // Показателей на команду
+    
+    // Формат файла экспорта.
+    public enum Format {
+        CSV("csv", "Таблица CSV (*.csv)"),
+        JSON("json", "Данные JSON (*.json)"),
+        HTML("html", "Страница HTML (*.html)");
+        
+        private final String extension; // Расширение файла без точки
+        private final String description; // Описание для диалога выбора файла
+        
+        Format(String extension, String description) {
+            this.extension = extension;
+            this.description = description;
+        }
+        
+        public String getExtension() { return extension; }
+        public String getDescription() { return description; }
+        
+        // Формат по расширению файла или null, если расширение не подходит ни одному формату.
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            for (Format format : values()) {
+                if (name.endsWith("." + format.extension)) return format;
+            }
+            return null;
+        }
+    }
+    
+    private final int teamCount; // Количество команд
+    private final String[] names; // Названия команд по индексу
+    private final int[] order; // Индексы команд в порядке мест
+    private final int[] stats; // Показатели команд по местам: STAT_COUNT чисел на команду
+    private final int[] results; // Результаты пар i < j (голы i << 16 | голы j, NOT_PLAYED - не сыгран)
+    private final int playedMatches; // Сыгранные матчи турнира
+    private final int totalMatches; // Всего матчей в турнире
+    private final long totalGoals; // Сумма голов турнира
+    
+    // Копирует таблицу и результаты турнира. Вызывается в потоке, который владеет турниром.
+    public TableExporter(Tournament tournament) {
+        this.teamCount = tournament.getTeamCount();
+        this.names = new String[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            names[i] = tournament.getTeamName(i);
+        }
+        
+        List<Team> table = tournament.getSortedTable();
+        this.order = new int[teamCount];
+        this.stats = new int[teamCount * STAT_COUNT];
+        for (int position = 0; position < teamCount; position++) {
+            Team team = table.get(position);
+            order[position] = team.getId() - 1;
+            int offset = position * STAT_COUNT;
+            stats[offset] = team.getMatchesPlayed();
+            stats[offset + 1] = team.getWins();
+            stats[offset + 2] = team.getDraws();
+            stats[offset + 3] = team.getLosses();
+            stats[offset + 4] = team.getGoalsFor();
+            stats[offset + 5] = team.getGoalsAgainst();
+            stats[offset + 6] = team.getGoalDifference();
+            stats[offset + 7] = team.getTotalPoints();
+        }
+        
+        // Одно копирование массива вместо объекта GameResult на каждую пару
+        this.results = tournament.getPairResults();
+        
+        this.playedMatches = tournament.getTotalMatchesPlayed();
+        this.totalMatches = tournament.getTotalMatches();
+        this.totalGoals = tournament.getTotalGoals();
+    }
+    
+    // Записывает файл в кодировке UTF-8 (файл перезаписывается).
+    public void export(Path file, Format format) throws IOException {
+        // Буферизацию выполняет сам экспортер
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8)) {
+            export(writer, format);
+        }
+    }
+    
+    // Записывает документ в поток. Поток не закрывается.
+    public void export(Writer writer, Format format) throws IOException {
+        Output out = new Output(writer);
+        switch (format) {
+            case CSV:
+                writeCsv(out);
+                break;
+            case JSON:
+                writeJson(out);
+                break;
+            case HTML:
+                writeHtml(out);
+                break;
+        }
+        out.flush();
+    }
+    
+    /**
+     * CSV: таблица (место, номер, команда, показатели), пустая строка и матрица результатов,
+     * в которой строка - хозяева, столбец - гости, несыгранный матч - пустая ячейка.
+     * В начале файла метка порядка байтов, чтобы Excel распознал UTF-8.
+     */
+    private void writeCsv(Output out) throws IOException {
+        out.text('\uFEFF').text("М").text(CSV_SEPARATOR).text("№").text(CSV_SEPARATOR).text("Команда");
+        for (String header : STAT_HEADERS) {
+            out.text(CSV_SEPARATOR).text(header);
+        }
+        out.text('\n');
+        
+        for (int position = 0; position < teamCount; position++) {
+            int team = order[position];
+            out.number(position + 1).text(CSV_SEPARATOR).number(team + 1).text(CSV_SEPARATOR).csv(names[team]);
+            for (int k = 0; k < STAT_COUNT; k++) {
+                out.text(CSV_SEPARATOR).number(stats[position * STAT_COUNT + k]);
+            }
+            out.text('\n');
+        }
+        
+        out.text('\n').text("Хозяева \\ Гости");
+        for (int j = 0; j < teamCount; j++) {
+            out.text(CSV_SEPARATOR).csv(names[j]);
+        }
+        out.text('\n');
+        
+        for (int i = 0; i < teamCount; i++) {
+            out.csv(names[i]);
+            for (int j = 0; j < teamCount; j++) {
+                out.text(CSV_SEPARATOR);
+                int result = result(i, j);
+                if (result != NOT_PLAYED) {
+                    out.number(result >>> 16).text(':').number(result & 0xFFFF);
+                }
+            }
+            out.text('\n');
+        }
+    }
+    
+    /**
+     * JSON: сводка турнира, таблица по местам и матрица результатов "results",
+     * где results[i][j] - [голы хозяев, голы гостей] матча команды i + 1 дома с командой j + 1
+     * или null.
+     */
+    private void writeJson(Output out) throws IOException {
+        out.text("{\n  \"teams\": ").number(teamCount)
+                .text(",\n  \"playedMatches\": ").number(playedMatches)
+                .text(",\n  \"totalMatches\": ").number(totalMatches)
+                .text(",\n  \"totalGoals\": ").number(totalGoals)
+                .text(",\n  \"standings\": [");
+        
+        for (int position = 0; position < teamCount; position++) {
+            int team = order[position];
+            out.text(position == 0 ? "\n    {" : ",\n    {")
+                    .text("\"position\": ").number(position + 1)
+                    .text(", \"team\": ").number(team + 1)
+                    .text(", \"name\": ").json(names[team]);
+            for (int k = 0; k < STAT_COUNT; k++) {
+                out.text(", \"").text(STAT_KEYS[k]).text("\": ").number(stats[position * STAT_COUNT + k]);
+            }
+            out.text('}');
+        }
+        
+        out.text("\n  ],\n  \"results\": [");
+        for (int i = 0; i < teamCount; i++) {
+            out.text(i == 0 ? "\n    [" : ",\n    [");
+            for (int j = 0; j < teamCount; j++) {
+                if (j > 0) out.text(',');
+                int result = result(i, j);
+                if (result == NOT_PLAYED) {
+                    out.text("null");
+                } else {
+                    out.text('[').number(result >>> 16).text(',').number(result & 0xFFFF).text(']');
+                }
+            }
+            out.text(']');
+        }
+        out.text("\n  ]\n}\n");
+    }
+    
+    // HTML: самостоятельная страница с таблицей и матрицей результатов.
+    private void writeHtml(Output out) throws IOException {
+        out.text("<!DOCTYPE html>\n<html lang=\"ru\">\n<head>\n<meta charset=\"UTF-8\">\n")
+                .text("<title>Турнирная таблица</title>\n<style>\n")
+                .text("body { font-family: sans-serif; }\n")
+                .text("table { border-collapse: collapse; margin-bottom: 24px; }\n")
+                .text("th, td { border: 1px solid #ccc; padding: 2px 6px; text-align: center; white-space: nowrap; }\n")
+                .text("td.name { text-align: left; }\n")
+                .text("td.self { background: #ddd; }\n")
+                .text("</style>\n</head>\n<body>\n");
+        
+        out.text("<h1>Турнирная таблица</h1>\n<p>Команд: ").number(teamCount)
+                .text(", матчей сыграно: ").number(playedMatches).text(" из ").number(totalMatches)
+                .text(", голов: ").number(totalGoals).text("</p>\n");
+        
+        out.text("<table>\n<tr><th>М</th><th>№</th><th>Команда</th>");
+        for (String header : STAT_HEADERS) {
+            out.text("<th>").text(header).text("</th>");
+        }
+        out.text("</tr>\n");
+        for (int position = 0; position < teamCount; position++) {
+            int team = order[position];
+            out.text("<tr><td>").number(position + 1).text("</td><td>").number(team + 1)
+                    .text("</td><td class=\"name\">").html(names[team]).text("</td>");
+            for (int k = 0; k < STAT_COUNT; k++) {
+                out.text("<td>").number(stats[position * STAT_COUNT + k]).text("</td>");
+            }
+            out.text("</tr>\n");
+        }
+        out.text("</table>\n");
+        
+        // В заголовках матрицы номера команд, чтобы таблица 1000 x 1000 оставалась читаемой
+        out.text("<h2>Результаты матчей</h2>\n<table>\n<tr><th></th>");
+        for (int j = 0; j < teamCount; j++) {
+            out.text("<th>").number(j + 1).text("</th>");
+        }
+        out.text("</tr>\n");
+        for (int i = 0; i < teamCount; i++) {
+            out.text("<tr><th>").number(i + 1).text(". ").html(names[i]).text("</th>");
+            for (int j = 0; j < teamCount; j++) {
+                if (i == j) {
+                    out.text("<td class=\"self\"></td>");
+                    continue;
+                }
+                out.text("<td>");
+                int result = result(i, j);
+                if (result != NOT_PLAYED) {
+                    out.number(result >>> 16).text(':').number(result & 0xFFFF);
+                }
+                out.text("</td>");
+            }
+            out.text("</tr>\n");
+        }
+        out.text("</table>\n</body>\n</html>\n");
+    }
+    
+    // Результат матча хозяев i с гостями j в упакованном виде (обратный - из записи пары).
+    private int result(int i, int j) {
+        if (i == j) return NOT_PLAYED;
+        if (i < j) return results[pairIndex(i, j)];
+        int result = results[pairIndex(j, i)];
+        return result == NOT_PLAYED ? NOT_PLAYED : (result & 0xFFFF) << 16 | result >>> 16;
+    }
+    
+    // Номер пары i < j в треугольной нумерации.
+    private int pairIndex(int i, int j) {
+        return i * (2 * teamCount - i - 1) / 2 + (j - i - 1);
+    }
+    
+    /**
+     * Буферизованный вывод: текст, числа без создания строк и экранирование для каждого формата.
+     * Методы возвращают this, чтобы строку документа можно было записать одной цепочкой.
+     */
+    private static final class Output {
+        private final Writer writer; // Поток, в который сбрасывается буфер
+        private final char[] buffer = new char[BUFFER_SIZE]; // Накопленные символы
+        private final char[] digits = new char[20]; // Разряды числа в обратном порядке
+        private int length; // Заполнено символов буфера
+        
+        Output(Writer writer) {
+            this.writer = writer;
+        }
+        
+        Output text(char c) throws IOException {
+            if (length == buffer.length) flushBuffer();
+            buffer[length++] = c;
+            return this;
+        }
+        
+        Output text(String s) throws IOException {
+            int from = 0;
+            while (from < s.length()) {
+                if (length == buffer.length) flushBuffer();
+                int count = Math.min(s.length() - from, buffer.length - length);
+                s.getChars(from, from + count, buffer, length);
+                length += count;
+                from += count;
+            }
+            return this;
+        }
+        
+        Output number(long value) throws IOException {
+            if (value < 0) {
+                text('-');
+                value = -value;
+            }
+            int count = 0;
+            do {
+                digits[count++] = (char) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (count > 0) {
+                text(digits[--count]);
+            }
+            return this;
+        }
+        
+        // Поле CSV: в кавычках, если содержит разделитель, кавычку или перевод строки.
+        Output csv(String s) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == CSV_SEPARATOR || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) return text(s);
+            
+            text('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') text('"');
+                text(c);
+            }
+            return text('"');
+        }
+        
+        // Строка JSON в кавычках.
+        Output json(String s) throws IOException {
+            text('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') {
+                    text('\\').text(c);
+                } else if (c < 0x20) {
+                    text("\\u00").text(Character.forDigit(c >> 4, 16)).text(Character.forDigit(c & 0xF, 16));
+                } else {
+                    text(c);
+                }
+            }
+            return text('"');
+        }
+        
+        // Текст HTML с экранированными служебными символами.
+        Output html(String s) throws IOException {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '<': text("&lt;"); break;
+                    case '>': text("&gt;"); break;
+                    case '&': text("&amp;"); break;
+                    case '"': text("&quot;"); break;
+                    default: text(c);
+                }
+            }
+            return this;
+        }
+        
+        void flush() throws IOException {
+            flushBuffer();
+            writer.flush();
+        }
+        
+        private void flushBuffer() throws IOException {
+            writer.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+}
\ No newline at end of file
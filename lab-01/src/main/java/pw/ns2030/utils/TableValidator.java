@@ -117,12 +117,9 @@ public class TableValidator {
             return ValidationResult.error("Название команды не может быть пустым");
         }
         
-        String trimmed = teamName.trim();
-        
-        for (int i = 0; i < tournament.getTeamCount(); i++) {
-            if (i != excludeIndex && tournament.getTeamName(i).equalsIgnoreCase(trimmed)) {
-                return ValidationResult.error("Команда с таким названием уже существует");
-            }
+        // Индекс названий поддерживается турниром, перебор команд не нужен
+        if (tournament.isTeamNameTaken(teamName, excludeIndex)) {
+            return ValidationResult.error("Команда с таким названием уже существует");
         }
         
         return ValidationResult.success();
@@ -174,38 +171,94 @@ public class TableValidator {
         }
         
         // Проверяем уникальность названий
-        for (int i = 0; i < tournament.getTeamCount(); i++) {
-            for (int j = i + 1; j < tournament.getTeamCount(); j++) {
-                if (tournament.getTeamName(i).equalsIgnoreCase(tournament.getTeamName(j))) {
-                    issues.add("Дублирующиеся названия команд: '" + tournament.getTeamName(i) + "'");
-                }
-            }
+        for (String duplicate : tournament.getDuplicateTeamNames()) {
+            issues.add("Дублирующиеся названия команд: '" + tournament.getTeamName(tournament.findTeam(duplicate)) + "'");
         }
         
         // Проверяем симметричность результатов
         for (int i = 0; i < tournament.getTeamCount(); i++) {
             for (int j = 0; j < tournament.getTeamCount(); j++) {
                 if (i != j) {
-                    GameResult result1 = tournament.getMatchResult(i, j);
-                    GameResult result2 = tournament.getMatchResult(j, i);
-                    
-                    if (result1.isPlayed() && result2.isPlayed()) {
-                        if (result1.getHomeScore() != result2.getAwayScore() ||
-                            result1.getAwayScore() != result2.getHomeScore()) {
-                            issues.add(String.format("Несимметричные результаты: %s vs %s",
-                                tournament.getTeamName(i), tournament.getTeamName(j)));
-                        }
-                    } else if (result1.isPlayed() != result2.isPlayed()) {
-                        issues.add(String.format("Несимметричные статусы матчей: %s vs %s",
-                            tournament.getTeamName(i), tournament.getTeamName(j)));
+                    String asymmetry = describeAsymmetry(tournament, i, j);
+                    if (asymmetry != null) {
+                        issues.add(asymmetry);
                     }
                 }
             }
         }
         
+        // Проверяем, что статистика команд сходится с результатами матчей
+        for (int i = 0; i < tournament.getTeamCount(); i++) {
+            if (!isStatisticsConsistent(tournament, i)) {
+                issues.add(describeInconsistentStatistics(tournament, i));
+            }
+        }
+        
         return issues;
     }
     
+    /**
+     * Постоянная проверка целостности: после подключения нарушения обновляются
+     * по событиям турнира без полного перебора.
+     */
+    public static IntegrityMonitor monitorTournamentIntegrity(Tournament tournament) {
+        return IntegrityMonitor.attach(tournament);
+    }
+    
+    // Описание несимметричности результатов пары или null, если результаты симметричны
+    static String describeAsymmetry(Tournament tournament, int i, int j) {
+        GameResult result1 = tournament.getMatchResult(i, j);
+        GameResult result2 = tournament.getMatchResult(j, i);
+        
+        if (result1.isPlayed() && result2.isPlayed()) {
+            if (result1.getHomeScore() != result2.getAwayScore() ||
+                result1.getAwayScore() != result2.getHomeScore()) {
+                return String.format("Несимметричные результаты: %s vs %s",
+                    tournament.getTeamName(i), tournament.getTeamName(j));
+            }
+        } else if (result1.isPlayed() != result2.isPlayed()) {
+            return String.format("Несимметричные статусы матчей: %s vs %s",
+                tournament.getTeamName(i), tournament.getTeamName(j));
+        }
+        return null;
+    }
+    
+    static String describeInconsistentStatistics(Tournament tournament, int teamIndex) {
+        return String.format("Статистика команды %s не совпадает с результатами матчей",
+            tournament.getTeamName(teamIndex));
+    }
+    
+    // Пересчитывает статистику команды по строке её матчей и сравнивает с сохраненной
+    private static boolean isStatisticsConsistent(Tournament tournament, int teamIndex) {
+        int points = 0, played = 0, wins = 0, draws = 0, losses = 0, goalsFor = 0, goalsAgainst = 0;
+        for (int j = 0; j < tournament.getTeamCount(); j++) {
+            if (j == teamIndex) continue;
+            // Статистика строится по ячейке над диагональю, как при внесении результата
+            GameResult result = teamIndex < j
+                    ? tournament.getMatchResult(teamIndex, j)
+                    : tournament.getMatchResult(j, teamIndex).createReverseResult();
+            if (!result.isPlayed()) continue;
+            
+            played++;
+            goalsFor += result.getHomeScore();
+            goalsAgainst += result.getAwayScore();
+            if (result.getHomeScore() > result.getAwayScore()) {
+                wins++;
+                points += 3;
+            } else if (result.getHomeScore() == result.getAwayScore()) {
+                draws++;
+                points += 1;
+            } else {
+                losses++;
+            }
+        }
+        
+        Team team = tournament.getTeam(teamIndex);
+        return team.getTotalPoints() == points && team.getMatchesPlayed() == played
+                && team.getWins() == wins && team.getDraws() == draws && team.getLosses() == losses
+                && team.getGoalsFor() == goalsFor && team.getGoalsAgainst() == goalsAgainst;
+    }
+    
     // Проверяет, является ли строка числом
     public static boolean isNumeric(String str) {
         if (str == null || str.trim().isEmpty()) {
@@ -0,0 +1,363 @@
+package pw.ns2030.utils;
+
+import pw.ns2030.model.GameResult;
+import pw.ns2030.model.ResultBatch;
+import pw.ns2030.model.ResultChanges;
+import pw.ns2030.model.Team;
+import pw.ns2030.model.Tournament;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.List;
+
+/**
+ * Сохранение турнира в журнал изменений с периодическим снимком.
+ *
+ * Журнал подписывается на турнир и дописывает каждое изменение компактной двоичной записью
+ * (результат матча - 9 байт). Когда записей становится много, состояние целиком пишется в снимок
+ * (файл журнала + ".snapshot"), а журнал начинается заново. Загрузка читает снимок и повторяет
+ * журнал, все результаты применяются одним {@link Tournament#applyBatch(ResultBatch)}.
+ *
+ * Снимок и журнал помечены номером поколения. И снимок, и новый журнал сначала пишутся
+ * во временный файл и атомарно переименовываются, поэтому на диске всегда лежит целый файл
+ * старого или нового поколения. Если программа завершилась между заменой снимка и заменой
+ * журнала, журнал старого поколения при загрузке пропускается - его записи уже есть в снимке.
+ * Оборванная последняя запись журнала (сбой во время записи) при загрузке отбрасывается,
+ * журнал без заголовка при наличии снимка считается пустым.
+ *
+ * Журнал пишется в потоке, который изменяет турнир (в GUI - в EDT). Снимок тоже делается
+ * в этом потоке и блокирует его: полный проход по результатам и два fsync. Это происходит
+ * не чаще чем раз в {@link #MIN_COMPACTION_RECORDS} записей.
+ */
+public class TournamentJournal implements Tournament.TournamentListener, Closeable {
+    private static final int JOURNAL_MAGIC = 0x544A524E; // "TJRN"
+    private static final int SNAPSHOT_MAGIC = 0x54534E50; // "TSNP"
+    private static final byte FORMAT_VERSION = 1; // Версия формата файлов
+    private static final String SNAPSHOT_SUFFIX = ".snapshot"; // Расширение файла снимка
+    private static final int MIN_COMPACTION_RECORDS = 50_000; // Записей в журнале, после которых делается снимок
+    
+    // Типы записей журнала
+    private static final byte RECORD_RESULT = 1; // домашняя, гостевая, голы хозяев, голы гостей (short)
+    private static final byte RECORD_CLEAR = 2; // домашняя, гостевая (short)
+    private static final byte RECORD_NAME = 3; // индекс (short), название (UTF)
+    private static final byte RECORD_CLEAR_ALL = 4; // без данных
+    
+    private final Tournament tournament; // Сохраняемый турнир
+    private final Path journalFile; // Файл журнала
+    private final Path snapshotFile; // Файл снимка
+    private DataOutputStream journal; // Поток дозаписи журнала
+    private long generation; // Поколение текущего снимка и журнала
+    private int recordsSinceSnapshot; // Записей в журнале после последнего снимка
+    private IOException failure; // Ошибка записи, после которой журнал остановлен
+    
+    private TournamentJournal(Tournament tournament, Path journalFile, long generation) {
+        this.tournament = tournament;
+        this.journalFile = journalFile;
+        this.snapshotFile = snapshotPath(journalFile);
+        this.generation = generation;
+    }
+    
+    /**
+     * Начинает сохранять турнир в указанный файл: записывает снимок текущего состояния,
+     * создает пустой журнал и подписывается на изменения турнира.
+     */
+    public static TournamentJournal attach(Tournament tournament, Path journalFile) throws IOException {
+        long generation = Files.exists(snapshotPath(journalFile)) ? readSnapshotGeneration(snapshotPath(journalFile)) : 0;
+        TournamentJournal journal = new TournamentJournal(tournament, journalFile, generation);
+        journal.compact();
+        tournament.addTournamentListener(journal);
+        return journal;
+    }
+    
+    /**
+     * Восстанавливает турнир из снимка и журнала.
+     *
+     * @throws IOException если файлов нет или они повреждены
+     */
+    public static Tournament load(Path journalFile) throws IOException {
+        Path snapshotFile = snapshotPath(journalFile);
+        boolean hasSnapshot = Files.exists(snapshotFile);
+        boolean hasJournal = Files.exists(journalFile);
+        if (!hasSnapshot && !hasJournal) {
+            throw new FileNotFoundException("Файл турнира не найден: " + journalFile);
+        }
+        
+        Tournament tournament = null;
+        long snapshotGeneration = -1;
+        if (hasSnapshot) {
+            try (DataInputStream in = openInput(snapshotFile)) {
+                checkHeader(in, SNAPSHOT_MAGIC, snapshotFile);
+                snapshotGeneration = in.readLong();
+                tournament = new Tournament(in.readShort());
+                for (int i = 0; i < tournament.getTeamCount(); i++) {
+                    tournament.setTeamName(i, in.readUTF());
+                }
+                int played = in.readInt();
+                ResultBatch batch = new ResultBatch(played);
+                for (int k = 0; k < played; k++) {
+                    batch.setMatchResult(in.readShort(), in.readShort(), in.readShort(), in.readShort());
+                }
+                tournament.applyBatch(batch);
+            }
+        }
+        
+        if (hasJournal) {
+            try (DataInputStream in = openInput(journalFile)) {
+                long journalGeneration;
+                int teamCount;
+                try {
+                    checkHeader(in, JOURNAL_MAGIC, journalFile);
+                    journalGeneration = in.readLong();
+                    teamCount = in.readShort();
+                } catch (EOFException e) {
+                    // Заголовок журнала не дописан: при целом снимке журнал пуст
+                    if (tournament == null) throw e;
+                    return tournament;
+                }
+                if (tournament == null) {
+                    tournament = new Tournament(teamCount);
+                } else if (teamCount != tournament.getTeamCount()) {
+                    throw new IOException("Журнал не соответствует снимку: " + journalFile);
+                }
+                // Журнал старого поколения уже учтен в снимке
+                if (journalGeneration >= snapshotGeneration) {
+                    replay(in, tournament);
+                }
+            }
+        }
+        return tournament;
+    }
+    
+    // Повторяет записи журнала. Обрыв в конце файла означает недописанную последнюю запись.
+    private static void replay(DataInputStream in, Tournament tournament) throws IOException {
+        ResultBatch batch = new ResultBatch();
+        try {
+            while (true) {
+                int type = in.read();
+                if (type < 0) break;
+                
+                switch (type) {
+                    case RECORD_RESULT:
+                        batch.setMatchResult(in.readShort(), in.readShort(), in.readShort(), in.readShort());
+                        break;
+                    case RECORD_CLEAR:
+                        batch.clearMatchResult(in.readShort(), in.readShort());
+                        break;
+                    case RECORD_NAME:
+                        int teamIndex = in.readShort();
+                        tournament.setTeamName(teamIndex, in.readUTF());
+                        break;
+                    case RECORD_CLEAR_ALL:
+                        batch = new ResultBatch();
+                        tournament.clearAllResults();
+                        break;
+                    default:
+                        throw new IOException("Неизвестная запись журнала: " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // Последняя запись оборвана - отбрасываем её
+        }
+        tournament.applyBatch(batch);
+    }
+    
+    /**
+     * Записывает снимок текущего состояния и начинает журнал заново.
+     * Вызывается автоматически, когда журнал становится длинным; после ошибки записи
+     * позволяет продолжить сохранение с полного состояния.
+     */
+    public void compact() throws IOException {
+        long nextGeneration = generation + 1;
+        
+        // Снимок: во временный файл, затем атомарная замена
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            writeSnapshot(out, nextGeneration);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        // Новый журнал того же поколения: заголовок во временный файл, затем атомарная замена,
+        // чтобы сбой не оставил на месте журнала пустой или оборванный файл
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        Path temporaryJournal = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporaryJournal.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(JOURNAL_MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(nextGeneration);
+            out.writeShort(tournament.getTeamCount());
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporaryJournal, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile.toFile(), true)));
+        
+        generation = nextGeneration;
+        recordsSinceSnapshot = 0;
+        failure = null;
+    }
+    
+    private void writeSnapshot(DataOutputStream out, long snapshotGeneration) throws IOException {
+        int teamCount = tournament.getTeamCount();
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(snapshotGeneration);
+        out.writeShort(teamCount);
+        List<Team> teams = tournament.getTeams();
+        for (Team team : teams) {
+            out.writeUTF(team.getName());
+        }
+        
+        out.writeInt(tournament.getTotalMatchesPlayed());
+        for (int i = 0; i < teamCount; i++) {
+            for (int j = i + 1; j < teamCount; j++) {
+                if (tournament.isMatchPlayed(i, j)) {
+                    GameResult result = tournament.getMatchResult(i, j);
+                    out.writeShort(i);
+                    out.writeShort(j);
+                    out.writeShort(result.getHomeScore());
+                    out.writeShort(result.getAwayScore());
+                }
+            }
+        }
+    }
+    
+    public Path getJournalFile() {
+        return journalFile;
+    }
+    
+    /**
+     * Возвращает ошибку записи или null. Слушатели турнира не могут бросать исключения
+     * в код, изменивший турнир, поэтому после ошибки журнал перестает писать,
+     * а владелец проверяет этот признак после изменений.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+    
+    // Отписывается от турнира и закрывает журнал.
+    @Override
+    public void close() throws IOException {
+        tournament.removeTournamentListener(this);
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+    
+    // Реализация Tournament.TournamentListener: каждое событие - одна или несколько записей.
+    @Override
+    public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
+        // Турнир сообщает о каждой паре дважды (обе ячейки), записываем только ячейку над диагональю
+        if (homeTeam > awayTeam) return;
+        writeResult(homeTeam, awayTeam, result);
+        recordWritten(1);
+    }
+    
+    @Override
+    public void onResultsChanged(ResultChanges changes) {
+        if (changes.isAllCleared()) {
+            write(() -> journal.writeByte(RECORD_CLEAR_ALL));
+            recordWritten(1);
+            return;
+        }
+        
+        for (int k = 0; k < changes.size(); k++) {
+            writeResult(changes.getHomeTeam(k), changes.getAwayTeam(k), changes.getResult(k));
+        }
+        recordWritten(changes.size());
+    }
+    
+    @Override
+    public void onTeamNameChanged(int teamIndex, String newName) {
+        write(() -> {
+            journal.writeByte(RECORD_NAME);
+            journal.writeShort(teamIndex);
+            journal.writeUTF(newName);
+        });
+        recordWritten(1);
+    }
+    
+    @Override
+    public void onTableResorted(List<Team> sortedTeams) {
+        // Порядок мест восстанавливается из результатов
+    }
+    
+    private void writeResult(int homeTeam, int awayTeam, GameResult result) {
+        write(() -> {
+            if (result.isPlayed()) {
+                journal.writeByte(RECORD_RESULT);
+                journal.writeShort(homeTeam);
+                journal.writeShort(awayTeam);
+                journal.writeShort(result.getHomeScore());
+                journal.writeShort(result.getAwayScore());
+            } else {
+                journal.writeByte(RECORD_CLEAR);
+                journal.writeShort(homeTeam);
+                journal.writeShort(awayTeam);
+            }
+        });
+    }
+    
+    /**
+     * Отдает записи события операционной системе и при необходимости делает снимок.
+     * Журнал длиннее снимка не нужен: снимок делается, когда записей больше, чем сыгранных матчей.
+     * Снимок выполняется синхронно в потоке слушателя и блокирует его до завершения записи.
+     */
+    private void recordWritten(int count) {
+        recordsSinceSnapshot += count;
+        write(() -> journal.flush());
+        if (recordsSinceSnapshot >= MIN_COMPACTION_RECORDS
+                && recordsSinceSnapshot > tournament.getTotalMatchesPlayed()) {
+            write(this::compact);
+        }
+    }
+    
+    // Выполняет запись; при ошибке запоминает её и закрывает журнал, чтобы не писать его с пропусками.
+    private void write(JournalWrite action) {
+        if (journal == null) return;
+        try {
+            action.run();
+        } catch (IOException e) {
+            failure = e;
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+                // Журнал уже поврежден
+            }
+            journal = null;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+    
+    private static Path snapshotPath(Path journalFile) {
+        return journalFile.resolveSibling(journalFile.getFileName() + SNAPSHOT_SUFFIX);
+    }
+    
+    private static DataInputStream openInput(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+    }
+    
+    private static void checkHeader(DataInputStream in, int magic, Path file) throws IOException {
+        if (in.readInt() != magic || in.readByte() != FORMAT_VERSION) {
+            throw new IOException("Файл не является файлом турнира: " + file);
+        }
+    }
+    
+    private static long readSnapshotGeneration(Path snapshotFile) throws IOException {
+        try (DataInputStream in = openInput(snapshotFile)) {
+            checkHeader(in, SNAPSHOT_MAGIC, snapshotFile);
+            return in.readLong();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package pw.ns2030.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочная проверка {@link ConcurrentTournament}: несколько потоков записи отправляют
+ * результаты в несколько турниров, пока читатели проверяют каждый опубликованный снимок.
+ *
+ * Каждая пара команд принадлежит одному потоку записи, поэтому итог не зависит от того,
+ * как чередовались потоки: последняя операция потока над парой и есть её результат.
+ * Итоговое состояние сравнивается с последовательным применением тех же операций
+ * через {@link Tournament#applyBatch(ResultBatch)}.
+ */
+class ConcurrentTournamentStressTest {
+    private static final int WRITERS = 8; // Потоков записи
+    private static final int TOURNAMENTS = 8; // Турниров в движке
+    private static final int READERS = 2; // Потоков чтения снимков
+    private static final int TEAMS = 200; // Команд в каждом турнире
+    private static final int OPERATIONS = 100_000; // Операций на поток записи
+    private static final int NOT_PLAYED = -1; // Несыгранная пара в зеркале результатов
+    
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void concurrentWritersMatchSequentialReplay() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            try (TournamentEngine engine = new TournamentEngine(pool)) {
+                ConcurrentTournament[] tournaments = new ConcurrentTournament[TOURNAMENTS];
+                ResultMirror[] mirrors = new ResultMirror[TOURNAMENTS];
+                for (int t = 0; t < TOURNAMENTS; t++) {
+                    tournaments[t] = engine.createTournament("Турнир " + (t + 1), TEAMS);
+                    mirrors[t] = new ResultMirror();
+                    tournaments[t].addTournamentListener(mirrors[t]);
+                }
+                
+                // Операции каждого потока по турнирам - для последовательного повторения
+                ResultBatch[][] logs = new ResultBatch[WRITERS][TOURNAMENTS];
+                AtomicBoolean stop = new AtomicBoolean();
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> threads = new ArrayList<>();
+                
+                for (int r = 0; r < READERS; r++) {
+                    int seed = r;
+                    threads.add(new Thread(() -> {
+                        try {
+                            start.await();
+                            readSnapshots(tournaments, new Random(seed), stop);
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }, "reader-" + r));
+                }
+                for (int w = 0; w < WRITERS; w++) {
+                    int writer = w;
+                    for (int t = 0; t < TOURNAMENTS; t++) {
+                        logs[w][t] = new ResultBatch();
+                    }
+                    threads.add(new Thread(() -> {
+                        try {
+                            start.await();
+                            write(tournaments, logs[writer], writer, new Random(100 + writer));
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }, "writer-" + w));
+                }
+                
+                threads.forEach(Thread::start);
+                start.countDown();
+                for (Thread thread : threads.subList(READERS, threads.size())) {
+                    thread.join();
+                }
+                
+                // flush() после завершения всех потоков записи ждет применения всех их операций
+                StandingsSnapshot[] finals = new StandingsSnapshot[TOURNAMENTS];
+                for (int t = 0; t < TOURNAMENTS; t++) {
+                    finals[t] = tournaments[t].flush().get(1, TimeUnit.MINUTES);
+                }
+                stop.set(true);
+                for (Thread thread : threads.subList(0, READERS)) {
+                    thread.join();
+                }
+                if (failure.get() != null) {
+                    throw new AssertionError("Ошибка в потоке проверки", failure.get());
+                }
+                
+                for (int t = 0; t < TOURNAMENTS; t++) {
+                    Tournament replay = new Tournament(TEAMS);
+                    for (int w = 0; w < WRITERS; w++) {
+                        replay.applyBatch(logs[w][t]);
+                    }
+                    assertSameState(replay, finals[t], mirrors[t], t);
+                    assertSame(finals[t], tournaments[t].getSnapshot(), "После flush() новых снимков быть не должно");
+                }
+            }
+        } finally {
+            // Внешний пул движок не закрывает
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void postsAfterCloseAreRejected() throws Exception {
+        ConcurrentTournament tournament;
+        try (TournamentEngine engine = new TournamentEngine()) {
+            tournament = engine.createTournament("Закрываемый", 4);
+            tournament.postResult(0, 1, 2, 1);
+        }
+        
+        assertEquals(1, tournament.getSnapshot().getTotalMatchesPlayed(), "Закрытие применяет отправленное");
+        assertThrows(IllegalStateException.class, () -> tournament.postResult(2, 3, 1, 1));
+        assertThrows(IllegalStateException.class, tournament::flush);
+    }
+    
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void rejectedDrainDoesNotStrandLaterPosts() {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        TournamentEngine engine = new TournamentEngine(pool);
+        ConcurrentTournament tournament = engine.createTournament("Без пула", 4);
+        pool.shutdown();
+        
+        // Отказ пула не должен оставлять флаг разбора поднятым: каждая отправка сообщает об ошибке,
+        // а не ставит операцию в очередь, которую никто не разберет
+        for (int k = 0; k < 3; k++) {
+            assertThrows(IllegalStateException.class, () -> tournament.postResult(0, 1, 1, 0));
+            assertThrows(IllegalStateException.class, tournament::flush);
+        }
+        engine.close();
+    }
+    
+    // Поток записи: операции только над своими парами, каждая пишется и в журнал для повторения.
+    private static void write(ConcurrentTournament[] tournaments, ResultBatch[] log, int writer, Random random) {
+        int done = 0;
+        while (done < OPERATIONS) {
+            int home = random.nextInt(TEAMS);
+            int away = random.nextInt(TEAMS);
+            if (home == away || pairOwner(home, away) != writer) continue;
+            
+            int t = random.nextInt(TOURNAMENTS);
+            if (random.nextInt(10) == 0) {
+                tournaments[t].postClear(home, away);
+                log[t].clearMatchResult(home, away);
+            } else {
+                int homeScore = random.nextInt(6);
+                int awayScore = random.nextInt(6);
+                tournaments[t].postResult(home, away, homeScore, awayScore);
+                log[t].setMatchResult(home, away, homeScore, awayScore);
+            }
+            done++;
+        }
+    }
+    
+    private static int pairOwner(int home, int away) {
+        return (Math.min(home, away) * TEAMS + Math.max(home, away)) % WRITERS;
+    }
+    
+    // Поток чтения: проверяет согласованность каждого снимка и рост номеров снимков.
+    private static void readSnapshots(ConcurrentTournament[] tournaments, Random random, AtomicBoolean stop) {
+        long[] lastVersion = new long[tournaments.length];
+        boolean[] placed = new boolean[TEAMS];
+        while (!stop.get()) {
+            int t = random.nextInt(tournaments.length);
+            StandingsSnapshot snapshot = tournaments[t].getSnapshot();
+            assertTrue(snapshot.getVersion() >= lastVersion[t], "Номер снимка уменьшился");
+            lastVersion[t] = snapshot.getVersion();
+            
+            int played = 0;
+            long goalsFor = 0;
+            long goalsAgainst = 0;
+            for (int i = 0; i < TEAMS; i++) {
+                played += snapshot.getMatchesPlayed(i);
+                goalsFor += snapshot.getGoalsFor(i);
+                goalsAgainst += snapshot.getGoalsAgainst(i);
+            }
+            assertEquals(2 * snapshot.getTotalMatchesPlayed(), played, "Матчи команд не сходятся с итогом турнира");
+            assertEquals(snapshot.getTotalGoals(), goalsFor, "Забитые голы не сходятся с итогом турнира");
+            assertEquals(goalsFor, goalsAgainst, "Забитые и пропущенные голы не равны");
+            
+            Arrays.fill(placed, false);
+            for (int position = 1; position <= TEAMS; position++) {
+                int team = snapshot.getTeamAtPosition(position);
+                assertFalse(placed[team], "Команда занимает два места");
+                placed[team] = true;
+                if (position > 1) {
+                    int above = snapshot.getTeamAtPosition(position - 1);
+                    assertTrue(snapshot.getPoints(above) >= snapshot.getPoints(team), "Места не упорядочены по очкам");
+                }
+            }
+        }
+    }
+    
+    private static void assertSameState(Tournament replay, StandingsSnapshot snapshot, ResultMirror mirror, int t) {
+        String prefix = "Турнир " + (t + 1) + ": ";
+        assertEquals(replay.getTotalMatchesPlayed(), snapshot.getTotalMatchesPlayed(), prefix + "сыгранные матчи");
+        assertEquals(replay.getTotalGoals(), snapshot.getTotalGoals(), prefix + "голы");
+        for (int i = 0; i < TEAMS; i++) {
+            Team team = replay.getTeam(i);
+            assertEquals(team.getTotalPoints(), snapshot.getPoints(i), prefix + "очки команды " + (i + 1));
+            assertEquals(team.getMatchesPlayed(), snapshot.getMatchesPlayed(i), prefix + "матчи команды " + (i + 1));
+            assertEquals(team.getGoalsFor(), snapshot.getGoalsFor(i), prefix + "забитые команды " + (i + 1));
+            assertEquals(team.getGoalsAgainst(), snapshot.getGoalsAgainst(i), prefix + "пропущенные команды " + (i + 1));
+        }
+        for (int position = 1; position <= TEAMS; position++) {
+            assertEquals(replay.getTeamAtPosition(position).getId() - 1, snapshot.getTeamAtPosition(position),
+                    prefix + "команда на месте " + position);
+        }
+        for (int i = 0; i < TEAMS; i++) {
+            for (int j = 0; j < TEAMS; j++) {
+                if (i == j) continue;
+                GameResult result = replay.getMatchResult(i, j);
+                int expected = result.isPlayed() ? result.getHomeScore() << 16 | result.getAwayScore() : NOT_PLAYED;
+                assertEquals(expected, mirror.results[i * TEAMS + j],
+                        prefix + "результат матча " + (i + 1) + " - " + (j + 1));
+            }
+        }
+    }
+    
+    /**
+     * Копия результатов турнира, собранная из событий слушателя (в потоке записи).
+     * Чтение после flush().get() видит все записи: завершение future происходит после них.
+     */
+    private static final class ResultMirror implements Tournament.TournamentListener {
+        final int[] results = new int[TEAMS * TEAMS]; // Голы хозяев << 16 | голы гостей или NOT_PLAYED
+        
+        ResultMirror() {
+            Arrays.fill(results, NOT_PLAYED);
+        }
+        
+        @Override
+        public void onMatchResultChanged(int homeTeam, int awayTeam, GameResult result) {
+            results[homeTeam * TEAMS + awayTeam] = result.isPlayed()
+                    ? result.getHomeScore() << 16 | result.getAwayScore() : NOT_PLAYED;
+        }
+        
+        @Override
+        public void onResultsChanged(ResultChanges changes) {
+            assertFalse(changes.isAllCleared(), "Движок не очищает турнир целиком");
+            for (int k = 0; k < changes.size(); k++) {
+                GameResult result = changes.getResult(k);
+                int home = changes.getHomeTeam(k);
+                int away = changes.getAwayTeam(k);
+                onMatchResultChanged(home, away, result);
+                onMatchResultChanged(away, home, result.isPlayed()
+                        ? new GameResult(result.getAwayScore(), result.getHomeScore()) : result);
+            }
+        }
+        
+        @Override
+        public void onTeamNameChanged(int teamIndex, String newName) {
+        }
+        
+        @Override
+        public void onTableResorted(List<Team> sortedTeams) {
+        }
+    }
+}
\ No newline at end of file
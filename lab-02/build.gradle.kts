@@ -1,6 +1,8 @@
 plugins {
     id("java")
     id("application")
+    // Микробенчмарки: исходники в src/jmh/java, запуск ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "pw.ns2030"
@@ -19,6 +21,21 @@ dependencies {
     
     // Для JSON валидации (опционально)
     testImplementation("com.fasterxml.jackson.core:jackson-core:2.15.2")
+    
+    // Jackson streaming API как базовая линия для сравнения в бенчмарках
+    jmh("com.fasterxml.jackson.core:jackson-core:2.15.2")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // GC-профайлер добавляет gc.alloc.rate.norm - байты, выделенные на одну операцию
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    jvmArgs.set(listOf("-Dfile.encoding=UTF-8"))
 }
 
 application {
@@ -94,7 +111,6 @@ tasks.run.configure {
     
     systemProperty("json.serializer.debug", "true")
     jvmArgs(
-        "-Xss2m",
         "-Dfile.encoding=UTF-8",
         "-Dconsole.encoding=UTF-8", 
         "-Dsun.jnu.encoding=UTF-8",
@@ -0,0 +1,67 @@
+package pw.ns2030.benchmark;
+
+import pw.ns2030.models.Company;
+import pw.ns2030.models.Department;
+import pw.ns2030.models.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор графов Company/Department/Person для бенчмарков.
+ * Граф детерминирован (фиксированное зерно), чтобы прогоны были сравнимы.
+ */
+public final class GraphGenerator {
+    
+    private static final int EMPLOYEES_PER_DEPARTMENT = 50;
+    
+    private GraphGenerator() {
+    }
+    
+    /**
+     * Строит граф компании.
+     * @param size количество сотрудников в отделах
+     * @param sharingRatio доля сотрудников, которые также входят в список компании
+     *                     (повторные вхождения сериализуются как $ref)
+     * @param depth длина цепочки потомков Person -> children -> ... (глубина вложенности)
+     * @return корневой объект графа
+     */
+    public static Company generate(int size, double sharingRatio, int depth) {
+        SplittableRandom random = new SplittableRandom(42);
+        Company company = new Company("Benchmark Corp", "Новосибирск, пр. К. Маркса, 20", 1950);
+        
+        int departmentCount = Math.max(1, (size + EMPLOYEES_PER_DEPARTMENT - 1) / EMPLOYEES_PER_DEPARTMENT);
+        List<Department> departments = new ArrayList<>(departmentCount);
+        for (int d = 0; d < departmentCount; d++) {
+            Department department = new Department("Отдел " + d, null, company);
+            department.setBudget(10000.0 + random.nextInt(1_000_000));
+            department.setProjects(new String[]{"Проект " + d + "A", "Project " + d + "B"});
+            departments.add(department);
+            company.addDepartment(department);
+        }
+        
+        for (int i = 0; i < size; i++) {
+            Person person = new Person("Сотрудник " + i, 20 + random.nextInt(45), "user" + i + "@corp.example");
+            Department department = departments.get(i % departmentCount);
+            department.addEmployee(person);
+            if (department.getManager() == null) {
+                department.setManager(person);
+            }
+            if (random.nextDouble() < sharingRatio) {
+                company.addEmployee(person);
+            }
+        }
+        
+        // Цепочка потомков дает вложенность, не сводящуюся к ссылкам
+        Person ancestor = new Person("Основатель", 90, "founder@corp.example");
+        company.addEmployee(ancestor);
+        for (int level = 1; level < depth; level++) {
+            Person child = new Person("Потомок " + level, Math.max(1, 90 - level));
+            ancestor.addChild(child);
+            ancestor = child;
+        }
+        
+        return company;
+    }
+}
@@ -0,0 +1,153 @@
+package pw.ns2030.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import pw.ns2030.models.Company;
+import pw.ns2030.models.Department;
+import pw.ns2030.models.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Базовая линия на Jackson streaming API (jackson-core, без databind).
+ * Пишет тот же граф с теми же полями и $id/$ref, но без рефлексии —
+ * нижняя граница стоимости для собственного сериализатора.
+ * Чтение сводится к полному проходу по токенам без построения объектов.
+ */
+public final class JacksonStreamingCodec {
+    
+    private final JsonFactory factory = new JsonFactory();
+    private final Map<Object, String> ids = new IdentityHashMap<>();
+    private int idCounter;
+    
+    public byte[] write(Company company) throws IOException {
+        ids.clear();
+        idCounter = 1;
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (JsonGenerator gen = factory.createGenerator(out)) {
+            writeCompany(gen, company);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Проходит документ целиком и возвращает количество токенов.
+     */
+    public int scan(byte[] json) throws IOException {
+        int tokens = 0;
+        try (JsonParser parser = factory.createParser(json)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    parser.getText();
+                }
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+    
+    private boolean writeReference(JsonGenerator gen, Object obj) throws IOException {
+        String id = ids.get(obj);
+        if (id != null) {
+            gen.writeStartObject();
+            gen.writeStringField("$ref", id);
+            gen.writeEndObject();
+            return true;
+        }
+        id = "ref_" + (idCounter++);
+        ids.put(obj, id);
+        gen.writeStartObject();
+        gen.writeStringField("$id", id);
+        return false;
+    }
+    
+    private void writeCompany(JsonGenerator gen, Company company) throws IOException {
+        if (company == null) {
+            gen.writeNull();
+            return;
+        }
+        if (writeReference(gen, company)) return;
+        
+        gen.writeStringField("company_name", company.getName());
+        gen.writeStringField("address", company.getAddress());
+        gen.writeFieldName("employees");
+        writePersons(gen, company.getEmployees());
+        gen.writeFieldName("departments");
+        gen.writeStartArray();
+        for (Department department : company.getDepartments()) {
+            writeDepartment(gen, department);
+        }
+        gen.writeEndArray();
+        if (company.getFoundedYear() != null) {
+            gen.writeNumberField("founded_year", company.getFoundedYear());
+        } else {
+            gen.writeNullField("founded_year");
+        }
+        gen.writeEndObject();
+    }
+    
+    private void writeDepartment(JsonGenerator gen, Department department) throws IOException {
+        if (writeReference(gen, department)) return;
+        
+        gen.writeStringField("dept_name", department.getName());
+        if (department.getManager() != null) {
+            gen.writeFieldName("manager");
+            writePerson(gen, department.getManager());
+        }
+        gen.writeFieldName("employees");
+        writePersons(gen, department.getEmployees());
+        if (department.getCompany() != null) {
+            gen.writeFieldName("company");
+            writeCompany(gen, department.getCompany());
+        }
+        if (department.getBudget() != null) {
+            gen.writeNumberField("budget", department.getBudget());
+        }
+        gen.writeFieldName("projects");
+        gen.writeStartArray();
+        for (String project : department.getProjects()) {
+            gen.writeString(project);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+    
+    private void writePersons(JsonGenerator gen, List<Person> persons) throws IOException {
+        gen.writeStartArray();
+        for (Person person : persons) {
+            writePerson(gen, person);
+        }
+        gen.writeEndArray();
+    }
+    
+    private void writePerson(JsonGenerator gen, Person person) throws IOException {
+        if (writeReference(gen, person)) return;
+        
+        if (person.getName() != null) {
+            gen.writeStringField("full_name", person.getName());
+        }
+        gen.writeNumberField("age", person.getAge());
+        if (person.getEmail() != null) {
+            gen.writeStringField("email_address", person.getEmail());
+        }
+        if (person.getCompany() != null) {
+            gen.writeFieldName("company");
+            writeCompany(gen, person.getCompany());
+        }
+        gen.writeFieldName("children");
+        writePersons(gen, person.getChildren());
+        if (person.getParent() != null) {
+            gen.writeFieldName("parent");
+            writePerson(gen, person.getParent());
+        }
+        gen.writeEndObject();
+    }
+}
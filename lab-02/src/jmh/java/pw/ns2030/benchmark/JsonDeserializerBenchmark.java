@@ -0,0 +1,61 @@
+package pw.ns2030.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pw.ns2030.models.Company;
+import pw.ns2030.serializer.JsonDeserializer;
+import pw.ns2030.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность десериализации графа Company.
+ * Документ готовится один раз на прогон сериализатором этого же модуля.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonDeserializerBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    public int size;
+    
+    @Param({"0.0", "0.5"})
+    public double sharingRatio;
+    
+    @Param({"1", "32", "1024"})
+    public int depth;
+    
+    private String json;
+    private byte[] jsonBytes;
+    private JsonDeserializer deserializer;
+    private JacksonStreamingCodec jackson;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Company company = GraphGenerator.generate(size, sharingRatio, depth);
+        json = new JsonSerializer(false).serialize(company);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        deserializer = new JsonDeserializer();
+        jackson = new JacksonStreamingCodec();
+    }
+    
+    @Benchmark
+    public Company deserializeString() {
+        return deserializer.deserialize(json, Company.class);
+    }
+    
+    @Benchmark
+    public Company deserializeUtf8Bytes() {
+        return deserializer.deserialize(jsonBytes, Company.class);
+    }
+    
+    @Benchmark
+    public int jacksonStreamingScan() throws IOException {
+        return jackson.scan(jsonBytes);
+    }
+}
@@ -0,0 +1,64 @@
+package pw.ns2030.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pw.ns2030.models.Company;
+import pw.ns2030.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность сериализации графа Company.
+ * Байты на операцию — метрика gc.alloc.rate.norm GC-профайлера.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializerBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    public int size;
+    
+    @Param({"0.0", "0.5"})
+    public double sharingRatio;
+    
+    @Param({"1", "32", "1024"})
+    public int depth;
+    
+    private Company company;
+    private JsonSerializer compact;
+    private JsonSerializer pretty;
+    private JacksonStreamingCodec jackson;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        company = GraphGenerator.generate(size, sharingRatio, depth);
+        compact = new JsonSerializer(false);
+        pretty = new JsonSerializer(true);
+        jackson = new JacksonStreamingCodec();
+    }
+    
+    @Benchmark
+    public String serializeString() {
+        return compact.serialize(company);
+    }
+    
+    @Benchmark
+    public String serializePrettyString() {
+        return pretty.serialize(company);
+    }
+    
+    @Benchmark
+    public void serializeUtf8Buffer(Blackhole blackhole) {
+        blackhole.consume(compact.serializeToBuffer(company).size());
+    }
+    
+    @Benchmark
+    public byte[] jacksonStreamingWrite() throws IOException {
+        return jackson.write(company);
+    }
+}
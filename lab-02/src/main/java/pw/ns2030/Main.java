@@ -4,9 +4,12 @@ import pw.ns2030.models.Company;
 import pw.ns2030.models.Department;
 import pw.ns2030.models.Person;
 import pw.ns2030.serializer.JsonDeserializer;
+import pw.ns2030.serializer.JsonMetrics;
 import pw.ns2030.serializer.JsonSerializer;
 import pw.ns2030.exceptions.JsonException;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Arrays;
 import java.util.List;
 
@@ -27,6 +30,7 @@ public class Main {
         testDeserializationByClassName();
         testComplexObjectGraph();
         testJsonModificationBeforeDeserialization();
+        testAllocationMetrics();
     }
     
     /**
@@ -219,6 +223,10 @@ public class Main {
         
         try {
             JsonSerializer serializer = new JsonSerializer(true);
+            JsonDeserializer deserializer = new JsonDeserializer();
+            JsonMetrics metrics = new JsonMetrics();
+            serializer.setMetricsListener(metrics);
+            deserializer.setMetricsListener(metrics);
             
             // Создаем компанию
             Company company = new Company("МегаКорп", "СПб, Невский пр., 100", 2010);
@@ -261,7 +269,11 @@ public class Main {
             
             // Проверяем размер JSON
             System.out.println("Размер JSON: " + json.length() + " символов");
-            System.out.println("Статистика трекера: " + serializer.getReferenceTracker().getStatistics());
+            
+            // Обратное преобразование, чтобы в метриках были обе стороны
+            deserializer.deserialize(json, Company.class);
+            System.out.println("Метрики:");
+            System.out.println(metrics);
             System.out.println();
             
         } catch (Exception e) {
@@ -348,4 +360,63 @@ public class Main {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Тест 8: Объем памяти, выделяемой при сериализации.
+     * Замеряет байты, выделенные потоком на один вызов serialize и на один объект графа.
+     * Первый вызов включает построение описаний классов и буферов,
+     * повторные используют кэш описаний, таблицу отступов и пул буферов.
+     */
+    private static void testAllocationMetrics() {
+        System.out.println("--- Тест 8: Аллокации при сериализации ---");
+        
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean) ||
+            !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            System.out.println("Замер аллокаций не поддерживается этой JVM");
+            System.out.println();
+            return;
+        }
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().threadId();
+        
+        // Компания: 10 отделов по 50 сотрудников
+        Company company = new Company("АллокКорп", "Новосибирск", 2000);
+        for (int d = 0; d < 10; d++) {
+            Department dept = new Department("Отдел " + d, null, company);
+            for (int i = 0; i < 50; i++) {
+                Person person = new Person("Сотрудник " + d + "-" + i, 20 + i, "user" + i + "@corp.ru");
+                dept.addEmployee(person);
+                company.addEmployee(person);
+            }
+            dept.setManager(dept.getEmployees().get(0));
+            dept.setProjects(new String[]{"Проект A", "Проект B"});
+            dept.setBudget(100000.0 * (d + 1));
+            company.addDepartment(dept);
+        }
+        
+        for (boolean pretty : new boolean[]{false, true}) {
+            JsonSerializer serializer = new JsonSerializer(pretty);
+            
+            long start = mx.getThreadAllocatedBytes(threadId);
+            serializer.serialize(company);
+            long first = mx.getThreadAllocatedBytes(threadId) - start;
+            int objects = serializer.getReferenceTracker().getTrackedObjectCount();
+            
+            // Прогрев, затем замер установившегося режима
+            for (int i = 0; i < 1000; i++) {
+                serializer.serialize(company);
+            }
+            int iterations = 200;
+            start = mx.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                serializer.serialize(company);
+            }
+            long perCall = (mx.getThreadAllocatedBytes(threadId) - start) / iterations;
+            
+            System.out.printf("%s: объектов %d, первый вызов %d байт, далее %d байт/вызов, %d байт/объект%n",
+                    pretty ? "Pretty print" : "Компактный", objects, first, perCall, perCall / objects);
+        }
+        System.out.println();
+    }
+}
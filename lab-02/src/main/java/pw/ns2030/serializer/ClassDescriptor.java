@@ -0,0 +1,267 @@
+package pw.ns2030.serializer;
+
+import pw.ns2030.annotations.JsonField;
+import pw.ns2030.annotations.JsonIgnore;
+import pw.ns2030.annotations.JsonSerializable;
+import pw.ns2030.exceptions.JsonException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэшируемое описание сериализуемого класса.
+ * Рефлексия (обход иерархии, чтение аннотаций, сортировка по order)
+ * выполняется один раз на класс, а не при каждой сериализации объекта.
+ */
+public final class ClassDescriptor {
+    
+    private static final Map<Class<?>, ClassDescriptor> CACHE = new ConcurrentHashMap<>();
+    
+    private final Class<?> type;
+    private final JsonSerializable annotation;
+    private final List<FieldDescriptor> fields;
+    private final long[] requiredMask;
+    private volatile Constructor<?> constructor;
+    
+    private ClassDescriptor(Class<?> type) {
+        this.type = type;
+        this.annotation = type.getAnnotation(JsonSerializable.class);
+        this.fields = Collections.unmodifiableList(collectFields(type));
+        this.requiredMask = new long[Math.max(1, (fields.size() + 63) >>> 6)];
+        for (FieldDescriptor field : fields) {
+            if (field.isRequired()) {
+                requiredMask[field.getIndex() >>> 6] |= 1L << field.getIndex();
+            }
+        }
+    }
+    
+    /**
+     * Возвращает описание класса, создавая его при первом обращении.
+     * @param type класс
+     * @return описание класса
+     */
+    public static ClassDescriptor of(Class<?> type) {
+        return CACHE.computeIfAbsent(type, ClassDescriptor::new);
+    }
+    
+    /**
+     * Возвращает описание класса и сообщает слушателю, было ли оно в кэше.
+     * @param type класс
+     * @param listener слушатель метрик
+     * @return описание класса
+     */
+    public static ClassDescriptor of(Class<?> type, JsonMetricsListener listener) {
+        ClassDescriptor descriptor = CACHE.get(type);
+        boolean cacheHit = descriptor != null;
+        if (!cacheHit) {
+            descriptor = CACHE.computeIfAbsent(type, ClassDescriptor::new);
+        }
+        listener.onDescriptorLookup(type, cacheHit);
+        return descriptor;
+    }
+    
+    public Class<?> getType() {
+        return type;
+    }
+    
+    /**
+     * Проверяет наличие аннотации @JsonSerializable.
+     */
+    public boolean isSerializable() {
+        return annotation != null;
+    }
+    
+    public boolean includeNulls() {
+        return annotation == null || annotation.includeNulls();
+    }
+    
+    /**
+     * Сериализуемые поля в порядке вывода (с учетом {@link JsonField#order()}).
+     */
+    public List<FieldDescriptor> getFields() {
+        return fields;
+    }
+    
+    /**
+     * Битовая маска обязательных полей по их {@link FieldDescriptor#getIndex()},
+     * по 64 поля на слово. Массив общий и не должен изменяться.
+     */
+    long[] getRequiredMask() {
+        return requiredMask;
+    }
+    
+    /**
+     * Находит первое обязательное поле, отсутствующее в маске присутствующих полей.
+     * @param seen маска присутствующих полей той же длины, что и {@link #getRequiredMask()}
+     * @return отсутствующее поле или null, если все обязательные поля на месте
+     */
+    FieldDescriptor findMissingRequired(long[] seen) {
+        for (int word = 0; word < requiredMask.length; word++) {
+            long missing = requiredMask[word] & ~seen[word];
+            if (missing != 0) {
+                return fields.get((word << 6) + Long.numberOfTrailingZeros(missing));
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Вариант {@link #findMissingRequired(long[])} для классов не более чем с 64 полями.
+     */
+    FieldDescriptor findMissingRequired(long seen) {
+        long missing = requiredMask[0] & ~seen;
+        return missing != 0 ? fields.get(Long.numberOfTrailingZeros(missing)) : null;
+    }
+    
+    /**
+     * Создает экземпляр через конструктор по умолчанию (кэшируется после первого вызова).
+     */
+    public Object newInstance() {
+        try {
+            Constructor<?> c = constructor;
+            if (c == null) {
+                c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                constructor = c;
+            }
+            return c.newInstance();
+        } catch (Exception e) {
+            throw new JsonException.DeserializationException(
+                "Не удалось создать экземпляр класса " + type.getSimpleName() + 
+                ". Убедитесь, что у класса есть конструктор по умолчанию", e);
+        }
+    }
+    
+    /**
+     * Собирает поля класса и суперклассов, отбрасывая игнорируемые,
+     * и сортирует их по порядку из аннотации (сортировка стабильная).
+     */
+    private static List<FieldDescriptor> collectFields(Class<?> type) {
+        List<Field> all = new ArrayList<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            all.addAll(Arrays.asList(c.getDeclaredFields()));
+        }
+        
+        all.sort(Comparator.comparingInt(ClassDescriptor::orderOf));
+        
+        List<FieldDescriptor> result = new ArrayList<>();
+        for (Field field : all) {
+            if (!isSkipped(field)) {
+                result.add(new FieldDescriptor(field, result.size()));
+            }
+        }
+        return result;
+    }
+    
+    private static int orderOf(Field field) {
+        JsonField jsonField = field.getAnnotation(JsonField.class);
+        return jsonField != null ? jsonField.order() : 0;
+    }
+    
+    private static boolean isSkipped(Field field) {
+        int modifiers = field.getModifiers();
+        return field.isAnnotationPresent(JsonIgnore.class) ||
+               Modifier.isStatic(modifiers) ||
+               Modifier.isTransient(modifiers);
+    }
+    
+    /**
+     * Описание одного сериализуемого поля.
+     * Хранит готовый фрагмент {@code "name":} в виде строки и байтов UTF-8,
+     * чтобы при записи имя не экранировалось и не кодировалось повторно.
+     */
+    public static final class FieldDescriptor {
+        
+        private final Field field;
+        private final Type genericType;
+        private final int expectedKinds;
+        private final int index;
+        private final String jsonName;
+        private final boolean required;
+        private final String encodedName;
+        private final byte[] encodedNameBytes;
+        private final byte[] nameBytes;
+        
+        private FieldDescriptor(Field field, int index) {
+            this.field = field;
+            this.genericType = field.getGenericType();
+            this.expectedKinds = JsonValueKind.expectedFor(genericType);
+            this.index = index;
+            
+            JsonField jsonField = field.getAnnotation(JsonField.class);
+            this.jsonName = jsonField != null ? jsonField.value() : field.getName();
+            this.required = jsonField != null && jsonField.required();
+            this.encodedName = "\"" + StringJsonWriter.escape(jsonName) + "\":";
+            this.encodedNameBytes = encodedName.getBytes(StandardCharsets.UTF_8);
+            this.nameBytes = StringJsonWriter.escape(jsonName).getBytes(StandardCharsets.UTF_8);
+            
+            field.setAccessible(true);
+        }
+        
+        public Field getField() {
+            return field;
+        }
+        
+        public Type getGenericType() {
+            return genericType;
+        }
+        
+        /**
+         * Маска допустимых видов JSON-значения (см. {@link JsonValueKind}).
+         */
+        int getExpectedKinds() {
+            return expectedKinds;
+        }
+        
+        /**
+         * Порядковый номер поля в описании класса.
+         */
+        public int getIndex() {
+            return index;
+        }
+        
+        public String getJsonName() {
+            return jsonName;
+        }
+        
+        public boolean isRequired() {
+            return required;
+        }
+        
+        /**
+         * Имя поля в кавычках с двоеточием: {@code "name":}.
+         */
+        public String getEncodedName() {
+            return encodedName;
+        }
+        
+        /**
+         * То же, что {@link #getEncodedName()}, в кодировке UTF-8.
+         * Массив общий для всех вызовов и не должен изменяться.
+         */
+        byte[] getEncodedNameBytes() {
+            return encodedNameBytes;
+        }
+        
+        /**
+         * Экранированное имя поля в UTF-8 без кавычек — так, как оно
+         * записывается сериализатором между кавычками ключа.
+         */
+        byte[] getNameBytes() {
+            return nameBytes;
+        }
+        
+        public Object get(Object target) throws IllegalAccessException {
+            return field.get(target);
+        }
+        
+        public void set(Object target, Object value) throws IllegalAccessException {
+            field.set(target, value);
+        }
+    }
+}
@@ -1,16 +1,10 @@
 package pw.ns2030.serializer;
 
-import pw.ns2030.annotations.JsonField;
-import pw.ns2030.annotations.JsonIgnore;
-import pw.ns2030.annotations.JsonSerializable;
 import pw.ns2030.exceptions.JsonException;
 
-import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 /**
  * Класс для десериализации JSON в Java-объекты.
@@ -19,9 +13,35 @@ import java.util.*;
 public class JsonDeserializer {
     
     private final ReferenceTracker referenceTracker;
+    private final boolean validateBeforeBinding;
+    private JsonMetricsListener metricsListener = JsonMetricsListener.NONE;
     
     public JsonDeserializer() {
+        this(false);
+    }
+    
+    /**
+     * @param validateBeforeBinding проверять документ по схеме классов
+     *                              до создания объектов. Невалидный документ
+     *                              отклоняется без построения частичного графа;
+     *                              ценой служит дополнительный проход без аллокаций.
+     */
+    public JsonDeserializer(boolean validateBeforeBinding) {
         this.referenceTracker = new ReferenceTracker();
+        this.validateBeforeBinding = validateBeforeBinding;
+    }
+    
+    /**
+     * Подключает слушателя метрик (объекты, ссылки, объем, время по классам).
+     * По умолчанию используется {@link JsonMetricsListener#NONE}: время не замеряется.
+     * @param listener слушатель или null для отключения
+     */
+    public void setMetricsListener(JsonMetricsListener listener) {
+        this.metricsListener = listener != null ? listener : JsonMetricsListener.NONE;
+    }
+    
+    public JsonMetricsListener getMetricsListener() {
+        return metricsListener;
     }
     
     /**
@@ -35,439 +55,117 @@ public class JsonDeserializer {
             throw new JsonException.DeserializationException("JSON строка не может быть пустой");
         }
         
-        if (json.trim().equals("null")) {
-            return null;
-        }
-        
-        try {
-            referenceTracker.clear();
-            Object result = deserializeValue(json.trim(), clazz);
-            return clazz.cast(result);
-        } catch (JsonException e) {
-            // Если это уже JsonException, просто перебрасываем
-            throw e;
-        } catch (Exception e) {
-            // Любые другие исключения оборачиваем в JsonException
-            throw new JsonException.DeserializationException("Ошибка десериализации", e);
-        }
+        // Строка разбирается тем же итеративным парсером, что и файлы:
+        // глубина вложенности не ограничена стеком потока
+        return deserialize(json.getBytes(StandardCharsets.UTF_8), clazz);
     }
     
     /**
-     * Десериализует JSON по имени класса.
-     * @param json JSON строка
-     * @param className имя класса
+     * Десериализует JSON из файла в кодировке UTF-8.
+     * Файл отображается в память и разбирается по байтам на месте,
+     * без чтения в {@code String}: строки декодируются только для
+     * присваиваемых полей, поэтому большие файлы не нагружают кучу.
+     * @param path путь к файлу
+     * @param clazz класс результирующего объекта
      * @return десериализованный объект
      */
-    public Object deserializeByClassName(String json, String className) {
+    public <T> T deserialize(Path path, Class<T> clazz) {
         try {
-            Class<?> clazz = Class.forName(className);
-            return deserialize(json, clazz);
-        } catch (ClassNotFoundException e) {
-            throw new JsonException.DeserializationException("Класс не найден: " + className, e);
+            return deserialize(Utf8JsonReader.map(path, referenceTracker), clazz);
+        } catch (IOException e) {
+            throw new JsonException.DeserializationException("Не удалось прочитать файл: " + path, e);
         }
     }
     
     /**
-     * Основной метод десериализации значения.
+     * Десериализует JSON из массива байт в кодировке UTF-8.
+     * @param json JSON в кодировке UTF-8
+     * @param clazz класс результирующего объекта
+     * @return десериализованный объект
      */
-    private Object deserializeValue(String json, Type type) throws Exception {
-        json = json.trim();
-        
-        if (json.equals("null")) {
-            return null;
-        }
-        
-        // Проверяем на ссылку
-        if (ReferenceTracker.isReference(json)) {
-            String refId = ReferenceTracker.extractReferenceId(json);
-            Object referencedObject = referenceTracker.getObjectById(refId);
-            if (referencedObject == null) {
-                throw new JsonException.DeserializationException("Ссылка не найдена: " + refId);
-            }
-            return referencedObject;
-        }
-        
-        // Определяем тип
-        Class<?> clazz = (type instanceof Class) ? (Class<?>) type : (Class<?>) ((ParameterizedType) type).getRawType();
-        
-        // Примитивы и строки
-        if (isPrimitiveType(clazz)) {
-            return deserializePrimitive(json, clazz);
-        }
-        
-        // Массивы
-        if (json.startsWith("[")) {
-            return deserializeArray(json, type);
-        }
-        
-        // Объекты
-        if (json.startsWith("{")) {
-            return deserializeObject(json, clazz);
+    public <T> T deserialize(byte[] json, Class<T> clazz) {
+        if (json == null) {
+            throw new JsonException.DeserializationException("JSON строка не может быть пустой");
         }
-        
-        throw new JsonException.DeserializationException("Неподдерживаемый формат JSON: " + json);
+        return deserialize(Utf8JsonReader.of(json, referenceTracker), clazz);
     }
     
     /**
-     * Десериализация примитивных типов.
+     * Проверяет JSON-файл по схеме класса, не создавая объектов.
+     * Проверяются обязательные поля ({@code @JsonField(required = true)}) и вид
+     * значения каждого известного поля (строка, число, массив, объект...).
+     * @param path путь к файлу
+     * @param clazz ожидаемый класс корневого объекта
+     * @throws JsonException.DeserializationException если документ не соответствует схеме
      */
-    private Object deserializePrimitive(String json, Class<?> clazz) {
+    public void validate(Path path, Class<?> clazz) {
         try {
-            if (clazz == String.class) {
-                if (!json.startsWith("\"") || !json.endsWith("\"")) {
-                    throw new JsonException.DeserializationException("Строка должна быть в кавычках: " + json);
-                }
-                return unescapeString(json.substring(1, json.length() - 1));
-            }
-            
-            if (clazz == int.class || clazz == Integer.class) {
-                return Integer.parseInt(json);
-            }
-            
-            if (clazz == long.class || clazz == Long.class) {
-                return Long.parseLong(json);
-            }
-            
-            if (clazz == double.class || clazz == Double.class) {
-                return Double.parseDouble(json);
-            }
-            
-            if (clazz == float.class || clazz == Float.class) {
-                return Float.parseFloat(json);
-            }
-            
-            if (clazz == boolean.class || clazz == Boolean.class) {
-                return Boolean.parseBoolean(json);
-            }
-            
-            if (clazz == byte.class || clazz == Byte.class) {
-                return Byte.parseByte(json);
-            }
-            
-            if (clazz == short.class || clazz == Short.class) {
-                return Short.parseShort(json);
-            }
-            
-            if (clazz == char.class || clazz == Character.class) {
-                String str = unescapeString(json.substring(1, json.length() - 1));
-                return str.length() > 0 ? str.charAt(0) : '\0';
-            }
-            
-            throw new JsonException.DeserializationException("Неподдерживаемый примитивный тип: " + clazz);
-            
-        } catch (NumberFormatException e) {
-            throw new JsonException.DeserializationException("Некорректное числовое значение: " + json, e);
+            validate(Utf8JsonReader.map(path, referenceTracker), clazz);
+        } catch (IOException e) {
+            throw new JsonException.DeserializationException("Не удалось прочитать файл: " + path, e);
         }
     }
     
     /**
-     * Десериализация массивов и коллекций.
+     * Проверяет JSON в кодировке UTF-8 по схеме класса, не создавая объектов.
+     * @param json JSON в кодировке UTF-8
+     * @param clazz ожидаемый класс корневого объекта
+     * @throws JsonException.DeserializationException если документ не соответствует схеме
      */
-    private Object deserializeArray(String json, Type type) throws Exception {
-        List<String> elements = parseJsonArray(json);
-        
-        if (type instanceof Class && ((Class<?>) type).isArray()) {
-            // Обычный массив
-            Class<?> arrayClass = (Class<?>) type;
-            Class<?> componentType = arrayClass.getComponentType();
-            
-            Object array = Array.newInstance(componentType, elements.size());
-            for (int i = 0; i < elements.size(); i++) {
-                Object element = deserializeValue(elements.get(i), componentType);
-                Array.set(array, i, element);
-            }
-            return array;
-        }
-        
-        if (type instanceof ParameterizedType) {
-            // Коллекция с generic типом
-            ParameterizedType pt = (ParameterizedType) type;
-            Class<?> rawType = (Class<?>) pt.getRawType();
-            Type elementType = pt.getActualTypeArguments()[0];
-            
-            Collection<Object> collection;
-            if (List.class.isAssignableFrom(rawType)) {
-                collection = new ArrayList<>();
-            } else if (Set.class.isAssignableFrom(rawType)) {
-                collection = new HashSet<>();
-            } else {
-                throw new JsonException.DeserializationException("Неподдерживаемый тип коллекции: " + rawType);
-            }
-            
-            for (String element : elements) {
-                Object obj = deserializeValue(element, elementType);
-                collection.add(obj);
-            }
-            
-            return collection;
-        }
-        
-        // Обычный List без generic
-        List<Object> list = new ArrayList<>();
-        for (String element : elements) {
-            Object obj = deserializeValue(element, Object.class);
-            list.add(obj);
-        }
-        return list;
-    }
-    
-    /**
-     * Десериализация объектов.
-     */
-    private Object deserializeObject(String json, Class<?> clazz) throws Exception {
-        // Проверяем аннотацию
-        if (!clazz.isAnnotationPresent(JsonSerializable.class)) {
-            throw new JsonException.DeserializationException(
-                "Класс не помечен аннотацией @JsonSerializable", clazz.getSimpleName(), null);
-        }
-        
-        Map<String, String> fieldValues = parseJsonObject(json);
-        
-        // Создаем экземпляр объекта
-        Object instance = createInstance(clazz);
-        
-        // Регистрируем объект по ID (если есть)
-        String objectId = fieldValues.get("$id");
-        if (objectId != null) {
-            objectId = unescapeString(objectId.substring(1, objectId.length() - 1)); // убираем кавычки
-            referenceTracker.registerObject(objectId, instance);
-        }
-        
-        // Заполняем поля
-        for (Field field : getAllFields(clazz)) {
-            if (shouldSkipField(field)) {
-                continue;
-            }
-            
-            String fieldName = getFieldName(field);
-            String fieldValue = fieldValues.get(fieldName);
-            
-            if (fieldValue != null) {
-                field.setAccessible(true);
-                Object value = deserializeValue(fieldValue, field.getGenericType());
-                field.set(instance, value);
-            } else if (field.isAnnotationPresent(JsonField.class) && 
-                      field.getAnnotation(JsonField.class).required()) {
-                throw new JsonException.DeserializationException(
-                    "Обязательное поле отсутствует: " + fieldName, clazz.getSimpleName(), fieldName);
-            }
-        }
-        
-        return instance;
-    }
-    
-    // Вспомогательные методы аналогичны JsonSerializer
-    private List<Field> getAllFields(Class<?> clazz) {
-        List<Field> fields = new ArrayList<>();
-        while (clazz != null) {
-            fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
-            clazz = clazz.getSuperclass();
-        }
-        return fields;
-    }
-    
-    private boolean shouldSkipField(Field field) {
-        return field.isAnnotationPresent(JsonIgnore.class) || 
-               java.lang.reflect.Modifier.isStatic(field.getModifiers()) ||
-               java.lang.reflect.Modifier.isTransient(field.getModifiers());
-    }
-    
-    private String getFieldName(Field field) {
-        if (field.isAnnotationPresent(JsonField.class)) {
-            return field.getAnnotation(JsonField.class).value();
-        }
-        return field.getName();
-    }
-    
-    private boolean isPrimitiveType(Class<?> clazz) {
-        return clazz.isPrimitive() || 
-               clazz == String.class ||
-               clazz == Integer.class || clazz == Long.class ||
-               clazz == Double.class || clazz == Float.class ||
-               clazz == Boolean.class || clazz == Byte.class ||
-               clazz == Short.class || clazz == Character.class;
-    }
-    
-    private Object createInstance(Class<?> clazz) throws Exception {
-        try {
-            Constructor<?> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new JsonException.DeserializationException(
-                "Не удалось создать экземпляр класса " + clazz.getSimpleName() + 
-                ". Убедитесь, что у класса есть конструктор по умолчанию", e);
+    public void validate(byte[] json, Class<?> clazz) {
+        if (json == null) {
+            throw new JsonException.DeserializationException("JSON строка не может быть пустой");
         }
+        validate(Utf8JsonReader.of(json, referenceTracker), clazz);
     }
     
-    private String unescapeString(String str) {
-        return str.replace("\\\"", "\"")
-                  .replace("\\\\", "\\")
-                  .replace("\\n", "\n")
-                  .replace("\\r", "\r")
-                  .replace("\\t", "\t")
-                  .replace("\\b", "\b")
-                  .replace("\\f", "\f");
-    }
-    
-    // Простой парсер JSON (базовая реализация)
-    private List<String> parseJsonArray(String json) {
-        // Убираем [ и ]
-        json = json.substring(1, json.length() - 1).trim();
-        
-        if (json.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        List<String> elements = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        int depth = 0;
-        boolean inString = false;
-        boolean escaped = false;
-        
-        for (char c : json.toCharArray()) {
-            if (escaped) {
-                current.append(c);
-                escaped = false;
-                continue;
-            }
-            
-            if (c == '\\') {
-                escaped = true;
-                current.append(c);
-                continue;
-            }
-            
-            if (c == '"') {
-                inString = !inString;
-                current.append(c);
-                continue;
-            }
-            
-            if (!inString) {
-                if (c == '{' || c == '[') {
-                    depth++;
-                } else if (c == '}' || c == ']') {
-                    depth--;
-                } else if (c == ',' && depth == 0) {
-                    elements.add(current.toString().trim());
-                    current = new StringBuilder();
-                    continue;
-                }
-            }
-            
-            current.append(c);
-        }
-        
-        if (current.length() > 0) {
-            elements.add(current.toString().trim());
+    private void validate(Utf8JsonReader reader, Class<?> clazz) {
+        reader.setMetricsListener(metricsListener);
+        if (reader.isBlank()) {
+            throw new JsonException.DeserializationException("JSON строка не может быть пустой");
         }
-        
-        return elements;
+        reader.validateDocument(clazz);
     }
     
-    private Map<String, String> parseJsonObject(String json) {
-        // Убираем { и }
-        json = json.substring(1, json.length() - 1).trim();
-        
-        Map<String, String> result = new HashMap<>();
-        
-        if (json.isEmpty()) {
-            return result;
+    private <T> T deserialize(Utf8JsonReader reader, Class<T> clazz) {
+        reader.setMetricsListener(metricsListener);
+        if (reader.isBlank()) {
+            throw new JsonException.DeserializationException("JSON строка не может быть пустой");
         }
         
-        // Простой парсер пар ключ-значение
-        List<String> pairs = new ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        int depth = 0;
-        boolean inString = false;
-        boolean escaped = false;
+        boolean timed = metricsListener != JsonMetricsListener.NONE;
+        long start = timed ? System.nanoTime() : 0;
         
-        for (char c : json.toCharArray()) {
-            if (escaped) {
-                current.append(c);
-                escaped = false;
-                continue;
-            }
-            
-            if (c == '\\') {
-                escaped = true;
-                current.append(c);
-                continue;
-            }
-            
-            if (c == '"') {
-                inString = !inString;
-                current.append(c);
-                continue;
-            }
-            
-            if (!inString) {
-                if (c == '{' || c == '[') {
-                    depth++;
-                } else if (c == '}' || c == ']') {
-                    depth--;
-                } else if (c == ',' && depth == 0) {
-                    pairs.add(current.toString().trim());
-                    current = new StringBuilder();
-                    continue;
-                }
-            }
-            
-            current.append(c);
-        }
-        
-        if (current.length() > 0) {
-            pairs.add(current.toString().trim());
+        if (validateBeforeBinding) {
+            reader.validateDocument(clazz);
         }
         
-        for (String pair : pairs) {
-            int colonIndex = findColonIndex(pair);
-            if (colonIndex == -1) {
-                throw new JsonException.DeserializationException("Некорректная пара ключ-значение: " + pair);
-            }
-            
-            String key = pair.substring(0, colonIndex).trim();
-            String value = pair.substring(colonIndex + 1).trim();
-            
-            // Убираем кавычки с ключа
-            if (key.startsWith("\"") && key.endsWith("\"")) {
-                key = key.substring(1, key.length() - 1);
+        try {
+            referenceTracker.clear();
+            Object result = reader.readDocument(clazz);
+            if (timed) {
+                metricsListener.onDocumentRead(clazz, reader.length(), System.nanoTime() - start);
             }
-            
-            result.put(key, value);
+            return clazz.cast(result);
+        } catch (JsonException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonException.DeserializationException("Ошибка десериализации", e);
         }
-        
-        return result;
     }
     
-    private int findColonIndex(String pair) {
-        boolean inString = false;
-        boolean escaped = false;
-        
-        for (int i = 0; i < pair.length(); i++) {
-            char c = pair.charAt(i);
-            
-            if (escaped) {
-                escaped = false;
-                continue;
-            }
-            
-            if (c == '\\') {
-                escaped = true;
-                continue;
-            }
-            
-            if (c == '"') {
-                inString = !inString;
-                continue;
-            }
-            
-            if (!inString && c == ':') {
-                return i;
-            }
+    /**
+     * Десериализует JSON по имени класса.
+     * @param json JSON строка
+     * @param className имя класса
+     * @return десериализованный объект
+     */
+    public Object deserializeByClassName(String json, String className) {
+        try {
+            Class<?> clazz = Class.forName(className);
+            return deserialize(json, clazz);
+        } catch (ClassNotFoundException e) {
+            throw new JsonException.DeserializationException("Класс не найден: " + className, e);
         }
-        
-        return -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package pw.ns2030.serializer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопитель метрик JSON-кодека: счетчики объектов, ссылок, объема
+ * и времени, попадания в кэш описаний классов, время по классам.
+ * Потокобезопасен: один экземпляр можно подключить к нескольким
+ * сериализаторам и десериализаторам, работающим параллельно.
+ */
+public class JsonMetrics implements JsonMetricsListener {
+    
+    private final LongAdder documentsWritten = new LongAdder();
+    private final LongAdder documentsRead = new LongAdder();
+    private final LongAdder objectsWritten = new LongAdder();
+    private final LongAdder objectsRead = new LongAdder();
+    private final LongAdder referencesEmitted = new LongAdder();
+    private final LongAdder referencesResolved = new LongAdder();
+    private final LongAdder bytesProduced = new LongAdder();
+    private final LongAdder charsProduced = new LongAdder();
+    private final LongAdder bytesConsumed = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder descriptorHits = new LongAdder();
+    private final LongAdder descriptorMisses = new LongAdder();
+    
+    private final Map<Class<?>, ClassStats> perClass = new ConcurrentHashMap<>();
+    
+    @Override
+    public void onDescriptorLookup(Class<?> type, boolean cacheHit) {
+        (cacheHit ? descriptorHits : descriptorMisses).increment();
+    }
+    
+    @Override
+    public void onObjectWritten(Class<?> type, long nanos) {
+        objectsWritten.increment();
+        ClassStats stats = statsFor(type);
+        stats.written.increment();
+        stats.writeNanos.add(nanos);
+    }
+    
+    @Override
+    public void onReferenceEmitted(Class<?> type) {
+        referencesEmitted.increment();
+    }
+    
+    @Override
+    public void onDocumentWritten(Class<?> rootType, long bytes, long chars, long nanos) {
+        documentsWritten.increment();
+        bytesProduced.add(bytes);
+        charsProduced.add(chars);
+        writeNanos.add(nanos);
+    }
+    
+    @Override
+    public void onObjectRead(Class<?> type, long nanos) {
+        objectsRead.increment();
+        ClassStats stats = statsFor(type);
+        stats.read.increment();
+        stats.readNanos.add(nanos);
+    }
+    
+    @Override
+    public void onReferenceResolved(Class<?> type) {
+        referencesResolved.increment();
+    }
+    
+    @Override
+    public void onDocumentRead(Class<?> rootType, long bytes, long nanos) {
+        documentsRead.increment();
+        bytesConsumed.add(bytes);
+        readNanos.add(nanos);
+    }
+    
+    private ClassStats statsFor(Class<?> type) {
+        ClassStats stats = perClass.get(type);
+        return stats != null ? stats : perClass.computeIfAbsent(type, t -> new ClassStats());
+    }
+    
+    public long getDocumentsWritten() {
+        return documentsWritten.sum();
+    }
+    
+    public long getDocumentsRead() {
+        return documentsRead.sum();
+    }
+    
+    public long getObjectsWritten() {
+        return objectsWritten.sum();
+    }
+    
+    public long getObjectsRead() {
+        return objectsRead.sum();
+    }
+    
+    public long getReferencesEmitted() {
+        return referencesEmitted.sum();
+    }
+    
+    public long getReferencesResolved() {
+        return referencesResolved.sum();
+    }
+    
+    public long getBytesProduced() {
+        return bytesProduced.sum();
+    }
+    
+    public long getCharsProduced() {
+        return charsProduced.sum();
+    }
+    
+    public long getBytesConsumed() {
+        return bytesConsumed.sum();
+    }
+    
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+    
+    public long getReadNanos() {
+        return readNanos.sum();
+    }
+    
+    /**
+     * Доля обращений к кэшу описаний классов, найденных в кэше (0..1).
+     */
+    public double getDescriptorHitRate() {
+        long hits = descriptorHits.sum();
+        long total = hits + descriptorMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    /**
+     * Статистика по классу или null, если объекты класса не встречались.
+     */
+    public ClassStats getClassStats(Class<?> type) {
+        return perClass.get(type);
+    }
+    
+    /**
+     * Обнуляет все счетчики.
+     */
+    public void reset() {
+        for (LongAdder adder : new LongAdder[]{documentsWritten, documentsRead, objectsWritten, objectsRead,
+                referencesEmitted, referencesResolved, bytesProduced, charsProduced, bytesConsumed,
+                writeNanos, readNanos, descriptorHits, descriptorMisses}) {
+            adder.reset();
+        }
+        perClass.clear();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Сериализация: документов %d, объектов %d, ссылок $ref %d, байт %d, символов %d, время %.3f мс%n",
+                getDocumentsWritten(), getObjectsWritten(), getReferencesEmitted(),
+                getBytesProduced(), getCharsProduced(), getWriteNanos() / 1e6));
+        sb.append(String.format("Десериализация: документов %d, объектов %d, ссылок $ref %d, байт %d, время %.3f мс%n",
+                getDocumentsRead(), getObjectsRead(), getReferencesResolved(),
+                getBytesConsumed(), getReadNanos() / 1e6));
+        sb.append(String.format("Кэш описаний классов: попаданий %.1f%%", getDescriptorHitRate() * 100));
+        
+        List<Map.Entry<Class<?>, ClassStats>> entries = new ArrayList<>(perClass.entrySet());
+        entries.sort(Comparator.comparing(e -> e.getKey().getSimpleName()));
+        for (Map.Entry<Class<?>, ClassStats> entry : entries) {
+            ClassStats stats = entry.getValue();
+            sb.append(String.format("%n  %s: записано %d (%.3f мс), прочитано %d (%.3f мс)",
+                    entry.getKey().getSimpleName(),
+                    stats.getWritten(), stats.getWriteNanos() / 1e6,
+                    stats.getRead(), stats.getReadNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Счетчики по одному классу. Время включает вложенные объекты.
+     */
+    public static final class ClassStats {
+        private final LongAdder written = new LongAdder();
+        private final LongAdder read = new LongAdder();
+        private final LongAdder writeNanos = new LongAdder();
+        private final LongAdder readNanos = new LongAdder();
+        
+        public long getWritten() {
+            return written.sum();
+        }
+        
+        public long getRead() {
+            return read.sum();
+        }
+        
+        public long getWriteNanos() {
+            return writeNanos.sum();
+        }
+        
+        public long getReadNanos() {
+            return readNanos.sum();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pw.ns2030.serializer;
+
+/**
+ * Слушатель событий сериализации и десериализации.
+ * Подключается через {@code setMetricsListener} у {@link JsonSerializer}
+ * и {@link JsonDeserializer}; все методы по умолчанию ничего не делают,
+ * поэтому реализация может переопределить только нужные.
+ *
+ * Время передается в наносекундах. Время объекта включает время
+ * вложенных в него объектов.
+ */
+public interface JsonMetricsListener {
+    
+    /**
+     * Слушатель по умолчанию: ничего не делает, время не замеряется.
+     */
+    JsonMetricsListener NONE = new JsonMetricsListener() { };
+    
+    /**
+     * Обращение к кэшу описаний классов.
+     * @param type класс
+     * @param cacheHit true, если описание уже было в кэше
+     */
+    default void onDescriptorLookup(Class<?> type, boolean cacheHit) {
+    }
+    
+    /**
+     * Объект записан целиком (от открывающей до закрывающей скобки).
+     */
+    default void onObjectWritten(Class<?> type, long nanos) {
+    }
+    
+    /**
+     * Вместо повторного объекта записана ссылка {@code {"$ref": ...}}.
+     */
+    default void onReferenceEmitted(Class<?> type) {
+    }
+    
+    /**
+     * Документ сериализован.
+     * @param rootType класс корневого объекта
+     * @param bytes размер результата в байтах UTF-8 (0 для строкового вывода)
+     * @param chars размер результата в символах (0 для байтового вывода)
+     * @param nanos время сериализации
+     */
+    default void onDocumentWritten(Class<?> rootType, long bytes, long chars, long nanos) {
+    }
+    
+    /**
+     * Объект восстановлен целиком (все поля присвоены).
+     */
+    default void onObjectRead(Class<?> type, long nanos) {
+    }
+    
+    /**
+     * Ссылка {@code {"$ref": ...}} разрешена в ранее восстановленный объект.
+     */
+    default void onReferenceResolved(Class<?> type) {
+    }
+    
+    /**
+     * Документ десериализован.
+     * @param rootType ожидаемый класс корневого объекта
+     * @param bytes размер входных данных в байтах UTF-8
+     * @param nanos время десериализации
+     */
+    default void onDocumentRead(Class<?> rootType, long bytes, long nanos) {
+    }
+}
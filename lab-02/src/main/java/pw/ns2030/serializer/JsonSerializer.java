@@ -1,13 +1,13 @@
 package pw.ns2030.serializer;
 
-import pw.ns2030.annotations.JsonField;
-import pw.ns2030.annotations.JsonIgnore;
-import pw.ns2030.annotations.JsonSerializable;
 import pw.ns2030.exceptions.JsonException;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -16,8 +16,30 @@ import java.util.*;
  */
 public class JsonSerializer {
     
+    // Готовые отступы для pretty print: по 2 пробела на уровень вложенности
+    private static final String[] INDENTS = new String[64];
+    
+    static {
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = " ".repeat(i * 2);
+        }
+    }
+    
+    // Буферы больше этого размера (в символах) не возвращаются в пул, чтобы не удерживать память
+    private static final int MAX_POOLED_CAPACITY = 1 << 20;
+    
+    // Переиспользуемый буфер serialize(Object), один на поток; пустая ячейка - буфер занят
+    private static final ThreadLocal<StringJsonWriter[]> STRING_WRITER_POOL =
+        ThreadLocal.withInitial(() -> new StringJsonWriter[1]);
+    
     private final ReferenceTracker referenceTracker;
     private final boolean prettyPrint;
+    private final Utf8JsonWriter byteWriter = new Utf8JsonWriter();
+    private JsonMetricsListener metricsListener = JsonMetricsListener.NONE;
+    
+    // Явный стек обхода графа (см. serializeObject)
+    private Frame[] stack = new Frame[16];
+    private int stackSize;
     
     public JsonSerializer() {
         this(false);
@@ -28,6 +50,19 @@ public class JsonSerializer {
         this.prettyPrint = prettyPrint;
     }
     
+    /**
+     * Подключает слушателя метрик (объекты, ссылки, объем, время по классам).
+     * По умолчанию используется {@link JsonMetricsListener#NONE}: время не замеряется.
+     * @param listener слушатель или null для отключения
+     */
+    public void setMetricsListener(JsonMetricsListener listener) {
+        this.metricsListener = listener != null ? listener : JsonMetricsListener.NONE;
+    }
+    
+    public JsonMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+    
     /**
      * Сериализует объект в JSON строку.
      * @param obj объект для сериализации
@@ -38,12 +73,100 @@ public class JsonSerializer {
             return "null";
         }
         
+        StringJsonWriter[] pool = STRING_WRITER_POOL.get();
+        StringJsonWriter out = pool[0];
+        if (out == null) {
+            // Буфер уже используется выше по стеку этого потока
+            out = new StringJsonWriter(new StringBuilder(1024));
+        } else {
+            pool[0] = null;
+        }
+        
+        try {
+            write(obj, out);
+            return out.toString();
+        } finally {
+            out.reset();
+            if (out.capacity() <= MAX_POOLED_CAPACITY) {
+                pool[0] = out;
+            }
+        }
+    }
+    
+    /**
+     * Сериализует объект сразу в байты UTF-8, минуя промежуточную строку.
+     * @param obj объект для сериализации
+     * @return JSON в кодировке UTF-8
+     */
+    public byte[] serializeToBytes(Object obj) {
+        return serializeToBuffer(obj).toByteArray();
+    }
+    
+    /**
+     * Сериализует объект во внутренний переиспользуемый UTF-8 буфер.
+     * Возвращаемый буфер действителен до следующего вызова сериализатора.
+     * @param obj объект для сериализации
+     * @return буфер с JSON в кодировке UTF-8
+     */
+    public Utf8JsonWriter serializeToBuffer(Object obj) {
+        byteWriter.reset();
+        if (obj == null) {
+            byteWriter.writeRaw("null");
+        } else {
+            write(obj, byteWriter);
+        }
+        return byteWriter;
+    }
+    
+    /**
+     * Сериализует объект в канал (например, {@code FileChannel}) в кодировке UTF-8.
+     * @param obj объект для сериализации
+     * @param channel канал назначения
+     */
+    public void serialize(Object obj, WritableByteChannel channel) {
+        try {
+            serializeToBuffer(obj).writeTo(channel);
+        } catch (IOException e) {
+            throw new JsonException.SerializationException("Не удалось записать JSON в канал", e);
+        }
+    }
+    
+    /**
+     * Сериализует объект в файл в кодировке UTF-8.
+     * Существующий файл перезаписывается.
+     * @param obj объект для сериализации
+     * @param path путь к файлу
+     */
+    public void serialize(Object obj, Path path) {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            serialize(obj, channel);
+        } catch (IOException e) {
+            throw new JsonException.SerializationException("Не удалось записать JSON в файл: " + path, e);
+        }
+    }
+    
+    /**
+     * Общая точка входа: сбрасывает трекер ссылок и пишет объект в приемник.
+     */
+    private void write(Object obj, JsonWriter out) {
+        boolean timed = metricsListener != JsonMetricsListener.NONE;
+        long start = timed ? System.nanoTime() : 0;
+        int before = out.size();
+        
         try {
             referenceTracker.clear();
-            return serializeObject(obj, 0);
+            serializeObject(obj, out);
         } catch (Exception e) {
             throw new JsonException.SerializationException("Не удалось сериализовать объект", e);
         }
+        
+        if (timed) {
+            long written = out.size() - before;
+            boolean bytes = out instanceof Utf8JsonWriter;
+            metricsListener.onDocumentWritten(obj.getClass(),
+                bytes ? written : 0, bytes ? 0 : written, System.nanoTime() - start);
+        }
     }
     
     /**
@@ -72,249 +195,283 @@ public class JsonSerializer {
     
     /**
      * Основной метод сериализации объекта.
+     * Обход графа итеративный: вместо рекурсии на каждый уровень вложенности
+     * используется явный стек кадров, поэтому глубина структуры ограничена
+     * только памятью, а не размером стека потока.
+     */
+    private void serializeObject(Object root, JsonWriter out) throws IllegalAccessException {
+        int base = stackSize;
+        try {
+            beginValue(root, 0, out);
+            
+            while (stackSize > base) {
+                Frame frame = stack[stackSize - 1];
+                switch (frame.kind) {
+                    case Frame.OBJECT:     stepObject(frame, out); break;
+                    case Frame.ARRAY:      stepArray(frame, out); break;
+                    case Frame.COLLECTION: stepCollection(frame, out); break;
+                    default:               stepMap(frame, out);
+                }
+            }
+        } finally {
+            while (stackSize > base) {
+                popFrame();
+            }
+        }
+    }
+    
+    /**
+     * Начинает запись значения: скаляры и ссылки пишутся сразу,
+     * для контейнеров выводится открывающая скобка и кладется кадр на стек.
      */
-    private String serializeObject(Object obj, int depth) throws IllegalAccessException {
+    private void beginValue(Object obj, int depth, JsonWriter out) {
         if (obj == null) {
-            return "null";
+            out.writeRaw("null");
+            return;
         }
         
         // Примитивы и строки
         if (isPrimitive(obj)) {
-            return serializePrimitive(obj);
+            serializePrimitive(obj, out);
+            return;
         }
         
         // Массивы
         if (obj.getClass().isArray()) {
-            return serializeArray(obj, depth);
+            out.writeChar('[');
+            Frame frame = pushFrame(Frame.ARRAY, obj, depth);
+            frame.length = Array.getLength(obj);
+            return;
         }
         
         // Коллекции
         if (obj instanceof Collection) {
-            return serializeCollection((Collection<?>) obj, depth);
+            out.writeChar('[');
+            Frame frame = pushFrame(Frame.COLLECTION, obj, depth);
+            frame.iterator = ((Collection<?>) obj).iterator();
+            return;
         }
         
         // Map
         if (obj instanceof Map) {
-            return serializeMap((Map<?, ?>) obj, depth);
+            Map<?, ?> map = (Map<?, ?>) obj;
+            out.writeChar('{');
+            if (prettyPrint && !map.isEmpty()) {
+                out.writeChar('\n');
+            }
+            Frame frame = pushFrame(Frame.MAP, obj, depth);
+            frame.iterator = map.entrySet().iterator();
+            frame.nonEmpty = !map.isEmpty();
+            return;
         }
         
         // Пользовательские объекты
-        return serializeCustomObject(obj, depth);
+        beginCustomObject(obj, depth, out);
     }
     
     /**
-     * Сериализация массивов.
+     * Начало сериализации пользовательского объекта.
      */
-    private String serializeArray(Object array, int depth) throws IllegalAccessException {
-        int length = Array.getLength(array);
-        StringBuilder sb = new StringBuilder();
+    private void beginCustomObject(Object obj, int depth, JsonWriter out) {
+        ClassDescriptor descriptor = ClassDescriptor.of(obj.getClass(), metricsListener);
         
-        sb.append("[");
+        // Проверяем аннотацию @JsonSerializable
+        if (!descriptor.isSerializable()) {
+            throw new JsonException.SerializationException(
+                "Класс не помечен аннотацией @JsonSerializable", obj.getClass().getSimpleName(), null);
+        }
         
-        for (int i = 0; i < length; i++) {
-            if (i > 0) {
-                sb.append(",");
-                if (prettyPrint) sb.append(" ");
-            }
-            
-            Object element = Array.get(array, i);
-            sb.append(serializeObject(element, depth + 1));
+        // ИСПРАВЛЕНИЕ: Проверяем, был ли объект уже сериализован ПЕРЕД началом сериализации
+        if (referenceTracker.isAlreadySerialized(obj)) {
+            String id = referenceTracker.getOrCreateId(obj);
+            out.writeRaw(ReferenceTracker.createReferenceString(id));
+            metricsListener.onReferenceEmitted(obj.getClass());
+            return;
         }
         
-        sb.append("]");
-        return sb.toString();
-    }
-    
-    /**
-     * Сериализация коллекций.
-     */
-    private String serializeCollection(Collection<?> collection, int depth) throws IllegalAccessException {
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
+        // Проверяем циклические ссылки
+        referenceTracker.startSerialization(obj);
         
-        boolean first = true;
-        for (Object element : collection) {
-            if (!first) {
-                sb.append(",");
-                if (prettyPrint) sb.append(" ");
-            }
-            first = false;
-            
-            sb.append(serializeObject(element, depth + 1));
+        // Создаем ID для объекта
+        String id = referenceTracker.getOrCreateId(obj);
+        
+        out.writeChar('{');
+        
+        if (prettyPrint) out.writeChar('\n');
+        
+        // Добавляем ID объекта
+        if (prettyPrint) {
+            out.writeRaw(getIndent(depth + 1));
         }
+        out.writeRaw(prettyPrint ? "\"$id\": " : "\"$id\":");
+        out.writeString(id);
         
-        sb.append("]");
-        return sb.toString();
+        Frame frame = pushFrame(Frame.OBJECT, obj, depth);
+        frame.descriptor = descriptor;
+        frame.startNanos = metricsListener != JsonMetricsListener.NONE ? System.nanoTime() : 0;
     }
     
     /**
-     * Сериализация Map.
+     * Очередное поле пользовательского объекта или закрывающая скобка.
      */
-    private String serializeMap(Map<?, ?> map, int depth) throws IllegalAccessException {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{");
+    private void stepObject(Frame frame, JsonWriter out) throws IllegalAccessException {
+        // Поля уже отфильтрованы и отсортированы в описании класса
+        List<ClassDescriptor.FieldDescriptor> fields = frame.descriptor.getFields();
         
-        if (prettyPrint && !map.isEmpty()) {
-            sb.append("\n");
-        }
-        
-        boolean first = true;
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            if (!first) {
-                sb.append(",");
-                if (prettyPrint) sb.append("\n");
+        while (frame.index < fields.size()) {
+            ClassDescriptor.FieldDescriptor field = fields.get(frame.index++);
+            Object value = field.get(frame.target);
+            
+            // Пропускаем null значения, если указано в аннотации
+            if (value == null && !frame.descriptor.includeNulls()) {
+                continue;
             }
-            first = false;
             
+            out.writeChar(',');
             if (prettyPrint) {
-                sb.append(getIndent(depth + 1));
+                out.writeChar('\n');
+                out.writeRaw(getIndent(frame.depth + 1));
             }
             
-            // Ключ всегда строка
-            String key = entry.getKey().toString();
-            sb.append("\"").append(escapeString(key)).append("\":");
+            // Имя поля (с учетом аннотации @JsonField) заранее закодировано
+            out.writeFieldName(field);
             
-            if (prettyPrint) sb.append(" ");
+            if (prettyPrint) out.writeChar(' ');
             
-            sb.append(serializeObject(entry.getValue(), depth + 1));
+            beginValue(value, frame.depth + 1, out);
+            return;
         }
         
-        if (prettyPrint && !map.isEmpty()) {
-            sb.append("\n").append(getIndent(depth));
+        if (prettyPrint) {
+            out.writeChar('\n');
+            out.writeRaw(getIndent(frame.depth));
         }
         
-        sb.append("}");
-        return sb.toString();
+        out.writeChar('}');
+        referenceTracker.endSerialization(frame.target);
+        if (metricsListener != JsonMetricsListener.NONE) {
+            metricsListener.onObjectWritten(frame.target.getClass(), System.nanoTime() - frame.startNanos);
+        }
+        popFrame();
     }
     
     /**
-     * Сериализация пользовательских объектов.
+     * Очередной элемент массива или закрывающая скобка.
      */
-    private String serializeCustomObject(Object obj, int depth) throws IllegalAccessException {
-        Class<?> clazz = obj.getClass();
-        
-        // Проверяем аннотацию @JsonSerializable
-        if (!clazz.isAnnotationPresent(JsonSerializable.class)) {
-            throw new JsonException.SerializationException(
-                "Класс не помечен аннотацией @JsonSerializable", clazz.getSimpleName(), null);
-        }
-        
-        // ИСПРАВЛЕНИЕ: Проверяем, был ли объект уже сериализован ПЕРЕД началом сериализации
-        if (referenceTracker.isAlreadySerialized(obj)) {
-            String id = referenceTracker.getOrCreateId(obj);
-            return ReferenceTracker.createReferenceString(id);
+    private void stepArray(Frame frame, JsonWriter out) {
+        if (frame.index < frame.length) {
+            if (frame.index > 0) {
+                out.writeChar(',');
+                if (prettyPrint) out.writeChar(' ');
+            }
+            
+            Object element = Array.get(frame.target, frame.index++);
+            beginValue(element, frame.depth + 1, out);
+            return;
         }
         
-        // Проверяем циклические ссылки
-        referenceTracker.startSerialization(obj);
-        
-        try {
-            // Создаем ID для объекта
-            String id = referenceTracker.getOrCreateId(obj);
-            
-            JsonSerializable annotation = clazz.getAnnotation(JsonSerializable.class);
-            
-            StringBuilder sb = new StringBuilder();
-            sb.append("{");
-            
-            if (prettyPrint) sb.append("\n");
-            
-            // Добавляем ID объекта
-            if (prettyPrint) {
-                sb.append(getIndent(depth + 1));
+        out.writeChar(']');
+        popFrame();
+    }
+    
+    /**
+     * Очередной элемент коллекции или закрывающая скобка.
+     */
+    private void stepCollection(Frame frame, JsonWriter out) {
+        if (frame.iterator.hasNext()) {
+            if (frame.index++ > 0) {
+                out.writeChar(',');
+                if (prettyPrint) out.writeChar(' ');
             }
-            sb.append("\"$id\":").append(prettyPrint ? " " : "").append("\"").append(id).append("\"");
-            
-            // Получаем все поля класса
-            List<Field> fields = getAllFields(clazz);
             
-            // Сортируем поля по порядку (если указан в аннотации)
-            fields.sort((f1, f2) -> {
-                int order1 = f1.isAnnotationPresent(JsonField.class) ? f1.getAnnotation(JsonField.class).order() : 0;
-                int order2 = f2.isAnnotationPresent(JsonField.class) ? f2.getAnnotation(JsonField.class).order() : 0;
-                return Integer.compare(order1, order2);
-            });
-            
-            // Сериализуем поля
-            for (Field field : fields) {
-                if (shouldSkipField(field)) {
-                    continue;
-                }
-                
-                field.setAccessible(true);
-                Object value = field.get(obj);
-                
-                // Пропускаем null значения, если указано в аннотации
-                if (value == null && !annotation.includeNulls()) {
-                    continue;
-                }
-                
-                sb.append(",");
-                if (prettyPrint) sb.append("\n").append(getIndent(depth + 1));
-                
-                // Получаем имя поля (с учетом аннотации @JsonField)
-                String fieldName = getFieldName(field);
-                sb.append("\"").append(escapeString(fieldName)).append("\":");
-                
-                if (prettyPrint) sb.append(" ");
-                
-                sb.append(serializeObject(value, depth + 1));
+            beginValue(frame.iterator.next(), frame.depth + 1, out);
+            return;
+        }
+        
+        out.writeChar(']');
+        popFrame();
+    }
+    
+    /**
+     * Очередная пара ключ-значение Map или закрывающая скобка.
+     */
+    private void stepMap(Frame frame, JsonWriter out) {
+        if (frame.iterator.hasNext()) {
+            if (frame.index++ > 0) {
+                out.writeChar(',');
+                if (prettyPrint) out.writeChar('\n');
             }
             
             if (prettyPrint) {
-                sb.append("\n").append(getIndent(depth));
+                out.writeRaw(getIndent(frame.depth + 1));
             }
             
-            sb.append("}");
+            // Ключ всегда строка
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) frame.iterator.next();
+            out.writeString(entry.getKey().toString());
+            out.writeChar(':');
             
-            return sb.toString();
+            if (prettyPrint) out.writeChar(' ');
             
-        } finally {
-            referenceTracker.endSerialization(obj);
+            beginValue(entry.getValue(), frame.depth + 1, out);
+            return;
         }
-    }
-    
-    /**
-     * Получает все поля класса, включая унаследованные.
-     */
-    private List<Field> getAllFields(Class<?> clazz) {
-        List<Field> fields = new ArrayList<>();
         
-        while (clazz != null) {
-            fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
-            clazz = clazz.getSuperclass();
+        if (prettyPrint && frame.nonEmpty) {
+            out.writeChar('\n');
+            out.writeRaw(getIndent(frame.depth));
         }
         
-        return fields;
+        out.writeChar('}');
+        popFrame();
     }
     
-    /**
-     * Определяет, нужно ли пропустить поле при сериализации.
-     */
-    private boolean shouldSkipField(Field field) {
-        // Пропускаем поля с аннотацией @JsonIgnore
-        if (field.isAnnotationPresent(JsonIgnore.class)) {
-            return true;
+    private Frame pushFrame(int kind, Object target, int depth) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
         }
-        
-        // Пропускаем статические и финальные поля
-        int modifiers = field.getModifiers();
-        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
-            return true;
+        Frame frame = stack[stackSize];
+        if (frame == null) {
+            frame = new Frame();
+            stack[stackSize] = frame;
         }
+        stackSize++;
         
-        return false;
+        frame.kind = kind;
+        frame.target = target;
+        frame.depth = depth;
+        frame.index = 0;
+        return frame;
+    }
+    
+    private void popFrame() {
+        Frame frame = stack[--stackSize];
+        frame.target = null;
+        frame.descriptor = null;
+        frame.iterator = null;
     }
     
     /**
-     * Получает имя поля для JSON (с учетом аннотации @JsonField).
+     * Кадр явного стека обхода: контейнер и позиция в нем.
+     * Кадры переиспользуются между вызовами, поэтому глубокий граф
+     * не создает по объекту на уровень при каждой сериализации.
      */
-    private String getFieldName(Field field) {
-        if (field.isAnnotationPresent(JsonField.class)) {
-            JsonField annotation = field.getAnnotation(JsonField.class);
-            return annotation.value();
-        }
-        return field.getName();
+    private static final class Frame {
+        static final int OBJECT = 0;
+        static final int ARRAY = 1;
+        static final int COLLECTION = 2;
+        static final int MAP = 3;
+        
+        int kind;
+        Object target;
+        int depth;
+        int index;
+        int length;
+        boolean nonEmpty;
+        ClassDescriptor descriptor;
+        Iterator<?> iterator;
+        // Начало записи объекта, если подключен слушатель метрик
+        long startNanos;
     }
     
     /**
@@ -330,24 +487,19 @@ public class JsonSerializer {
     /**
      * Сериализует примитивные типы.
      */
-    private String serializePrimitive(Object obj) {
+    private void serializePrimitive(Object obj, JsonWriter out) {
         if (obj instanceof String) {
-            return "\"" + escapeString((String) obj) + "\"";
+            out.writeString((String) obj);
+            return;
         }
-        return obj.toString();
-    }
-    
-    /**
-     * Экранирует специальные символы в строке.
-     */
-    private String escapeString(String str) {
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t")
-                  .replace("\b", "\\b")
-                  .replace("\f", "\\f");
+        
+        // Целые числа пишем напрямую, без toString()
+        if (obj instanceof Integer || obj instanceof Long || obj instanceof Short || obj instanceof Byte) {
+            out.writeLong(((Number) obj).longValue());
+            return;
+        }
+        
+        out.writeRaw(obj.toString());
     }
     
     /**
@@ -355,11 +507,7 @@ public class JsonSerializer {
      */
     private String getIndent(int depth) {
         if (!prettyPrint) return "";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < depth * 2; i++) {
-            sb.append(" ");
-        }
-        return sb.toString();
+        return depth < INDENTS.length ? INDENTS[depth] : " ".repeat(depth * 2);
     }
     
     /**
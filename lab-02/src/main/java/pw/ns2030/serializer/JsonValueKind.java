@@ -0,0 +1,75 @@
+package pw.ns2030.serializer;
+
+import pw.ns2030.annotations.JsonSerializable;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Виды JSON-значений в виде битовых флагов.
+ * Для каждого поля заранее вычисляется маска допустимых видов,
+ * по которой документ проверяется до создания объектов.
+ */
+final class JsonValueKind {
+    
+    static final int NULL = 1;
+    static final int BOOLEAN = 1 << 1;
+    static final int INTEGER = 1 << 2;
+    static final int DECIMAL = 1 << 3;
+    static final int STRING = 1 << 4;
+    static final int OBJECT = 1 << 5;
+    static final int ARRAY = 1 << 6;
+    
+    private static final String[] NAMES = {"null", "логическое", "целое число", "дробное число", "строка", "объект", "массив"};
+    
+    private JsonValueKind() {
+    }
+    
+    /**
+     * Вычисляет допустимые виды значений для Java-типа.
+     * Для неизвестных типов разрешаются объект и массив — окончательное
+     * решение остается за десериализатором.
+     */
+    static int expectedFor(Type type) {
+        Class<?> clazz = (type instanceof Class) ? (Class<?>) type : (Class<?>) ((ParameterizedType) type).getRawType();
+        int kinds;
+        
+        if (clazz == String.class || clazz == char.class || clazz == Character.class) {
+            kinds = STRING;
+        } else if (clazz == boolean.class || clazz == Boolean.class) {
+            kinds = BOOLEAN;
+        } else if (clazz == int.class || clazz == Integer.class ||
+                   clazz == long.class || clazz == Long.class ||
+                   clazz == short.class || clazz == Short.class ||
+                   clazz == byte.class || clazz == Byte.class) {
+            kinds = INTEGER;
+        } else if (clazz == double.class || clazz == Double.class ||
+                   clazz == float.class || clazz == Float.class) {
+            kinds = INTEGER | DECIMAL;
+        } else if (clazz.isArray() || Collection.class.isAssignableFrom(clazz)) {
+            kinds = ARRAY;
+        } else if (clazz.isAnnotationPresent(JsonSerializable.class)) {
+            kinds = OBJECT;
+        } else {
+            kinds = OBJECT | ARRAY;
+        }
+        
+        return clazz.isPrimitive() ? kinds : kinds | NULL;
+    }
+    
+    /**
+     * Описание маски видов для сообщений об ошибках.
+     */
+    static String describe(int kinds) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            if ((kinds & (1 << i)) != 0) {
+                names.add(NAMES[i]);
+            }
+        }
+        return String.join(" или ", names);
+    }
+}
@@ -0,0 +1,39 @@
+package pw.ns2030.serializer;
+
+/**
+ * Приемник JSON-текста, в который пишет {@link JsonSerializer}.
+ * Позволяет формировать один и тот же вывод как в {@code String},
+ * так и сразу в байты UTF-8 без промежуточных символьных данных.
+ */
+public interface JsonWriter {
+    
+    /**
+     * Записывает один ASCII-символ разметки ({@code { } [ ] , :} и т.п.).
+     */
+    void writeChar(char c);
+    
+    /**
+     * Записывает текст как есть, без экранирования.
+     */
+    void writeRaw(String text);
+    
+    /**
+     * Записывает целое число без создания промежуточной строки.
+     */
+    void writeLong(long value);
+    
+    /**
+     * Записывает строку в кавычках с экранированием спецсимволов.
+     */
+    void writeString(String value);
+    
+    /**
+     * Записывает заранее подготовленное имя поля вида {@code "name":}.
+     */
+    void writeFieldName(ClassDescriptor.FieldDescriptor field);
+    
+    /**
+     * Объем записанного: символы для строкового приемника, байты для UTF-8.
+     */
+    int size();
+}
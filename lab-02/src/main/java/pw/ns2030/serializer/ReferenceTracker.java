@@ -160,11 +160,9 @@ public class ReferenceTracker {
     }
     
     /**
-     * Получает статистику по ссылкам (для отладки).
-     * @return информация о количестве отслеживаемых объектов
+     * Количество объектов, получивших ID в текущей сессии.
      */
-    public String getStatistics() {
-        return String.format("Отслеживается объектов: %d, текущая сериализация: %d", 
-                objectToId.size(), currentlySerializing.size());
+    public int getTrackedObjectCount() {
+        return objectToId.size();
     }
-}
\ No newline at end of file
+}
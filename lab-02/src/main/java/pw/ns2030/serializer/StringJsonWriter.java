@@ -0,0 +1,109 @@
+package pw.ns2030.serializer;
+
+/**
+ * Реализация {@link JsonWriter} поверх {@link StringBuilder}.
+ */
+public class StringJsonWriter implements JsonWriter {
+    
+    private final StringBuilder sb;
+    
+    public StringJsonWriter() {
+        this(new StringBuilder());
+    }
+    
+    public StringJsonWriter(StringBuilder sb) {
+        this.sb = sb;
+    }
+    
+    @Override
+    public void writeChar(char c) {
+        sb.append(c);
+    }
+    
+    @Override
+    public void writeRaw(String text) {
+        sb.append(text);
+    }
+    
+    @Override
+    public void writeLong(long value) {
+        sb.append(value);
+    }
+    
+    @Override
+    public void writeString(String value) {
+        sb.append('"');
+        appendEscaped(sb, value);
+        sb.append('"');
+    }
+    
+    @Override
+    public void writeFieldName(ClassDescriptor.FieldDescriptor field) {
+        sb.append(field.getEncodedName());
+    }
+    
+    /**
+     * Количество записанных символов.
+     */
+    @Override
+    public int size() {
+        return sb.length();
+    }
+    
+    /**
+     * Очищает содержимое, сохраняя выделенную емкость.
+     */
+    public void reset() {
+        sb.setLength(0);
+    }
+    
+    /**
+     * Текущая емкость внутреннего буфера в символах.
+     */
+    public int capacity() {
+        return sb.capacity();
+    }
+    
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+    
+    /**
+     * Экранирует специальные символы в строке.
+     */
+    static String escape(String str) {
+        StringBuilder sb = new StringBuilder(str.length() + 8);
+        appendEscaped(sb, str);
+        return sb.toString();
+    }
+    
+    private static void appendEscaped(StringBuilder sb, String str) {
+        for (int i = 0, n = str.length(); i < n; i++) {
+            char c = str.charAt(i);
+            char escaped = escapeChar(c);
+            if (escaped != 0) {
+                sb.append('\\').append(escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+    
+    /**
+     * Возвращает символ после обратной косой черты для экранируемого символа
+     * или 0, если символ экранировать не нужно.
+     */
+    static char escapeChar(char c) {
+        switch (c) {
+            case '\\': return '\\';
+            case '"':  return '"';
+            case '\n': return 'n';
+            case '\r': return 'r';
+            case '\t': return 't';
+            case '\b': return 'b';
+            case '\f': return 'f';
+            default:   return 0;
+        }
+    }
+}
@@ -0,0 +1,1021 @@
+package pw.ns2030.serializer;
+
+import pw.ns2030.exceptions.JsonException;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Потоковый разбор JSON непосредственно по байтам UTF-8.
+ * Используется {@link JsonDeserializer} для файлов, отображенных в память:
+ * документ не копируется в {@code String}, объекты создаются по ходу разбора,
+ * а строки декодируются только для полей, которые реально присваиваются.
+ * Значения неизвестных ключей пропускаются без декодирования.
+ *
+ * Файл отображается сегментами по 1 ГБ, поэтому размер документа
+ * не ограничен пределом {@code ByteBuffer} в 2 ГБ.
+ */
+final class Utf8JsonReader {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // Маркеры цикла разбора: значение еще не готово (на стек положен кадр)
+    // и кадр обработал ключ без значения (служебный или неизвестный)
+    private static final Object PENDING = new Object();
+    private static final Object CONTINUE = new Object();
+
+    private final ByteBuffer[] segments;
+    private final long length;
+    private final ReferenceTracker referenceTracker;
+    private JsonMetricsListener metricsListener = JsonMetricsListener.NONE;
+
+    private long pos;
+    private boolean lastStringEscaped;
+    private byte[] scratch = new byte[256];
+
+    // Границы последнего прочитанного ключа объекта
+    private long keyStart;
+    private long keyEnd;
+    private boolean keyEscaped;
+
+    // Явный стек разбора вложенных объектов и массивов
+    private Frame[] stack = new Frame[16];
+    private int stackSize;
+
+    private Utf8JsonReader(ByteBuffer[] segments, long length, ReferenceTracker referenceTracker) {
+        this.segments = segments;
+        this.length = length;
+        this.referenceTracker = referenceTracker;
+    }
+
+    /**
+     * Создает читатель поверх массива байт (без копирования).
+     */
+    static Utf8JsonReader of(byte[] json, ReferenceTracker referenceTracker) {
+        return new Utf8JsonReader(new ByteBuffer[]{ByteBuffer.wrap(json)}, json.length, referenceTracker);
+    }
+
+    /**
+     * Отображает файл в память только для чтения.
+     * Канал закрывается сразу: отображение остается действительным.
+     */
+    static Utf8JsonReader map(Path path, ReferenceTracker referenceTracker) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+
+            ByteBuffer[] segments = new ByteBuffer[Math.max(1, count)];
+            segments[0] = ByteBuffer.allocate(0);
+            for (int i = 0; i < count; i++) {
+                long offset = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, size - offset));
+            }
+            return new Utf8JsonReader(segments, size, referenceTracker);
+        }
+    }
+
+    /**
+     * Подключает слушателя метрик: восстановленные объекты и разрешенные ссылки.
+     */
+    void setMetricsListener(JsonMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    /**
+     * Размер документа в байтах.
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * Проверяет, есть ли в документе что-то кроме пробельных символов.
+     */
+    boolean isBlank() {
+        skipWhitespace();
+        return pos >= length;
+    }
+
+    /**
+     * Читает весь документ как значение указанного типа.
+     * Разбор итеративный: вложенные объекты и массивы лежат на явном стеке
+     * кадров, поэтому глубина документа не ограничена стеком потока.
+     */
+    Object readDocument(Type type) throws IllegalAccessException {
+        stackSize = 0;
+        Object value = beginValue(type);
+
+        while (true) {
+            if (value != PENDING && value != CONTINUE) {
+                if (stackSize == 0) break;
+                deliver(stack[stackSize - 1], value);
+            }
+
+            Frame top = stack[stackSize - 1];
+            value = top.kind == Frame.OBJECT ? stepObject(top) : stepArray(top);
+        }
+
+        skipWhitespace();
+        if (pos < length) {
+            throw error("Лишние данные после конца JSON");
+        }
+        return value;
+    }
+
+    // ---------------------------------------------------------------------
+    // Значения
+    // ---------------------------------------------------------------------
+
+    /**
+     * Начинает разбор значения. Возвращает готовое значение для скаляров,
+     * ссылок и пустых контейнеров или {@link #PENDING}, если на стек
+     * положен кадр объекта/массива.
+     */
+    private Object beginValue(Type type) {
+        skipWhitespace();
+        byte b = peek();
+
+        if (b == 'n') {
+            expectLiteral("null");
+            return null;
+        }
+
+        Class<?> clazz = (type instanceof Class) ? (Class<?>) type : (Class<?>) ((ParameterizedType) type).getRawType();
+
+        // Объекты (в том числе ссылки {"$ref": ...} на объект любого типа)
+        if (b == '{') {
+            return beginObject(clazz);
+        }
+
+        // Примитивы и строки
+        if (isPrimitiveType(clazz)) {
+            return readPrimitive(clazz);
+        }
+
+        // Массивы
+        if (b == '[') {
+            return beginArray(type, clazz);
+        }
+
+        throw error("Неподдерживаемый формат JSON");
+    }
+
+    private Object beginObject(Class<?> clazz) {
+        pos++; // '{'
+        skipWhitespace();
+
+        if (peek() == '}') {
+            pos++;
+            ClassDescriptor descriptor = requireSerializable(clazz);
+            long start = metricsListener != JsonMetricsListener.NONE ? System.nanoTime() : 0;
+            Object instance = descriptor.newInstance();
+            checkRequired(descriptor, 0, newWideMask(descriptor));
+            if (metricsListener != JsonMetricsListener.NONE) {
+                metricsListener.onObjectRead(clazz, System.nanoTime() - start);
+            }
+            return instance;
+        }
+
+        readKey();
+
+        // Ссылка на уже восстановленный объект
+        if (matches(keyStart, keyEnd, "$ref")) {
+            String refId = readStringValue();
+            skipWhitespace();
+            expect('}');
+            Object referenced = referenceTracker.getObjectById(refId);
+            if (referenced == null) {
+                throw new JsonException.DeserializationException("Ссылка не найдена: " + refId);
+            }
+            metricsListener.onReferenceResolved(referenced.getClass());
+            return referenced;
+        }
+
+        ClassDescriptor descriptor = requireSerializable(clazz);
+        Frame frame = pushFrame(Frame.OBJECT);
+        frame.startNanos = metricsListener != JsonMetricsListener.NONE ? System.nanoTime() : 0;
+        frame.descriptor = descriptor;
+        frame.instance = descriptor.newInstance();
+        frame.seen = 0;
+        frame.seenWide = newWideMask(descriptor);
+        frame.hint = 0;
+        frame.keyPending = true;
+        return PENDING;
+    }
+
+    /**
+     * Обрабатывает очередной ключ объекта. Возвращает {@link #CONTINUE},
+     * если ключ не требует значения (служебный или неизвестный),
+     * результат {@link #beginValue(Type)} для значения поля
+     * или сам объект, если он закрыт.
+     */
+    private Object stepObject(Frame frame) {
+        if (!frame.keyPending) {
+            skipWhitespace();
+            byte b = next();
+            if (b == '}') {
+                checkRequired(frame.descriptor, frame.seen, frame.seenWide);
+                Object instance = frame.instance;
+                if (metricsListener != JsonMetricsListener.NONE) {
+                    metricsListener.onObjectRead(instance.getClass(), System.nanoTime() - frame.startNanos);
+                }
+                popFrame();
+                return instance;
+            }
+            if (b != ',') {
+                pos--;
+                throw error("Ожидалась ',' или '}'");
+            }
+            skipWhitespace();
+            readKey();
+        }
+        frame.keyPending = false;
+
+        if (matches(keyStart, keyEnd, "$id")) {
+            referenceTracker.registerObject(readStringValue(), frame.instance);
+            return CONTINUE;
+        }
+
+        ClassDescriptor.FieldDescriptor field = findField(frame.descriptor, keyStart, keyEnd, keyEscaped, frame.hint);
+        if (field == null) {
+            skipValue();
+            return CONTINUE;
+        }
+
+        frame.field = field;
+        return beginValue(field.getGenericType());
+    }
+
+    private Object beginArray(Type type, Class<?> clazz) {
+        Type elementType;
+        Class<?> componentType = null;
+        Collection<Object> elements;
+
+        if (clazz.isArray()) {
+            // Обычный массив: элементы копятся в список, массив создается в конце
+            componentType = clazz.getComponentType();
+            elementType = componentType;
+            elements = new ArrayList<>();
+        } else if (type instanceof ParameterizedType) {
+            // Коллекция с generic типом
+            elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+
+            if (List.class.isAssignableFrom(clazz)) {
+                elements = new ArrayList<>();
+            } else if (Set.class.isAssignableFrom(clazz)) {
+                elements = new HashSet<>();
+            } else {
+                throw new JsonException.DeserializationException("Неподдерживаемый тип коллекции: " + clazz);
+            }
+        } else {
+            // Обычный List без generic
+            elementType = Object.class;
+            elements = new ArrayList<>();
+        }
+
+        pos++; // '['
+        skipWhitespace();
+
+        if (peek() == ']') {
+            pos++;
+            return finishArray(componentType, elements);
+        }
+
+        Frame frame = pushFrame(Frame.ARRAY);
+        frame.elementType = elementType;
+        frame.componentType = componentType;
+        frame.elements = elements;
+        frame.first = true;
+        return PENDING;
+    }
+
+    private Object stepArray(Frame frame) {
+        if (frame.first) {
+            frame.first = false;
+            return beginValue(frame.elementType);
+        }
+
+        skipWhitespace();
+        byte b = next();
+        if (b == ']') {
+            Object result = finishArray(frame.componentType, frame.elements);
+            popFrame();
+            return result;
+        }
+        if (b != ',') {
+            pos--;
+            throw error("Ожидалась ',' или ']'");
+        }
+        return beginValue(frame.elementType);
+    }
+
+    /**
+     * Передает готовое значение кадру-владельцу: полю объекта или в массив.
+     */
+    private void deliver(Frame frame, Object value) throws IllegalAccessException {
+        if (frame.kind == Frame.ARRAY) {
+            frame.elements.add(value);
+            return;
+        }
+
+        ClassDescriptor.FieldDescriptor field = frame.field;
+        field.set(frame.instance, value);
+
+        int index = field.getIndex();
+        if (frame.seenWide == null) {
+            frame.seen |= 1L << index;
+        } else {
+            frame.seenWide[index >>> 6] |= 1L << index;
+        }
+        frame.hint = index + 1;
+        frame.field = null;
+    }
+
+    private static Object finishArray(Class<?> componentType, Collection<Object> elements) {
+        if (componentType == null) {
+            return elements;
+        }
+
+        Object array = Array.newInstance(componentType, elements.size());
+        int i = 0;
+        for (Object element : elements) {
+            Array.set(array, i++, element);
+        }
+        return array;
+    }
+
+    /**
+     * Читает ключ объекта и двоеточие, запоминая границы ключа в байтах.
+     */
+    private void readKey() {
+        expect('"');
+        keyStart = pos;
+        keyEnd = scanStringEnd();
+        keyEscaped = lastStringEscaped;
+        pos = keyEnd + 1;
+
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+    }
+
+    /**
+     * Маска присутствующих полей для классов с числом полей больше 64.
+     * Для остальных достаточно одного {@code long} на стеке.
+     */
+    private static long[] newWideMask(ClassDescriptor descriptor) {
+        int words = descriptor.getRequiredMask().length;
+        return words > 1 ? new long[words] : null;
+    }
+
+    private static void checkRequired(ClassDescriptor descriptor, long seen, long[] seenWide) {
+        ClassDescriptor.FieldDescriptor missing = seenWide == null
+            ? descriptor.findMissingRequired(seen)
+            : descriptor.findMissingRequired(seenWide);
+        if (missing != null) {
+            throw new JsonException.DeserializationException(
+                "Обязательное поле отсутствует: " + missing.getJsonName(),
+                descriptor.getType().getSimpleName(), missing.getJsonName());
+        }
+    }
+
+    private ClassDescriptor requireSerializable(Class<?> clazz) {
+        ClassDescriptor descriptor = ClassDescriptor.of(clazz, metricsListener);
+        if (!descriptor.isSerializable()) {
+            throw new JsonException.DeserializationException(
+                "Класс не помечен аннотацией @JsonSerializable", clazz.getSimpleName(), null);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Ищет поле по ключу, сравнивая байты имени на месте.
+     * Поиск начинается с поля, следующего за предыдущим совпавшим:
+     * сериализатор пишет поля в том же порядке, поэтому обычно совпадает первое же.
+     */
+    private ClassDescriptor.FieldDescriptor findField(ClassDescriptor descriptor, long keyStart, long keyEnd,
+                                                      boolean keyEscaped, int hint) {
+        List<ClassDescriptor.FieldDescriptor> fields = descriptor.getFields();
+        int size = fields.size();
+        if (size == 0) return null;
+
+        if (keyEscaped) {
+            // Редкий случай: ключ записан с экранированием, сравниваем декодированную строку
+            String key = unescape(decode(keyStart, keyEnd));
+            for (ClassDescriptor.FieldDescriptor field : fields) {
+                if (field.getJsonName().equals(key)) return field;
+            }
+            return null;
+        }
+
+        for (int i = 0; i < size; i++) {
+            ClassDescriptor.FieldDescriptor field = fields.get((hint + i) % size);
+            if (matches(keyStart, keyEnd, field.getNameBytes())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private Object readPrimitive(Class<?> clazz) {
+        if (clazz == String.class) {
+            if (peek() != '"') {
+                throw new JsonException.DeserializationException("Строка должна быть в кавычках: " + tokenPreview());
+            }
+            return readStringValue();
+        }
+
+        if (clazz == char.class || clazz == Character.class) {
+            String str = readStringValue();
+            return str.length() > 0 ? str.charAt(0) : '\0';
+        }
+
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            if (peek() == 't') {
+                expectLiteral("true");
+                return Boolean.TRUE;
+            }
+            expectLiteral("false");
+            return Boolean.FALSE;
+        }
+
+        long start = pos;
+        long end = scanNumberEnd();
+        pos = end;
+
+        try {
+            if (clazz == int.class || clazz == Integer.class) {
+                return Math.toIntExact(parseLong(start, end));
+            }
+
+            if (clazz == long.class || clazz == Long.class) {
+                return parseLong(start, end);
+            }
+
+            if (clazz == short.class || clazz == Short.class) {
+                long value = parseLong(start, end);
+                if (value != (short) value) throw new NumberFormatException();
+                return (short) value;
+            }
+
+            if (clazz == byte.class || clazz == Byte.class) {
+                long value = parseLong(start, end);
+                if (value != (byte) value) throw new NumberFormatException();
+                return (byte) value;
+            }
+
+            if (clazz == double.class || clazz == Double.class) {
+                return Double.parseDouble(decode(start, end));
+            }
+
+            if (clazz == float.class || clazz == Float.class) {
+                return Float.parseFloat(decode(start, end));
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new JsonException.DeserializationException("Некорректное числовое значение: " + decode(start, end), e);
+        }
+
+        throw new JsonException.DeserializationException("Неподдерживаемый примитивный тип: " + clazz);
+    }
+
+    /**
+     * Разбирает целое число прямо из байт, без промежуточной строки.
+     */
+    private long parseLong(long start, long end) {
+        if (start == end) throw new NumberFormatException();
+
+        long p = start;
+        boolean negative = at(p) == '-';
+        if (negative || at(p) == '+') p++;
+        if (p == end) throw new NumberFormatException();
+
+        // Накапливаем в отрицательную сторону, чтобы корректно принять Long.MIN_VALUE
+        long result = 0;
+        for (; p < end; p++) {
+            int digit = at(p) - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException();
+            if (result < (Long.MIN_VALUE + digit) / 10) throw new NumberFormatException();
+            result = result * 10 - digit;
+        }
+
+        if (!negative) {
+            if (result == Long.MIN_VALUE) throw new NumberFormatException();
+            return -result;
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------------
+    // Предварительная проверка по схеме
+    // ---------------------------------------------------------------------
+
+    /**
+     * Проверяет документ по скомпилированным схемам классов, не создавая объектов
+     * и не декодируя строк: обязательные поля (битовая маска) и вид значения
+     * каждого известного ключа. После успешной проверки позиция сбрасывается
+     * в начало, и документ можно материализовать через {@link #readDocument(Type)}.
+     */
+    void validateDocument(Type type) {
+        stackSize = 0;
+        beginValidation(type, JsonValueKind.expectedFor(type), null, null);
+
+        while (stackSize > 0) {
+            Frame top = stack[stackSize - 1];
+            if (top.kind == Frame.OBJECT) {
+                validateObjectStep(top);
+            } else {
+                validateArrayStep(top);
+            }
+        }
+
+        skipWhitespace();
+        if (pos < length) {
+            throw error("Лишние данные после конца JSON");
+        }
+        pos = 0;
+    }
+
+    /**
+     * Проверяет вид очередного значения. Скаляры пропускаются сразу,
+     * для объектов и массивов на стек кладется кадр проверки.
+     */
+    private void beginValidation(Type type, int expected, ClassDescriptor owner, ClassDescriptor.FieldDescriptor field) {
+        skipWhitespace();
+        byte b = peek();
+        int kind;
+        long numberEnd = -1;
+
+        switch (b) {
+            case '{': kind = JsonValueKind.OBJECT; break;
+            case '[': kind = JsonValueKind.ARRAY; break;
+            case '"': kind = JsonValueKind.STRING; break;
+            case 't':
+            case 'f': kind = JsonValueKind.BOOLEAN; break;
+            case 'n': kind = JsonValueKind.NULL; break;
+            default:
+                numberEnd = scanNumberEnd();
+                kind = isIntegerToken(pos, numberEnd) ? JsonValueKind.INTEGER : JsonValueKind.DECIMAL;
+        }
+
+        if ((expected & kind) == 0) {
+            String message = "Неверный тип значения: ожидалось " + JsonValueKind.describe(expected) +
+                    ", получено " + JsonValueKind.describe(kind) + " (позиция " + pos + ")";
+            if (owner == null) {
+                throw new JsonException.DeserializationException(message);
+            }
+            throw new JsonException.DeserializationException(message,
+                    owner.getType().getSimpleName(), field != null ? field.getJsonName() : null);
+        }
+
+        switch (kind) {
+            case JsonValueKind.OBJECT: {
+                Class<?> clazz = (type instanceof Class) ? (Class<?>) type : (Class<?>) ((ParameterizedType) type).getRawType();
+                beginObjectValidation(clazz);
+                break;
+            }
+            case JsonValueKind.ARRAY:
+                beginArrayValidation(type, owner, field);
+                break;
+            case JsonValueKind.STRING:
+                pos++;
+                pos = scanStringEnd() + 1;
+                break;
+            case JsonValueKind.BOOLEAN:
+                expectLiteral(b == 't' ? "true" : "false");
+                break;
+            case JsonValueKind.NULL:
+                expectLiteral("null");
+                break;
+            default:
+                pos = numberEnd;
+        }
+    }
+
+    private void beginObjectValidation(Class<?> clazz) {
+        pos++; // '{'
+        skipWhitespace();
+
+        if (peek() == '}') {
+            pos++;
+            ClassDescriptor descriptor = requireSerializable(clazz);
+            checkRequired(descriptor, 0, newWideMask(descriptor));
+            return;
+        }
+
+        readKey();
+
+        // Ссылка допустима на месте объекта любого класса
+        if (matches(keyStart, keyEnd, "$ref")) {
+            expect('"');
+            pos = scanStringEnd() + 1;
+            skipWhitespace();
+            expect('}');
+            return;
+        }
+
+        ClassDescriptor descriptor = requireSerializable(clazz);
+        Frame frame = pushFrame(Frame.OBJECT);
+        frame.descriptor = descriptor;
+        frame.seen = 0;
+        frame.seenWide = newWideMask(descriptor);
+        frame.hint = 0;
+        frame.keyPending = true;
+    }
+
+    private void validateObjectStep(Frame frame) {
+        if (!frame.keyPending) {
+            skipWhitespace();
+            byte b = next();
+            if (b == '}') {
+                checkRequired(frame.descriptor, frame.seen, frame.seenWide);
+                popFrame();
+                return;
+            }
+            if (b != ',') {
+                pos--;
+                throw error("Ожидалась ',' или '}'");
+            }
+            skipWhitespace();
+            readKey();
+        }
+        frame.keyPending = false;
+
+        if (matches(keyStart, keyEnd, "$id")) {
+            beginValidation(String.class, JsonValueKind.STRING, frame.descriptor, null);
+            return;
+        }
+
+        ClassDescriptor.FieldDescriptor field = findField(frame.descriptor, keyStart, keyEnd, keyEscaped, frame.hint);
+        if (field == null) {
+            skipValue();
+            return;
+        }
+
+        int index = field.getIndex();
+        if (frame.seenWide == null) {
+            frame.seen |= 1L << index;
+        } else {
+            frame.seenWide[index >>> 6] |= 1L << index;
+        }
+        frame.hint = index + 1;
+
+        beginValidation(field.getGenericType(), field.getExpectedKinds(), frame.descriptor, field);
+    }
+
+    private void beginArrayValidation(Type type, ClassDescriptor owner, ClassDescriptor.FieldDescriptor field) {
+        Type elementType = Object.class;
+        if (type instanceof Class && ((Class<?>) type).isArray()) {
+            elementType = ((Class<?>) type).getComponentType();
+        } else if (type instanceof ParameterizedType) {
+            elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+
+        pos++; // '['
+        skipWhitespace();
+
+        if (peek() == ']') {
+            pos++;
+            return;
+        }
+
+        Frame frame = pushFrame(Frame.ARRAY);
+        frame.elementType = elementType;
+        frame.expected = JsonValueKind.expectedFor(elementType);
+        frame.owner = owner;
+        frame.ownerField = field;
+        frame.first = true;
+    }
+
+    private void validateArrayStep(Frame frame) {
+        if (!frame.first) {
+            skipWhitespace();
+            byte b = next();
+            if (b == ']') {
+                popFrame();
+                return;
+            }
+            if (b != ',') {
+                pos--;
+                throw error("Ожидалась ',' или ']'");
+            }
+        }
+        frame.first = false;
+
+        beginValidation(frame.elementType, frame.expected, frame.owner, frame.ownerField);
+    }
+
+    private boolean isIntegerToken(long start, long end) {
+        long p = start;
+        if (p < end && (at(p) == '-' || at(p) == '+')) p++;
+        if (p == end) return false;
+        for (; p < end; p++) {
+            byte b = at(p);
+            if (b < '0' || b > '9') return false;
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------------
+    // Стек кадров
+    // ---------------------------------------------------------------------
+
+    private Frame pushFrame(int kind) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        Frame frame = stack[stackSize];
+        if (frame == null) {
+            frame = new Frame();
+            stack[stackSize] = frame;
+        }
+        stackSize++;
+
+        frame.kind = kind;
+        return frame;
+    }
+
+    private void popFrame() {
+        Frame frame = stack[--stackSize];
+        frame.descriptor = null;
+        frame.instance = null;
+        frame.seenWide = null;
+        frame.field = null;
+        frame.elementType = null;
+        frame.componentType = null;
+        frame.elements = null;
+        frame.owner = null;
+        frame.ownerField = null;
+    }
+
+    /**
+     * Кадр явного стека: разбираемый объект или массив и состояние разбора.
+     * Используется и при материализации, и при проверке по схеме.
+     */
+    private static final class Frame {
+        static final int OBJECT = 0;
+        static final int ARRAY = 1;
+
+        int kind;
+
+        // Объект
+        ClassDescriptor descriptor;
+        Object instance;
+        long seen;
+        long[] seenWide;
+        int hint;
+        boolean keyPending;
+        ClassDescriptor.FieldDescriptor field;
+        // Начало разбора объекта, если подключен слушатель метрик
+        long startNanos;
+
+        // Массив
+        Type elementType;
+        Class<?> componentType;
+        Collection<Object> elements;
+        boolean first;
+
+        // Проверка элементов массива: ожидаемые виды и поле-владелец для сообщений
+        int expected;
+        ClassDescriptor owner;
+        ClassDescriptor.FieldDescriptor ownerField;
+    }
+
+    // ---------------------------------------------------------------------
+    // Строки
+    // ---------------------------------------------------------------------
+
+    /**
+     * Читает строковое значение в кавычках и декодирует его.
+     */
+    private String readStringValue() {
+        expect('"');
+        long start = pos;
+        long end = scanStringEnd();
+        boolean escaped = lastStringEscaped;
+        pos = end + 1;
+
+        String raw = decode(start, end);
+        return escaped ? unescape(raw) : raw;
+    }
+
+    /**
+     * Находит закрывающую кавычку строки, начиная с текущей позиции.
+     * Запоминает, встречались ли в строке escape-последовательности.
+     */
+    private long scanStringEnd() {
+        boolean escaped = false;
+        long p = pos;
+        while (p < length) {
+            byte b = at(p);
+            if (b == '"') {
+                lastStringEscaped = escaped;
+                return p;
+            }
+            if (b == '\\') {
+                escaped = true;
+                p += 2;
+            } else {
+                p++;
+            }
+        }
+        throw error("Незавершенная строка");
+    }
+
+    /**
+     * Декодирует байты UTF-8 из диапазона [start, end) в строку.
+     */
+    private String decode(long start, long end) {
+        int len = (int) (end - start);
+        if (len > scratch.length) {
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+
+        int segment = (int) (start >>> SEGMENT_BITS);
+        if (segment == (int) ((end - 1) >>> SEGMENT_BITS)) {
+            segments[segment].get((int) (start & SEGMENT_MASK), scratch, 0, len);
+        } else {
+            for (int i = 0; i < len; i++) {
+                scratch[i] = at(start + i);
+            }
+        }
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private String unescape(String str) {
+        StringBuilder sb = new StringBuilder(str.length());
+        for (int i = 0, n = str.length(); i < n; i++) {
+            char c = str.charAt(i);
+            if (c != '\\' || i + 1 >= n) {
+                sb.append(c);
+                continue;
+            }
+
+            char e = str.charAt(++i);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (i + 4 >= n) {
+                        throw new JsonException.DeserializationException("Некорректная escape-последовательность: " + str);
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(str.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException ex) {
+                        throw new JsonException.DeserializationException("Некорректная escape-последовательность: " + str, ex);
+                    }
+                    i += 4;
+                    break;
+                default: sb.append(e); // \" \\ \/
+            }
+        }
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------------
+    // Пропуск значений
+    // ---------------------------------------------------------------------
+
+    /**
+     * Пропускает значение целиком, ничего не декодируя.
+     */
+    private void skipValue() {
+        byte b = peek();
+
+        if (b == '"') {
+            pos++;
+            pos = scanStringEnd() + 1;
+            return;
+        }
+
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            while (pos < length) {
+                b = at(pos);
+                if (b == '"') {
+                    pos++;
+                    pos = scanStringEnd() + 1;
+                    continue;
+                }
+                pos++;
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) return;
+                }
+            }
+            throw error("Незавершенный объект или массив");
+        }
+
+        // Число или литерал
+        while (pos < length && !isDelimiter(at(pos))) {
+            pos++;
+        }
+    }
+
+    private long scanNumberEnd() {
+        long p = pos;
+        while (p < length && !isDelimiter(at(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // ---------------------------------------------------------------------
+    // Низкоуровневый доступ
+    // ---------------------------------------------------------------------
+
+    private byte at(long p) {
+        return segments[(int) (p >>> SEGMENT_BITS)].get((int) (p & SEGMENT_MASK));
+    }
+
+    private byte peek() {
+        if (pos >= length) {
+            throw error("Неожиданный конец JSON");
+        }
+        return at(pos);
+    }
+
+    private byte next() {
+        byte b = peek();
+        pos++;
+        return b;
+    }
+
+    private void skipWhitespace() {
+        while (pos < length) {
+            byte b = at(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return;
+            pos++;
+        }
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Ожидался символ '" + c + "'");
+        }
+        pos++;
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (pos >= length || at(pos) != literal.charAt(i)) {
+                throw error("Ожидалось значение " + literal);
+            }
+            pos++;
+        }
+    }
+
+    private boolean matches(long start, long end, String ascii) {
+        if (end - start != ascii.length()) return false;
+        for (int i = 0; i < ascii.length(); i++) {
+            if (at(start + i) != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean matches(long start, long end, byte[] bytes) {
+        if (end - start != bytes.length) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if (at(start + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
+    private boolean isPrimitiveType(Class<?> clazz) {
+        return clazz.isPrimitive() ||
+               clazz == String.class ||
+               clazz == Integer.class || clazz == Long.class ||
+               clazz == Double.class || clazz == Float.class ||
+               clazz == Boolean.class || clazz == Byte.class ||
+               clazz == Short.class || clazz == Character.class;
+    }
+
+    /**
+     * Короткий фрагмент документа с текущей позиции для сообщений об ошибках.
+     */
+    private String tokenPreview() {
+        long end = Math.min(length, pos + 40);
+        return decode(pos, end);
+    }
+
+    private JsonException.DeserializationException error(String message) {
+        return new JsonException.DeserializationException(message + " (позиция " + pos + ")");
+    }
+}
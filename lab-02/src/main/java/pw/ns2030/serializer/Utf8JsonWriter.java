@@ -0,0 +1,207 @@
+package pw.ns2030.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Реализация {@link JsonWriter}, кодирующая JSON сразу в UTF-8.
+ * Данные накапливаются в растущем массиве байт, который переиспользуется
+ * между вызовами после {@link #reset()}. Для ASCII-текста (имена полей, числа,
+ * разметка) используется быстрый путь — один байт на символ без проверок.
+ */
+public class Utf8JsonWriter implements JsonWriter {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private byte[] buffer;
+    private int position;
+
+    public Utf8JsonWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Utf8JsonWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    @Override
+    public void writeChar(char c) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    @Override
+    public void writeRaw(String text) {
+        int length = text.length();
+        ensureCapacity(length * 3);
+
+        int i = 0;
+        // Быстрый путь: пока символы ASCII, пишем по байту
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c >= 0x80) break;
+            buffer[position++] = (byte) c;
+            i++;
+        }
+
+        if (i < length) {
+            encodeTail(text, i, false);
+        }
+    }
+
+    @Override
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw("-9223372036854775808");
+            return;
+        }
+
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+
+        int p = position + digits;
+        position = p;
+        do {
+            buffer[--p] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    @Override
+    public void writeString(String value) {
+        int length = value.length();
+        // Худший случай: 3 байта на символ и по 2 байта на экранирование
+        ensureCapacity(length * 3 + 2);
+
+        buffer[position++] = '"';
+
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || StringJsonWriter.escapeChar(c) != 0) break;
+            buffer[position++] = (byte) c;
+            i++;
+        }
+
+        if (i < length) {
+            encodeTail(value, i, true);
+        }
+
+        buffer[position++] = '"';
+    }
+
+    @Override
+    public void writeFieldName(ClassDescriptor.FieldDescriptor field) {
+        byte[] name = field.getEncodedNameBytes();
+        ensureCapacity(name.length);
+        System.arraycopy(name, 0, buffer, position, name.length);
+        position += name.length;
+    }
+
+    /**
+     * Кодирует остаток строки в UTF-8. Емкость буфера должна быть
+     * зарезервирована вызывающим методом.
+     */
+    private void encodeTail(String text, int from, boolean escape) {
+        byte[] buf = buffer;
+        int pos = position;
+
+        for (int i = from, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                char escaped = escape ? StringJsonWriter.escapeChar(c) : 0;
+                if (escaped != 0) {
+                    buf[pos++] = '\\';
+                    buf[pos++] = (byte) escaped;
+                } else {
+                    buf[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Одиночный суррогат, как и String.getBytes(UTF_8), заменяем на '?'
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        position = pos;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = position + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    /**
+     * Количество записанных байт.
+     */
+    @Override
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Текущая емкость внутреннего буфера.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Сбрасывает позицию записи, сохраняя выделенный буфер.
+     */
+    public void reset() {
+        position = 0;
+    }
+
+    /**
+     * Возвращает копию записанных байт.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * Возвращает представление записанных байт без копирования.
+     * Действительно до следующей записи или {@link #reset()}.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, position);
+    }
+
+    /**
+     * Записывает накопленные байты в канал (например, {@code FileChannel}).
+     * @param channel канал назначения
+     * @throws IOException при ошибке записи
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer bb = asByteBuffer();
+        while (bb.hasRemaining()) {
+            channel.write(bb);
+        }
+    }
+}